@@ -50,6 +50,23 @@ import java.util.*;
  * <DD>Comma separated list of {@link org.locationtech.spatial4j.io.ShapeWriter} class names</DD>
  * <DT>binaryCodecClass</DT>
  * <DD>Java class of the {@link org.locationtech.spatial4j.io.BinaryCodec}</DD>
+ * <DT>binaryCodecCompact</DT>
+ * <DD>true | false (default) -- write the compact format; see {@link org.locationtech.spatial4j.io.BinaryCodec}</DD>
+ * <DT>binaryCodecDecimals</DT>
+ * <DD>0 to 15; default 7 -- the precision of the compact format</DD>
+ * <DT>writerDecimals</DT>
+ * <DD>default 6 -- the fraction digits the text {@link org.locationtech.spatial4j.io.ShapeWriter}s
+ * round to, or -1 for the shortest that reads back exactly; see
+ * {@link org.locationtech.spatial4j.io.FastDecimalFormat}</DD>
+ * <DT>twkbDecimals</DT>
+ * <DD>-8 to 7; default 6 -- the precision of the {@link org.locationtech.spatial4j.io.TWKBWriter}</DD>
+ * <DT>twkbBbox</DT>
+ * <DD>true | false (default) -- include the bounding box header in TWKB</DD>
+ * <DT>twkbSize</DT>
+ * <DD>true | false (default) -- include the size header in TWKB</DD>
+ * <DT>wktStreaming</DT>
+ * <DD>true | false (default) -- the {@link org.locationtech.spatial4j.io.WKTReader} parses Readers
+ * and non-String CharSequences as it reads them instead of via a String</DD>
  * </DL>
  */
 public class SpatialContextFactory {
@@ -69,6 +86,13 @@ public class SpatialContextFactory {
 
   public Class<? extends ShapeFactory> shapeFactoryClass = ShapeFactoryImpl.class;
   public Class<? extends BinaryCodec> binaryCodecClass = BinaryCodec.class;
+  public boolean binaryCodecCompact = false;
+  public int binaryCodecDecimals = 7;//about 1cm in degrees
+  public int writerDecimals = 6;
+  public int twkbDecimals = 6;//about 10cm in degrees
+  public boolean twkbBbox = false;
+  public boolean twkbSize = false;
+  public boolean wktStreaming = false;
   public final List<Class<? extends ShapeReader>> readers = new ArrayList<Class<? extends ShapeReader>>();
   public final List<Class<? extends ShapeWriter>> writers = new ArrayList<Class<? extends ShapeWriter>>();
   public boolean hasFormatConfig = false;
@@ -126,6 +150,13 @@ public class SpatialContextFactory {
     initField("normWrapLongitude");
 
     initField("binaryCodecClass");
+    initField("binaryCodecCompact");
+    initField("binaryCodecDecimals");
+    initField("writerDecimals");
+    initField("twkbDecimals");
+    initField("twkbBbox");
+    initField("twkbSize");
+    initField("wktStreaming");
   }
 
   /** Gets {@code name} from args and populates a field by the same name with the value. */
@@ -143,6 +174,8 @@ public class SpatialContextFactory {
         Object o;
         if (field.getType() == Boolean.TYPE) {
           o = Boolean.valueOf(str);
+        } else if (field.getType() == Integer.TYPE) {
+          o = Integer.valueOf(str);
         } else if (field.getType() == Class.class) {
           try {
             o = classLoader.loadClass(str);
@@ -249,12 +282,14 @@ public class SpatialContextFactory {
       addReaderIfNoggitExists(GeoJSONReader.class);
       readers.add(WKTReader.class);
       readers.add(PolyshapeReader.class);
+      readers.add(TWKBReader.class);
       readers.add(LegacyShapeReader.class);
     }
     if (writers.isEmpty()) {
       writers.add(GeoJSONWriter.class);
       writers.add(WKTWriter.class);
       writers.add(PolyshapeWriter.class);
+      writers.add(TWKBWriter.class);
       writers.add(LegacyShapeWriter.class);
     }
   }
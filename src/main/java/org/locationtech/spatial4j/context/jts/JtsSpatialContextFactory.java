@@ -13,6 +13,7 @@ import org.locationtech.spatial4j.io.GeoJSONReader;
 import org.locationtech.spatial4j.io.LegacyShapeReader;
 import org.locationtech.spatial4j.io.LegacyShapeWriter;
 import org.locationtech.spatial4j.io.PolyshapeReader;
+import org.locationtech.spatial4j.io.TWKBReader;
 import org.locationtech.spatial4j.io.WKTReader;
 import org.locationtech.spatial4j.io.jts.*;
 import org.locationtech.spatial4j.shape.jts.JtsShapeFactory;
@@ -37,6 +38,10 @@ import java.util.Map;
  *  -- see {@link ValidationRule}</DD>
  * <DT>autoIndex</DT>
  * <DD>true|false(default) -- see {@link JtsShapeFactory#isAutoIndex()}</DD>
+ * <DT>autoIndexVertexCount</DT>
+ * <DD>0 (default, disabled) or more -- see {@link JtsShapeFactory#getAutoIndexVertexCount()}</DD>
+ * <DT>autoIndexRelateCount</DT>
+ * <DD>0 (default, disabled) or more -- see {@link JtsShapeFactory#getAutoIndexRelateCount()}</DD>
  * <DT>allowMultiOverlap</DT>
  * <DD>true|false(default) -- see {@link JtsSpatialContext#isAllowMultiOverlap()}</DD>
  * <DT>precisionModel</DT>
@@ -62,6 +67,8 @@ public class JtsSpatialContextFactory extends SpatialContextFactory {
 
   public ValidationRule validationRule = ValidationRule.error;
   public boolean autoIndex = false;
+  public int autoIndexVertexCount = 0;//0 is disabled
+  public int autoIndexRelateCount = 0;//0 is disabled
   public boolean allowMultiOverlap = false;//ignored if geo=false
 
   //kinda advanced options:
@@ -80,12 +87,14 @@ public class JtsSpatialContextFactory extends SpatialContextFactory {
       addReaderIfNoggitExists(GeoJSONReader.class);
       readers.add(WKTReader.class);
       readers.add(PolyshapeReader.class);
+      readers.add(TWKBReader.class);
       readers.add(LegacyShapeReader.class);
     }
     if (writers.isEmpty()) {
       writers.add(JtsGeoJSONWriter.class);
       writers.add(JtsWKTWriter.class);
       writers.add(JtsPolyshapeWriter.class);
+      writers.add(JtsTWKBWriter.class);
       writers.add(LegacyShapeWriter.class);
     }
   }
@@ -97,6 +106,8 @@ public class JtsSpatialContextFactory extends SpatialContextFactory {
     initField("datelineRule");
     initField("validationRule");
     initField("autoIndex");
+    initField("autoIndexVertexCount");
+    initField("autoIndexRelateCount");
     initField("allowMultiOverlap");
     initField("useJtsPoint");
     initField("useJtsLineString");
@@ -10,9 +10,11 @@ package org.locationtech.spatial4j.distance;
 
 import org.locationtech.spatial4j.shape.Point;
 
+import java.util.BitSet;
+
 /**
  */
-public abstract class AbstractDistanceCalculator implements DistanceCalculator {
+public abstract class AbstractDistanceCalculator implements BulkDistanceCalculator {
 
   @Override
   public double distance(Point from, Point to) {
@@ -24,6 +26,36 @@ public abstract class AbstractDistanceCalculator implements DistanceCalculator {
     return distance(from, toX, toY) <= distance;
   }
 
+  @Override
+  public void distances(Point from, double[] xs, double[] ys, int offset, int length, double[] out) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      out[i] = distance(from, xs[i], ys[i]);
+    }
+  }
+
+  @Override
+  public int within(Point from, double[] xs, double[] ys, int offset, int length, double distance,
+                    BitSet result) {
+    int count = 0;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      if (within(from, xs[i], ys[i], distance)) {
+        result.set(i);
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public WithinPredicate prepareWithin(final Point from, final double distDEG) {
+    return new WithinPredicate() {
+      @Override
+      public boolean within(double x, double y) {
+        return AbstractDistanceCalculator.this.within(from, x, y, distDEG);
+      }
+    };
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName();
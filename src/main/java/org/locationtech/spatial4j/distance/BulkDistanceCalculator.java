@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.distance;
+
+import org.locationtech.spatial4j.shape.Point;
+
+import java.util.BitSet;
+
+/**
+ * A {@link DistanceCalculator} that can also compute many distances from the same origin at once,
+ * or test many points against the same origin and distance.  It's a separate interface so that
+ * existing implementations of {@link DistanceCalculator} needn't change;
+ * {@link AbstractDistanceCalculator} implements it with simple loops, which subclasses override to
+ * hoist the per-<code>from</code> math out of the loop.
+ */
+public interface BulkDistanceCalculator extends DistanceCalculator {
+
+  /**
+   * Bulk version of {@link #distance(Point, double, double)}: for each index <code>i</code> from
+   * <code>offset</code> (inclusive) to <code>offset + length</code> (exclusive), the distance
+   * between <code>from</code> and <code>Point(xs[i],ys[i])</code> is stored into <code>out[i]</code>.
+   * The results are the same as calling the single-point method but implementations don't allocate
+   * and hoist the per-<code>from</code> math out of the loop.
+   */
+  public void distances(Point from, double[] xs, double[] ys, int offset, int length, double[] out);
+
+  /**
+   * Bulk version of {@link #within(Point, double, double, double)}: for each index <code>i</code>
+   * from <code>offset</code> (inclusive) to <code>offset + length</code> (exclusive), bit
+   * <code>i</code> of <code>result</code> is set if <code>Point(xs[i],ys[i])</code> is within
+   * <code>distance</code> of <code>from</code>. Other bits are not modified.
+   *
+   * @return the number of points within the distance.
+   */
+  public int within(Point from, double[] xs, double[] ys, int offset, int length, double distance,
+                    BitSet result);
+
+  /**
+   * Returns a predicate that tests whether points are within <code>distDEG</code> of
+   * <code>from</code>. Use it instead of {@link #within(Point, double, double, double)} when testing
+   * many points against the same origin and distance.
+   */
+  public WithinPredicate prepareWithin(Point from, double distDEG);
+
+}
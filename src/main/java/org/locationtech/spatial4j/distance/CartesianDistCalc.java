@@ -13,6 +13,8 @@ import org.locationtech.spatial4j.shape.Circle;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Rectangle;
 
+import java.util.BitSet;
+
 /**
  * Calculates based on Euclidean / Cartesian 2d plane.
  */
@@ -90,6 +92,51 @@ public class CartesianDistCalc extends AbstractDistanceCalculator {
     return deltaX*deltaX + deltaY*deltaY <= distance*distance;
   }
 
+  @Override
+  public void distances(Point from, double[] xs, double[] ys, int offset, int length, double[] out) {
+    final double fromX = from.getX();
+    final double fromY = from.getY();
+    final int end = offset + length;
+    if (squared) {
+      for (int i = offset; i < end; i++) {
+        out[i] = distanceSquared(fromX, fromY, xs[i], ys[i]);
+      }
+    } else {
+      for (int i = offset; i < end; i++) {
+        out[i] = Math.sqrt(distanceSquared(fromX, fromY, xs[i], ys[i]));
+      }
+    }
+  }
+
+  @Override
+  public int within(Point from, double[] xs, double[] ys, int offset, int length, double distance,
+                    BitSet result) {
+    final double fromX = from.getX();
+    final double fromY = from.getY();
+    final double distanceSquared = distance * distance;
+    int count = 0;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      if (distanceSquared(fromX, fromY, xs[i], ys[i]) <= distanceSquared) {
+        result.set(i);
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public WithinPredicate prepareWithin(Point from, double distDEG) {
+    final double fromX = from.getX();
+    final double fromY = from.getY();
+    final double distanceSquared = distDEG * distDEG;
+    return new WithinPredicate() {
+      @Override
+      public boolean within(double x, double y) {
+        return distanceSquared(fromX, fromY, x, y) <= distanceSquared;
+      }
+    };
+  }
+
   @Override
   public Point pointOnBearing(Point from, double distDEG, double bearingDEG, SpatialContext ctx, Point reuse) {
     if (distDEG == 0) {
@@ -12,6 +12,9 @@ import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.shape.Circle;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.impl.RectangleImpl;
+
+import java.util.BitSet;
 
 import static org.locationtech.spatial4j.distance.DistanceUtils.toDegrees;
 import static org.locationtech.spatial4j.distance.DistanceUtils.toRadians;
@@ -85,6 +88,77 @@ public abstract class GeodesicSphereDistCalc extends AbstractDistanceCalculator
 
   protected abstract double distanceLatLonRAD(double lat1, double lon1, double lat2, double lon2);
 
+  // The subclasses override the bulk methods to additionally hoist the trigonometry of "from".
+
+  @Override
+  public void distances(Point from, double[] xs, double[] ys, int offset, int length, double[] out) {
+    final double lat1 = toRadians(from.getY());
+    final double lon1 = toRadians(from.getX());
+    for (int i = offset, end = offset + length; i < end; i++) {
+      out[i] = toDegrees(distanceLatLonRAD(lat1, lon1, toRadians(ys[i]), toRadians(xs[i])));
+    }
+  }
+
+  @Override
+  public int within(Point from, double[] xs, double[] ys, int offset, int length, double distance,
+                    BitSet result) {
+    final double lat1 = toRadians(from.getY());
+    final double lon1 = toRadians(from.getX());
+    int count = 0;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      if (toDegrees(distanceLatLonRAD(lat1, lon1, toRadians(ys[i]), toRadians(xs[i]))) <= distance) {
+        result.set(i);
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public WithinPredicate prepareWithin(final Point from, final double distDEG) {
+    return new BoxFilteredWithin(from, distDEG) {
+      @Override
+      protected boolean withinBox(double x, double y) {
+        return distance(from, x, y) <= distDEG;
+      }
+    };
+  }
+
+  /**
+   * A {@link WithinPredicate} that first rejects points outside of the bounding box of the
+   * origin &amp; distance via {@link #calcBoxByDistFromPt(Point, double, SpatialContext, Rectangle)},
+   * and only then calls {@link #withinBox(double, double)}.
+   */
+  protected abstract class BoxFilteredWithin implements WithinPredicate {
+    protected final double lat1;//radians
+    protected final double lon1;//radians
+    private final double minX, maxX, minY, maxY;
+    private final boolean crossesDateLine;
+
+    protected BoxFilteredWithin(Point from, double distDEG) {
+      this.lat1 = toRadians(from.getY());
+      this.lon1 = toRadians(from.getX());
+      Rectangle box = calcBoxByDistFromPt(from, distDEG, null, new RectangleImpl(0, 0, 0, 0, null));
+      this.minX = box.getMinX();
+      this.maxX = box.getMaxX();
+      this.minY = box.getMinY();
+      this.maxY = box.getMaxY();
+      this.crossesDateLine = box.getCrossesDateLine();
+    }
+
+    @Override
+    public final boolean within(double x, double y) {
+      if (y < minY || y > maxY)
+        return false;
+      if (crossesDateLine ? (x < minX && x > maxX) : (x < minX || x > maxX))
+        return false;
+      return withinBox(x, y);
+    }
+
+    /** Called for points within the bounding box. */
+    protected abstract boolean withinBox(double x, double y);
+  }
+
   public static class Haversine extends GeodesicSphereDistCalc {
 
     @Override
@@ -92,6 +166,66 @@ public abstract class GeodesicSphereDistCalc extends AbstractDistanceCalculator
       return DistanceUtils.distHaversineRAD(lat1,lon1,lat2,lon2);
     }
 
+    @Override
+    public void distances(Point from, double[] xs, double[] ys, int offset, int length, double[] out) {
+      final double lat1 = toRadians(from.getY());
+      final double lon1 = toRadians(from.getX());
+      final double cosLat1 = Math.cos(lat1);
+      for (int i = offset, end = offset + length; i < end; i++) {
+        out[i] = toDegrees(distHaversineRAD(lat1, lon1, cosLat1, toRadians(ys[i]), toRadians(xs[i])));
+      }
+    }
+
+    @Override
+    public int within(Point from, double[] xs, double[] ys, int offset, int length, double distance,
+                      BitSet result) {
+      final double lat1 = toRadians(from.getY());
+      final double lon1 = toRadians(from.getX());
+      final double cosLat1 = Math.cos(lat1);
+      int count = 0;
+      for (int i = offset, end = offset + length; i < end; i++) {
+        if (toDegrees(distHaversineRAD(lat1, lon1, cosLat1, toRadians(ys[i]), toRadians(xs[i]))) <= distance) {
+          result.set(i);
+          count++;
+        }
+      }
+      return count;
+    }
+
+    @Override
+    public WithinPredicate prepareWithin(Point from, double distDEG) {
+      // within if the haversine "h" is <= that of distDEG; avoids atan2 & sqrt
+      final double hsinDist = Math.sin(toRadians(distDEG) * 0.5);
+      final double maxH = distDEG >= 180 ? Double.POSITIVE_INFINITY : hsinDist * hsinDist;
+      return new BoxFilteredWithin(from, distDEG) {
+        final double cosLat1 = Math.cos(lat1);
+
+        @Override
+        protected boolean withinBox(double x, double y) {
+          final double lat2 = toRadians(y);
+          final double lon2 = toRadians(x);
+          if (lat1 == lat2 && lon1 == lon2)
+            return true;
+          double hsinX = Math.sin((lon1 - lon2) * 0.5);
+          double hsinY = Math.sin((lat1 - lat2) * 0.5);
+          return hsinY * hsinY + (cosLat1 * Math.cos(lat2) * hsinX * hsinX) <= maxH;
+        }
+      };
+    }
+
+    /** {@link DistanceUtils#distHaversineRAD(double, double, double, double)} given cos(lat1). */
+    private static double distHaversineRAD(double lat1, double lon1, double cosLat1, double lat2, double lon2) {
+      if (lat1 == lat2 && lon1 == lon2)
+        return 0.0;
+      double hsinX = Math.sin((lon1 - lon2) * 0.5);
+      double hsinY = Math.sin((lat1 - lat2) * 0.5);
+      double h = hsinY * hsinY +
+              (cosLat1 * Math.cos(lat2) * hsinX * hsinX);
+      if (h > 1)//numeric robustness issue. If we didn't check, the answer would be NaN!
+        h = 1;
+      return 2 * Math.atan2(Math.sqrt(h), Math.sqrt(1 - h));
+    }
+
   }
 
   public static class LawOfCosines extends GeodesicSphereDistCalc {
@@ -101,6 +235,64 @@ public abstract class GeodesicSphereDistCalc extends AbstractDistanceCalculator
       return DistanceUtils.distLawOfCosinesRAD(lat1, lon1, lat2, lon2);
     }
 
+    @Override
+    public void distances(Point from, double[] xs, double[] ys, int offset, int length, double[] out) {
+      final double lat1 = toRadians(from.getY());
+      final double lon1 = toRadians(from.getX());
+      final double sinLat1 = Math.sin(lat1);
+      final double cosLat1 = Math.cos(lat1);
+      for (int i = offset, end = offset + length; i < end; i++) {
+        out[i] = toDegrees(distLawOfCosinesRAD(lat1, lon1, sinLat1, cosLat1, toRadians(ys[i]), toRadians(xs[i])));
+      }
+    }
+
+    @Override
+    public int within(Point from, double[] xs, double[] ys, int offset, int length, double distance,
+                      BitSet result) {
+      final double lat1 = toRadians(from.getY());
+      final double lon1 = toRadians(from.getX());
+      final double sinLat1 = Math.sin(lat1);
+      final double cosLat1 = Math.cos(lat1);
+      int count = 0;
+      for (int i = offset, end = offset + length; i < end; i++) {
+        if (toDegrees(distLawOfCosinesRAD(lat1, lon1, sinLat1, cosLat1, toRadians(ys[i]), toRadians(xs[i]))) <= distance) {
+          result.set(i);
+          count++;
+        }
+      }
+      return count;
+    }
+
+    @Override
+    public WithinPredicate prepareWithin(Point from, final double distDEG) {
+      // (comparing cosines instead of using acos() is too imprecise for tiny distances)
+      return new BoxFilteredWithin(from, distDEG) {
+        final double sinLat1 = Math.sin(lat1);
+        final double cosLat1 = Math.cos(lat1);
+
+        @Override
+        protected boolean withinBox(double x, double y) {
+          return toDegrees(distLawOfCosinesRAD(lat1, lon1, sinLat1, cosLat1, toRadians(y), toRadians(x))) <= distDEG;
+        }
+      };
+    }
+
+    /** {@link DistanceUtils#distLawOfCosinesRAD(double, double, double, double)} given sin &amp; cos of lat1. */
+    private static double distLawOfCosinesRAD(double lat1, double lon1, double sinLat1, double cosLat1,
+                                              double lat2, double lon2) {
+      if (lat1 == lat2 && lon1 == lon2)
+        return 0.0;
+      double dLon = lon2 - lon1;
+      double cosB = (sinLat1 * Math.sin(lat2))
+              + (cosLat1 * Math.cos(lat2) * Math.cos(dLon));
+      if (cosB < -1.0)
+        return Math.PI;
+      else if (cosB >= 1.0)
+        return 0;
+      else
+        return Math.acos(cosB);
+    }
+
   }
 
   public static class Vincenty extends GeodesicSphereDistCalc {
@@ -109,5 +301,64 @@ public abstract class GeodesicSphereDistCalc extends AbstractDistanceCalculator
     protected double distanceLatLonRAD(double lat1, double lon1, double lat2, double lon2) {
       return DistanceUtils.distVincentyRAD(lat1, lon1, lat2, lon2);
     }
+
+    @Override
+    public void distances(Point from, double[] xs, double[] ys, int offset, int length, double[] out) {
+      final double lat1 = toRadians(from.getY());
+      final double lon1 = toRadians(from.getX());
+      final double sinLat1 = Math.sin(lat1);
+      final double cosLat1 = Math.cos(lat1);
+      for (int i = offset, end = offset + length; i < end; i++) {
+        out[i] = toDegrees(distVincentyRAD(lat1, lon1, sinLat1, cosLat1, toRadians(ys[i]), toRadians(xs[i])));
+      }
+    }
+
+    @Override
+    public int within(Point from, double[] xs, double[] ys, int offset, int length, double distance,
+                      BitSet result) {
+      final double lat1 = toRadians(from.getY());
+      final double lon1 = toRadians(from.getX());
+      final double sinLat1 = Math.sin(lat1);
+      final double cosLat1 = Math.cos(lat1);
+      int count = 0;
+      for (int i = offset, end = offset + length; i < end; i++) {
+        if (toDegrees(distVincentyRAD(lat1, lon1, sinLat1, cosLat1, toRadians(ys[i]), toRadians(xs[i]))) <= distance) {
+          result.set(i);
+          count++;
+        }
+      }
+      return count;
+    }
+
+    @Override
+    public WithinPredicate prepareWithin(Point from, final double distDEG) {
+      return new BoxFilteredWithin(from, distDEG) {
+        final double sinLat1 = Math.sin(lat1);
+        final double cosLat1 = Math.cos(lat1);
+
+        @Override
+        protected boolean withinBox(double x, double y) {
+          return toDegrees(distVincentyRAD(lat1, lon1, sinLat1, cosLat1, toRadians(y), toRadians(x))) <= distDEG;
+        }
+      };
+    }
+
+    /** {@link DistanceUtils#distVincentyRAD(double, double, double, double)} given sin &amp; cos of lat1. */
+    private static double distVincentyRAD(double lat1, double lon1, double sinLat1, double cosLat1,
+                                          double lat2, double lon2) {
+      if (lat1 == lat2 && lon1 == lon2)
+        return 0.0;
+      double cosLat2 = Math.cos(lat2);
+      double sinLat2 = Math.sin(lat2);
+      double dLon = lon2 - lon1;
+      double cosDLon = Math.cos(dLon);
+      double sinDLon = Math.sin(dLon);
+
+      double a = cosLat2 * sinDLon;
+      double b = cosLat1*sinLat2 - sinLat1*cosLat2*cosDLon;
+      double c = sinLat1*sinLat2 + cosLat1*cosLat2*cosDLon;
+
+      return Math.atan2(Math.sqrt(a*a+b*b),c);
+    }
   }
 }
@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.distance;
+
+/**
+ * Tests whether points are within a fixed distance of a fixed origin. Instances are obtained from
+ * {@link BulkDistanceCalculator#prepareWithin(org.locationtech.spatial4j.shape.Point, double)}, which
+ * pre-computes whatever depends only on the origin and distance so that each test is cheap.
+ * Implementations are immutable and thus thread-safe.
+ */
+public interface WithinPredicate {
+
+  /**
+   * Returns true if <code>Point(x,y)</code> is within the distance of the origin, like
+   * {@link DistanceCalculator#within(org.locationtech.spatial4j.shape.Point, double, double, double)}.
+   * Implementations may differ from it for points essentially on the edge due to floating point
+   * rounding.
+   */
+  boolean within(double x, double y);
+
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.grid;
+
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+import org.locationtech.spatial4j.shape.impl.RectangleImpl;
+
+/**
+ * A cell of a {@link Grid}, identified by its key.  It's mutable so that it can be reused with
+ * {@link #reset(long)}; its rectangle is too.  Not thread-safe.
+ */
+public class Cell {
+
+  private final Grid grid;
+  private final double[] bounds = new double[4];
+  private final Rectangle rectangle;
+  private long key;
+  private int level;
+  private SpatialRelation shapeRel;
+  private boolean leaf;
+
+  Cell(Grid grid) {
+    this.grid = grid;
+    this.rectangle = new RectangleImpl(0, 0, 0, 0, grid.getContext());
+  }
+
+  /** Makes this the cell with the given key, as returned by {@link #getKey()}. */
+  public void reset(long key) {
+    this.key = key;
+    this.level = grid.getLevel(key);
+    this.shapeRel = null;
+    this.leaf = level == grid.getMaxLevels();
+    grid.decodeToRect(key, level, bounds);
+    rectangle.reset(bounds[0], bounds[1], bounds[2], bounds[3]);
+  }
+
+  /**
+   * Relates the shape to this cell, as {@link Grid#cells(Shape, int, Grid.Visitor)} does.
+   *
+   * @return false if they're disjoint.
+   */
+  boolean relate(Shape shape, int detailLevel) {
+    shapeRel = shape.relate(rectangle);
+    leaf = shapeRel == SpatialRelation.CONTAINS || level >= detailLevel;
+    return shapeRel != SpatialRelation.DISJOINT;
+  }
+
+  public Grid getGrid() {
+    return grid;
+  }
+
+  /** The key; see {@link Grid}. */
+  public long getKey() {
+    return key;
+  }
+
+  /** The level; the world cell is 0. */
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * The relation of the shape being decomposed to this cell (e.g. CONTAINS means the shape contains
+   * it), or null if it isn't from {@link Grid#cells(Shape, int, Grid.Visitor)}.
+   */
+  public SpatialRelation getShapeRel() {
+    return shapeRel;
+  }
+
+  /**
+   * Whether this cell's children aren't visited: the shape contains it or it's at the detail level.
+   * Otherwise, whether it's at the grid's maximum level.
+   */
+  public boolean isLeaf() {
+    return leaf;
+  }
+
+  /** The cell's rectangle; it's reused when the cell is. */
+  public Rectangle getRectangle() {
+    return rectangle;
+  }
+
+  /** A new Rectangle of the cell, e.g. to keep. */
+  public Rectangle toShape() {
+    return grid.getContext().getShapeFactory().rect(bounds[0], bounds[1], bounds[2], bounds[3]);
+  }
+
+  /** The token; see {@link Grid#toToken(long)}. */
+  public String getToken() {
+    return grid.toToken(key);
+  }
+
+  /** Whether this cell is the other one or one of its ancestors. */
+  public boolean isPrefixOf(Cell other) {
+    return grid.isPrefixOf(key, other.key);
+  }
+
+  @Override
+  public String toString() {
+    return getToken() + (shapeRel == null ? "" : "(" + shapeRel + (leaf ? ",leaf)" : ")"));
+  }
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.grid;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.io.GeohashUtils;
+
+/**
+ * A {@link Grid} of <a href="http://en.wikipedia.org/wiki/Geohash">geohashes</a>: each cell is
+ * divided into 32, and the tokens are geohashes.  The keys are the same as
+ * {@link GeohashUtils#geohashToLong(String)}'s.  Only for geo contexts; up to 12 levels.
+ */
+public class GeohashGrid extends Grid {
+
+  public static final int MAX_LEVELS_POSSIBLE = GeohashUtils.MAX_LONG_BITS / 5;
+
+  private static final char[] TOKEN_CHARS = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+  public GeohashGrid(SpatialContext ctx, int maxLevels) {
+    super(ctx, 5, maxLevels, TOKEN_CHARS);
+    if (!ctx.isGeo())
+      throw new IllegalArgumentException("Geohash only makes sense for geo");
+  }
+
+  @Override
+  public double getCellWidth(int level) {
+    return GeohashUtils.lookupDegreesSizeForHashLen(level)[1];
+  }
+
+  @Override
+  public double getCellHeight(int level) {
+    return GeohashUtils.lookupDegreesSizeForHashLen(level)[0];
+  }
+
+  @Override
+  protected void decodeToRect(long key, int level, double[] out) {
+    GeohashUtils.decodeToRect(key, out);
+  }
+}
@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.grid;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.ShapeFactory;
+
+import java.util.Arrays;
+
+/**
+ * A hierarchy of grids over the world bounds, in which each cell of a level is divided into the same
+ * number of cells at the next level; the basis of spatial prefix trees.  Cells are identified by a
+ * long key that holds the index of each level's cell within its parent from the top down, in
+ * {@link #getBitsPerLevel()} bits each, left-aligned from bit 62 and followed by a 1 bit that marks
+ * the level (the same layout as {@link org.locationtech.spatial4j.io.GeohashUtils#encodeLatLonLong(double, double, int)}).
+ * Thus the keys of a level sort like their tokens, and a cell and its descendants are in a contiguous
+ * range of keys.
+ * <p>
+ * {@link #cells(Shape, int, Visitor)} decomposes a shape into cells, visiting one reusable
+ * {@link Cell} per level, so that walking the grid doesn't allocate.  Thread-safe; cells aren't.
+ *
+ * @see QuadGrid
+ * @see GeohashGrid
+ */
+public abstract class Grid {
+
+  /** The number of bits available for a key's cell indexes. */
+  protected static final int MAX_KEY_BITS = 62;
+
+  protected final SpatialContext ctx;
+  protected final int bitsPerLevel;
+  protected final int maxLevels;
+  private final char[] tokenChars;
+
+  /**
+   * @param bitsPerLevel the number of bits of a level's cell index; its cells have
+   *                     {@code 2^bitsPerLevel} children.
+   * @param tokenChars the character of each cell index in a token, in order; sorted.
+   */
+  protected Grid(SpatialContext ctx, int bitsPerLevel, int maxLevels, char[] tokenChars) {
+    if (maxLevels < 1 || maxLevels * bitsPerLevel > MAX_KEY_BITS)
+      throw new IllegalArgumentException("maxLevels must be between 1 and " + MAX_KEY_BITS / bitsPerLevel
+          + ": " + maxLevels);
+    assert tokenChars.length == 1 << bitsPerLevel;
+    this.ctx = ctx;
+    this.bitsPerLevel = bitsPerLevel;
+    this.maxLevels = maxLevels;
+    this.tokenChars = tokenChars;
+  }
+
+  public SpatialContext getContext() {
+    return ctx;
+  }
+
+  /** The number of bits per level; cells have {@code 2^bitsPerLevel} children. */
+  public int getBitsPerLevel() {
+    return bitsPerLevel;
+  }
+
+  /** The finest level; the world cell is level 0. */
+  public int getMaxLevels() {
+    return maxLevels;
+  }
+
+  /** The width of the cells at the level. */
+  public abstract double getCellWidth(int level);
+
+  /** The height of the cells at the level. */
+  public abstract double getCellHeight(int level);
+
+  /**
+   * Decodes the bounds of the cell with the given key into the array as minX, maxX, minY, maxY.
+   *
+   * @param level the key's level, as returned by {@link #getLevel(long)}
+   */
+  protected abstract void decodeToRect(long key, int level, double[] out);
+
+  /**
+   * The coarsest level whose cells are no wider or taller than the distance, or {@link #getMaxLevels()}
+   * if none is.
+   */
+  public int getLevelForDistance(double dist) {
+    for (int level = 1; level < maxLevels; level++) {
+      if (getCellWidth(level) <= dist && getCellHeight(level) <= dist)
+        return level;
+    }
+    return maxLevels;
+  }
+
+  /** The size of a cell at the level: the larger of its width and height. */
+  public double getDistanceForLevel(int level) {
+    return Math.max(getCellWidth(level), getCellHeight(level));
+  }
+
+  /**
+   * The level to decompose the shape to so that the error is within the fraction of the shape's
+   * size; see {@link #calcDistanceFromErrPct(Shape, double, SpatialContext)}.
+   */
+  public int getLevelForDistErrPct(Shape shape, double distErrPct) {
+    final double distErr = calcDistanceFromErrPct(shape, distErrPct, ctx);
+    return distErr == 0 ? maxLevels : getLevelForDistance(distErr);
+  }
+
+  /**
+   * Computes the distance given a shape and the {@code distErrPct}: the fraction of the distance
+   * from the center of the shape's bounding box to its closest corner (to the equator, if geo).  The
+   * result is the distance from the shape's edge that its cells may reach.  It's 0 for points, and when
+   * distErrPct is 0 which means full precision.
+   *
+   * @param distErrPct from 0 to 0.5
+   */
+  public static double calcDistanceFromErrPct(Shape shape, double distErrPct, SpatialContext ctx) {
+    if (distErrPct < 0 || distErrPct > 0.5)
+      throw new IllegalArgumentException("distErrPct " + distErrPct + " must be between [0 to 0.5]");
+    if (distErrPct == 0 || shape instanceof Point)
+      return 0;
+    final Rectangle bbox = shape.getBoundingBox();
+    //the distance to a bottom corner vs a top corner varies if geo; take the closer one
+    final Point ctr = bbox.getCenter();
+    final double y = ctr.getY() >= 0 ? bbox.getMaxY() : bbox.getMinY();
+    return ctx.getDistCalc().distance(ctr, bbox.getMaxX(), y) * distErrPct;
+  }
+
+  /** The key of the world cell, which is at level 0. */
+  public long getWorldKey() {
+    return 1L << MAX_KEY_BITS;
+  }
+
+  /** The level of the cell with the key. */
+  public int getLevel(long key) {
+    if (key <= 0)
+      throw new IllegalArgumentException("Not a cell key: " + key);
+    return (MAX_KEY_BITS - Long.numberOfTrailingZeros(key)) / bitsPerLevel;
+  }
+
+  /** The key of the child at the index (from 0 to {@code 2^bitsPerLevel - 1}) of the cell. */
+  public long getChildKey(long key, int level, int index) {
+    final int shift = MAX_KEY_BITS - (level + 1) * bitsPerLevel;
+    return (key ^ Long.lowestOneBit(key)) | ((long) index << (shift + 1)) | (1L << shift);
+  }
+
+  /** The key of the parent of the cell, which mustn't be the world cell. */
+  public long getParentKey(long key, int level) {
+    final int shift = MAX_KEY_BITS - (level - 1) * bitsPerLevel;
+    return ((key >>> shift) | 1) << shift;
+  }
+
+  /** Whether the first cell is the second one or one of its ancestors. */
+  public boolean isPrefixOf(long key, long otherKey) {
+    final long marker = Long.lowestOneBit(key);
+    return otherKey > key - marker && otherKey <= key + (marker - 1);
+  }
+
+  /** A new cell, at the world cell; for use with {@link Cell#reset(long)}. */
+  public Cell newCell() {
+    final Cell cell = new Cell(this);
+    cell.reset(getWorldKey());
+    return cell;
+  }
+
+  /** The token of the cell with the key: a character per level. */
+  public String toToken(long key) {
+    final char[] chars = new char[getLevel(key)];
+    final int mask = (1 << bitsPerLevel) - 1;
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = tokenChars[(int) (key >>> (MAX_KEY_BITS + 1 - (i + 1) * bitsPerLevel)) & mask];
+    }
+    return new String(chars);
+  }
+
+  /**
+   * The key of the cell with the token, as returned by {@link #toToken(long)}.
+   *
+   * @throws IllegalArgumentException if it isn't one
+   */
+  public long toKey(CharSequence token) {
+    if (token.length() > maxLevels)
+      throw new IllegalArgumentException("Token longer than " + maxLevels + " levels: " + token);
+    long key = getWorldKey();
+    for (int level = 0; level < token.length(); level++) {
+      final int index = Arrays.binarySearch(tokenChars, token.charAt(level));
+      if (index < 0)
+        throw new IllegalArgumentException("Not a cell token: " + token);
+      key = getChildKey(key, level, index);
+    }
+    return key;
+  }
+
+  /** Callback for {@link #cells(Shape, int, Visitor)}. */
+  public interface Visitor {
+    /**
+     * Visits a cell the shape intersects.  The cell is reused once this returns.
+     *
+     * @return whether to visit the cell's children; ignored for leaves.
+     */
+    boolean visit(Cell cell);
+  }
+
+  /**
+   * Decomposes the shape into the cells it intersects, down to the detail level.  The cells are
+   * visited depth first, children in key order, with their relation to the shape
+   * ({@link Shape#relate(Shape)}, which drives the recursion); cells the shape contains and those at
+   * the detail level are leaves, whose children aren't visited.  Thus the leaves are visited in key
+   * order and cover the shape.  Each level reuses a single {@link Cell}.
+   *
+   * @see #getLevelForDistErrPct(Shape, double)
+   */
+  public void cells(Shape shape, int detailLevel, Visitor visitor) {
+    if (detailLevel < 0 || detailLevel > maxLevels)
+      throw new IllegalArgumentException("detailLevel must be between 0 and " + maxLevels + ": " + detailLevel);
+    final Cell[] cells = new Cell[detailLevel + 1];
+    cells[0] = newCell();
+    if (!cells[0].relate(shape, detailLevel))
+      return;
+    if (visitor.visit(cells[0]) && !cells[0].isLeaf())
+      visitChildren(shape, cells, 1, detailLevel, visitor);
+  }
+
+  private void visitChildren(Shape shape, Cell[] cells, int level, int detailLevel, Visitor visitor) {
+    if (cells[level] == null)
+      cells[level] = new Cell(this);
+    final Cell cell = cells[level];
+    final long parentKey = cells[level - 1].getKey();
+    final int numChildren = 1 << bitsPerLevel;
+    for (int i = 0; i < numChildren; i++) {
+      cell.reset(getChildKey(parentKey, level - 1, i));
+      if (!cell.relate(shape, detailLevel))
+        continue;
+      if (visitor.visit(cell) && !cell.isLeaf())
+        visitChildren(shape, cells, level + 1, detailLevel, visitor);
+    }
+  }
+
+  /**
+   * Reconstructs a shape from cells: the union of their rectangles.  Complete sets of siblings are
+   * merged into their parent, and cells within another are dropped.
+   *
+   * @return a Rectangle for a single cell, otherwise a ShapeCollection of them; empty if none.
+   */
+  public Shape toShape(long[] keys) {
+    final long[] sorted = keys.clone();
+    Arrays.sort(sorted);
+    final int numChildren = 1 << bitsPerLevel;
+    //a stack of disjoint cells in key order; merge when its top holds all the children of a cell
+    final long[] stack = new long[sorted.length];
+    int size = 0;
+    for (long key : sorted) {
+      if (size > 0 && isPrefixOf(stack[size - 1], key))
+        continue;//within the previous cell
+      while (size > 0 && isPrefixOf(key, stack[size - 1]))
+        size--;//the previous cells are within this one
+      stack[size++] = key;
+      while (size >= numChildren) {
+        final long last = stack[size - 1];
+        final int level = getLevel(last);
+        if (level == 0)
+          break;
+        final long parent = getParentKey(last, level);
+        if (!isChildren(stack, size - numChildren, parent, level - 1))
+          break;
+        size -= numChildren;
+        stack[size++] = parent;
+      }
+    }
+
+    final ShapeFactory shapeFactory = ctx.getShapeFactory();
+    final double[] bounds = new double[4];
+    if (size == 1) {
+      decodeToRect(stack[0], getLevel(stack[0]), bounds);
+      return shapeFactory.rect(bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+    final ShapeFactory.MultiShapeBuilder<Rectangle> builder = shapeFactory.multiShape(Rectangle.class);
+    for (int i = 0; i < size; i++) {
+      decodeToRect(stack[i], getLevel(stack[i]), bounds);
+      builder.add(shapeFactory.rect(bounds[0], bounds[1], bounds[2], bounds[3]));
+    }
+    return builder.build();
+  }
+
+  private boolean isChildren(long[] keys, int offset, long parent, int parentLevel) {
+    for (int i = 0; i < 1 << bitsPerLevel; i++) {
+      if (keys[offset + i] != getChildKey(parent, parentLevel, i))
+        return false;
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(maxLevels:" + maxLevels + ",ctx:" + ctx + ")";
+  }
+}
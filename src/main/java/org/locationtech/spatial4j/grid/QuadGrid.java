@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.grid;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Rectangle;
+
+/**
+ * A {@link Grid} that divides each cell into 4 quadrants, over the context's world bounds, which must
+ * be finite.  A cell's index within its parent has its x bit then its y bit, so the children are
+ * ordered lower-left, upper-left, lower-right, upper-right, and tokens use the characters '0' to '3'.
+ * Up to 31 levels.
+ */
+public class QuadGrid extends Grid {
+
+  public static final int MAX_LEVELS_POSSIBLE = MAX_KEY_BITS / 2;
+
+  private static final char[] TOKEN_CHARS = {'0', '1', '2', '3'};
+
+  private final double minX, minY;
+  private final double width, height;
+
+  public QuadGrid(SpatialContext ctx, int maxLevels) {
+    super(ctx, 2, maxLevels, TOKEN_CHARS);
+    final Rectangle bounds = ctx.getWorldBounds();
+    if (Double.isInfinite(bounds.getWidth()) || Double.isInfinite(bounds.getHeight()))
+      throw new IllegalArgumentException("The world bounds must be finite: " + bounds);
+    this.minX = bounds.getMinX();
+    this.minY = bounds.getMinY();
+    this.width = bounds.getWidth();
+    this.height = bounds.getHeight();
+  }
+
+  @Override
+  public double getCellWidth(int level) {
+    return width / (1L << level);
+  }
+
+  @Override
+  public double getCellHeight(int level) {
+    return height / (1L << level);
+  }
+
+  @Override
+  protected void decodeToRect(long key, int level, double[] out) {
+    final long interleaved = key >>> (MAX_KEY_BITS + 1 - level * 2);
+    final long x = compact(interleaved >>> 1);
+    final long y = compact(interleaved);
+    final double cellWidth = getCellWidth(level);
+    final double cellHeight = getCellHeight(level);
+    out[0] = minX + x * cellWidth;
+    out[1] = minX + (x + 1) * cellWidth;
+    out[2] = minY + y * cellHeight;
+    out[3] = minY + (y + 1) * cellHeight;
+  }
+
+  /** Gathers the even bits of v. */
+  private static long compact(long v) {
+    v &= 0x5555555555555555L;
+    v = (v | (v >>> 1)) & 0x3333333333333333L;
+    v = (v | (v >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+    v = (v | (v >>> 4)) & 0x00FF00FF00FF00FFL;
+    v = (v | (v >>> 8)) & 0x0000FFFF0000FFFFL;
+    v = (v | (v >>> 16)) & 0x00000000FFFFFFFFL;
+    return v;
+  }
+}
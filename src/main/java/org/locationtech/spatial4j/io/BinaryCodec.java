@@ -16,39 +16,69 @@ import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Rectangle;
 import org.locationtech.spatial4j.shape.Shape;
 import org.locationtech.spatial4j.shape.ShapeCollection;
+import org.locationtech.spatial4j.shape.ShapeFactory;
+import org.locationtech.spatial4j.shape.impl.BBoxCalculator;
+import org.locationtech.spatial4j.shape.impl.BufferedLineString;
 
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A binary shape format. It is <em>not</em> designed to be a published standard, unlike Well Known
  * Binary (WKB). The initial release is simple but it could get more optimized to use fewer bytes or
  * to write &amp; read pre-computed index structures.
  * <p>
+ * Shapes can be read from &amp; written to a {@link DataInput} / {@link DataOutput}, or directly
+ * to a {@link ByteBuffer} (heap, direct, or memory-mapped) at its position, which is advanced.  Both
+ * produce the same bytes.  A ByteBuffer must have the default {@link ByteOrder#BIG_ENDIAN} order.
+ * <p>
+ * There is an optional compact format, enabled by
+ * {@link SpatialContextFactory#binaryCodecCompact}.  Coordinates are quantized to
+ * {@link SpatialContextFactory#binaryCodecDecimals} decimal places and written as zig-zag
+ * varints, as deltas from the previous coordinate in lines and rings.  A quantized value must fit in
+ * a long (e.g. be within &plusmn;9.2e11 with 7 decimals), or writing throws an
+ * IllegalArgumentException; this excludes infinite values.  Collections of one shape type
+ * write the type once, and BufferedLineString is supported.  Each shape starts with a header byte,
+ * the number of decimals, and the length, so data in the original format (which starts with a type
+ * byte) and the compact format can both be read no matter which format is written.
+ * <p>
  * Immutable and thread-safe.
  */
 public class BinaryCodec {
   //type 0; reserved for unkonwn/generic; see readCollection
-  protected static final byte
+  public static final byte
       TYPE_POINT = 1,
       TYPE_RECT = 2,
       TYPE_CIRCLE = 3,
       TYPE_COLL = 4,
-      TYPE_GEOM = 5;
+      TYPE_GEOM = 5,
+      TYPE_BUFFERED_LINESTRING = 6;//compact format only
 
-  //TODO support BufferedLineString
+  /** The first byte of a shape in the compact format: version 2.  Type bytes are all lower. */
+  protected static final byte HEADER_COMPACT = (byte) 0x82;
 
   protected final SpatialContext ctx;
+  protected final boolean compact;//write the compact format
+  protected final int compactDecimals;
 
   //This constructor is mandated by SpatialContextFactory
   public BinaryCodec(SpatialContext ctx, SpatialContextFactory factory) {
     this.ctx = ctx;
+    this.compact = factory.binaryCodecCompact;
+    this.compactDecimals = factory.binaryCodecDecimals;
+    if (compactDecimals < 0 || compactDecimals > 15)
+      throw new IllegalArgumentException("binaryCodecDecimals must be between 0 and 15: " + compactDecimals);
   }
 
   public Shape readShape(DataInput dataInput) throws IOException {
     byte type = dataInput.readByte();
+    if (type == HEADER_COMPACT)
+      return readCompactShape(dataInput);
     Shape s = readShapeByTypeIfSupported(dataInput, type);
     if (s == null)
       throw new IllegalArgumentException("Unsupported shape byte "+type);
@@ -56,11 +86,78 @@ public class BinaryCodec {
   }
 
   public void writeShape(DataOutput dataOutput, Shape s) throws IOException {
+    if (compact) {
+      writeCompactShape(dataOutput, s);
+      return;
+    }
     boolean written = writeShapeByTypeIfSupported(dataOutput, s);
     if (!written)
       throw new IllegalArgumentException("Unsupported shape "+s.getClass());
   }
 
+  /** Reads a shape at the buffer's position, advancing it. */
+  public Shape readShape(ByteBuffer byteBuffer) {
+    checkByteOrder(byteBuffer);
+    byte type = byteBuffer.get();
+    if (type == HEADER_COMPACT)
+      return readCompactShape(byteBuffer);
+    Shape s = readShapeByTypeIfSupported(byteBuffer, type);
+    if (s == null)
+      throw new IllegalArgumentException("Unsupported shape byte "+type);
+    return s;
+  }
+
+  /**
+   * Writes a shape at the buffer's position, advancing it.
+   *
+   * @throws java.nio.BufferOverflowException if there isn't enough room.
+   */
+  public void writeShape(ByteBuffer byteBuffer, Shape s) {
+    checkByteOrder(byteBuffer);
+    if (compact) {
+      writeCompactShape(byteBuffer, s);
+      return;
+    }
+    boolean written = writeShapeByTypeIfSupported(byteBuffer, s);
+    if (!written)
+      throw new IllegalArgumentException("Unsupported shape "+s.getClass());
+  }
+
+  /**
+   * Returns the type byte of the shape at the buffer's position (e.g. {@link #TYPE_POINT}), without
+   * advancing it.
+   */
+  public byte peekType(ByteBuffer byteBuffer) {
+    int pos = byteBuffer.position();
+    if (byteBuffer.get(pos) == HEADER_COMPACT) {
+      pos += 2;//header, decimals
+      while (byteBuffer.get(pos++) < 0) {//skip the varint length
+      }
+    }
+    return byteBuffer.get(pos);
+  }
+
+  /**
+   * Reads the bounding box of the shape at the buffer's position, advancing past the shape. It's
+   * equal to the shape's {@link Shape#getBoundingBox()} but it's cheaper to get than reading the
+   * shape, particularly for collections and JTS geometries.
+   */
+  public Rectangle readBoundingBox(ByteBuffer byteBuffer) {
+    checkByteOrder(byteBuffer);
+    byte type = byteBuffer.get();
+    if (type == HEADER_COMPACT)
+      return readCompactBoundingBox(byteBuffer);
+    Rectangle r = readBoundingBoxByTypeIfSupported(byteBuffer, type);
+    if (r == null)
+      throw new IllegalArgumentException("Unsupported shape byte "+type);
+    return r;
+  }
+
+  private static void checkByteOrder(ByteBuffer byteBuffer) {
+    if (byteBuffer.order() != ByteOrder.BIG_ENDIAN)
+      throw new IllegalArgumentException("ByteBuffer must be BIG_ENDIAN");
+  }
+
   protected Shape readShapeByTypeIfSupported(DataInput dataInput, byte type) throws IOException {
     switch (type) {
       case TYPE_POINT: return readPoint(dataInput);
@@ -91,6 +188,45 @@ public class BinaryCodec {
     return true;
   }
 
+  protected Shape readShapeByTypeIfSupported(ByteBuffer byteBuffer, byte type) {
+    switch (type) {
+      case TYPE_POINT: return readPoint(byteBuffer);
+      case TYPE_RECT: return readRect(byteBuffer);
+      case TYPE_CIRCLE: return readCircle(byteBuffer);
+      case TYPE_COLL: return readCollection(byteBuffer);
+      default: return null;
+    }
+  }
+
+  /** Note: writes the type byte even if not supported */
+  protected boolean writeShapeByTypeIfSupported(ByteBuffer byteBuffer, Shape s) {
+    byte type = typeForShape(s);
+    byteBuffer.put(type);
+    return writeShapeByTypeIfSupported(byteBuffer, s, type);
+  }
+
+  protected boolean writeShapeByTypeIfSupported(ByteBuffer byteBuffer, Shape s, byte type) {
+    switch (type) {
+      case TYPE_POINT: writePoint(byteBuffer, (Point) s); break;
+      case TYPE_RECT: writeRect(byteBuffer, (Rectangle) s); break;
+      case TYPE_CIRCLE: writeCircle(byteBuffer, (Circle) s); break;
+      case TYPE_COLL: writeCollection(byteBuffer, (ShapeCollection) s); break;
+      default:
+        return false;
+    }
+    return true;
+  }
+
+  protected Rectangle readBoundingBoxByTypeIfSupported(ByteBuffer byteBuffer, byte type) {
+    switch (type) {
+      case TYPE_POINT: return readPoint(byteBuffer).getBoundingBox();
+      case TYPE_RECT: return readRect(byteBuffer);
+      case TYPE_CIRCLE: return readCircle(byteBuffer).getBoundingBox();
+      case TYPE_COLL: return readCollectionBoundingBox(byteBuffer);
+      default: return null;
+    }
+  }
+
   protected byte typeForShape(Shape s) {
     if (s instanceof Point) {
       return TYPE_POINT;
@@ -113,6 +249,14 @@ public class BinaryCodec {
     dataOutput.writeDouble(v);
   }
 
+  protected double readDim(ByteBuffer byteBuffer) {
+    return byteBuffer.getDouble();
+  }
+
+  protected void writeDim(ByteBuffer byteBuffer, double v) {
+    byteBuffer.putDouble(v);
+  }
+
   public Point readPoint(DataInput dataInput) throws IOException {
     return ctx.makePoint(readDim(dataInput), readDim(dataInput));
   }
@@ -175,4 +319,435 @@ public class BinaryCodec {
     }
   }
 
+  public Point readPoint(ByteBuffer byteBuffer) {
+    return ctx.getShapeFactory().pointXY(readDim(byteBuffer), readDim(byteBuffer));
+  }
+
+  public void writePoint(ByteBuffer byteBuffer, Point pt) {
+    writeDim(byteBuffer, pt.getX());
+    writeDim(byteBuffer, pt.getY());
+  }
+
+  public Rectangle readRect(ByteBuffer byteBuffer) {
+    return ctx.getShapeFactory().rect(readDim(byteBuffer), readDim(byteBuffer), readDim(byteBuffer), readDim(byteBuffer));
+  }
+
+  public void writeRect(ByteBuffer byteBuffer, Rectangle r) {
+    writeDim(byteBuffer, r.getMinX());
+    writeDim(byteBuffer, r.getMaxX());
+    writeDim(byteBuffer, r.getMinY());
+    writeDim(byteBuffer, r.getMaxY());
+  }
+
+  public Circle readCircle(ByteBuffer byteBuffer) {
+    return ctx.getShapeFactory().circle(readPoint(byteBuffer), readDim(byteBuffer));
+  }
+
+  public void writeCircle(ByteBuffer byteBuffer, Circle c) {
+    writePoint(byteBuffer, c.getCenter());
+    writeDim(byteBuffer, c.getRadius());
+  }
+
+  @SuppressWarnings("deprecation")//multiShape(List): the builder can build a non-ShapeCollection
+  public ShapeCollection readCollection(ByteBuffer byteBuffer) {
+    byte type = byteBuffer.get();
+    int size = byteBuffer.getInt();
+    ArrayList<Shape> shapes = new ArrayList<Shape>(size);
+    for (int i = 0; i < size; i++) {
+      if (type == 0) {
+        shapes.add(readShape(byteBuffer));
+      } else {
+        Shape s = readShapeByTypeIfSupported(byteBuffer, type);
+        if (s == null)
+          throw new InvalidShapeException("Unsupported shape byte "+type);
+        shapes.add(s);
+      }
+    }
+    return ctx.getShapeFactory().multiShape(shapes);
+  }
+
+  public void writeCollection(ByteBuffer byteBuffer, ShapeCollection col) {
+    byte type = (byte) 0;//TODO add type to ShapeCollection
+    byteBuffer.put(type);
+    byteBuffer.putInt(col.size());
+    for (int i = 0; i < col.size(); i++) {
+      Shape s = col.get(i);
+      if (type == 0) {
+        writeShape(byteBuffer, s);
+      } else {
+        boolean written = writeShapeByTypeIfSupported(byteBuffer, s, type);
+        if (!written)
+          throw new IllegalArgumentException("Unsupported shape type "+s.getClass());
+      }
+    }
+  }
+
+  /** Like {@link #readCollection(ByteBuffer)} but only computes the bbox, like ShapeCollection does. */
+  protected Rectangle readCollectionBoundingBox(ByteBuffer byteBuffer) {
+    byte type = byteBuffer.get();
+    int size = byteBuffer.getInt();
+    if (size == 0)
+      return ctx.getShapeFactory().rect(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+    BBoxCalculator bboxCalc = new BBoxCalculator(ctx);
+    for (int i = 0; i < size; i++) {
+      Rectangle r;
+      if (type == 0) {
+        r = readBoundingBox(byteBuffer);
+      } else {
+        r = readBoundingBoxByTypeIfSupported(byteBuffer, type);
+        if (r == null)
+          throw new InvalidShapeException("Unsupported shape byte "+type);
+      }
+      bboxCalc.expandRange(r);
+    }
+    return bboxCalc.getBoundary();
+  }
+
+  //
+  // The compact format
+  //
+
+  /** Reads a compact shape, after its header byte. */
+  protected Shape readCompactShape(DataInput dataInput) throws IOException {
+    int decimals = dataInput.readByte();
+    long length = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = dataInput.readByte();
+      length |= (long) (b & 0x7F) << shift;
+      if (b >= 0)
+        break;
+    }
+    byte[] bytes = new byte[(int) length];
+    dataInput.readFully(bytes);
+    CompactReader in = new CompactReader(ByteBuffer.wrap(bytes), decimals);
+    return readCompactShape(in);
+  }
+
+  /** Reads a compact shape, after its header byte, advancing past it. */
+  protected Shape readCompactShape(ByteBuffer byteBuffer) {
+    CompactReader in = new CompactReader(byteBuffer, byteBuffer.get());
+    int end = (int) in.getVarLong() + byteBuffer.position();
+    Shape s = readCompactShape(in);
+    byteBuffer.position(end);
+    return s;
+  }
+
+  /** Reads the bounding box of a compact shape, after its header byte, advancing past it. */
+  protected Rectangle readCompactBoundingBox(ByteBuffer byteBuffer) {
+    CompactReader in = new CompactReader(byteBuffer, byteBuffer.get());
+    int end = (int) in.getVarLong() + byteBuffer.position();
+    byte type = in.getByte();
+    Rectangle r = readCompactBoundingBoxByTypeIfSupported(in, type);
+    if (r == null)
+      throw new IllegalArgumentException("Unsupported shape byte "+type);
+    byteBuffer.position(end);
+    return r;
+  }
+
+  protected void writeCompactShape(DataOutput dataOutput, Shape s) throws IOException {
+    CompactWriter out = encodeCompactShape(s);
+    dataOutput.writeByte(HEADER_COMPACT);
+    dataOutput.writeByte(compactDecimals);
+    long length = out.length();
+    while ((length & ~0x7FL) != 0) {
+      dataOutput.writeByte((int) ((length & 0x7F) | 0x80));
+      length >>>= 7;
+    }
+    dataOutput.writeByte((int) length);
+    dataOutput.write(out.bytes(), 0, out.length());
+  }
+
+  protected void writeCompactShape(ByteBuffer byteBuffer, Shape s) {
+    CompactWriter out = encodeCompactShape(s);
+    byteBuffer.put(HEADER_COMPACT);
+    byteBuffer.put((byte) compactDecimals);
+    long length = out.length();
+    while ((length & ~0x7FL) != 0) {
+      byteBuffer.put((byte) ((length & 0x7F) | 0x80));
+      length >>>= 7;
+    }
+    byteBuffer.put((byte) length);
+    byteBuffer.put(out.bytes(), 0, out.length());
+  }
+
+  /** Encodes the type and the shape, but not the header, decimals, or length. */
+  private CompactWriter encodeCompactShape(Shape s) {
+    CompactWriter out = new CompactWriter(compactDecimals);
+    byte type = compactTypeForShape(s);
+    out.putByte(type);
+    if (!writeCompactShapeByTypeIfSupported(out, s, type))
+      throw new IllegalArgumentException("Unsupported shape "+s.getClass());
+    return out;
+  }
+
+  private Shape readCompactShape(CompactReader in) {
+    byte type = in.getByte();
+    Shape s = readCompactShapeByTypeIfSupported(in, type);
+    if (s == null)
+      throw new IllegalArgumentException("Unsupported shape byte "+type);
+    return s;
+  }
+
+  protected byte compactTypeForShape(Shape s) {
+    if (s instanceof BufferedLineString)
+      return TYPE_BUFFERED_LINESTRING;
+    return typeForShape(s);
+  }
+
+  @SuppressWarnings("deprecation")//lineString(List, double): the builder doesn't expand the buffer for geo
+  protected Shape readCompactShapeByTypeIfSupported(CompactReader in, byte type) {
+    ShapeFactory shapeFactory = ctx.getShapeFactory();
+    switch (type) {
+      case TYPE_POINT: return shapeFactory.pointXY(in.getValue(), in.getValue());
+      case TYPE_RECT: {
+        long minX = in.getZigZag(), maxX = minX + in.getZigZag();
+        long minY = in.getZigZag(), maxY = minY + in.getZigZag();
+        return shapeFactory.rect(in.toValue(minX), in.toValue(maxX), in.toValue(minY), in.toValue(maxY));
+      }
+      case TYPE_CIRCLE: return shapeFactory.circle(in.getValue(), in.getValue(), in.getValue());
+      case TYPE_COLL: return readCompactCollection(in);
+      case TYPE_BUFFERED_LINESTRING: {
+        double buf = in.getValue();
+        int numPoints = (int) in.getVarLong();
+        List<Point> points = new ArrayList<Point>(numPoints);
+        for (int i = 0; i < numPoints; i++) {
+          in.nextXY();
+          points.add(shapeFactory.pointXY(in.getX(), in.getY()));
+        }
+        return shapeFactory.lineString(points, buf);
+      }
+      default: return null;
+    }
+  }
+
+  protected boolean writeCompactShapeByTypeIfSupported(CompactWriter out, Shape s, byte type) {
+    switch (type) {
+      case TYPE_POINT: {
+        Point pt = (Point) s;
+        out.putValue(pt.getX());
+        out.putValue(pt.getY());
+        break;
+      }
+      case TYPE_RECT: {
+        Rectangle r = (Rectangle) s;
+        long minX = out.quantize(r.getMinX()), minY = out.quantize(r.getMinY());
+        out.putZigZag(minX);
+        out.putZigZag(out.quantize(r.getMaxX()) - minX);
+        out.putZigZag(minY);
+        out.putZigZag(out.quantize(r.getMaxY()) - minY);
+        break;
+      }
+      case TYPE_CIRCLE: {
+        Circle c = (Circle) s;
+        out.putValue(c.getCenter().getX());
+        out.putValue(c.getCenter().getY());
+        out.putValue(c.getRadius());
+        break;
+      }
+      case TYPE_COLL: writeCompactCollection(out, (ShapeCollection) s); break;
+      case TYPE_BUFFERED_LINESTRING: {
+        BufferedLineString bls = (BufferedLineString) s;
+        out.putValue(bls.getBuf());
+        List<Point> points = bls.getPoints();
+        out.putVarLong(points.size());
+        for (Point point : points) {
+          out.putXY(point.getX(), point.getY());
+        }
+        break;
+      }
+      default:
+        return false;
+    }
+    return true;
+  }
+
+  protected Rectangle readCompactBoundingBoxByTypeIfSupported(CompactReader in, byte type) {
+    if (type != TYPE_COLL) {
+      Shape s = readCompactShapeByTypeIfSupported(in, type);
+      return s == null ? null : s.getBoundingBox();
+    }
+    byte memberType = in.getByte();
+    int size = (int) in.getVarLong();
+    if (size == 0)
+      return ctx.getShapeFactory().rect(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+    BBoxCalculator bboxCalc = new BBoxCalculator(ctx);
+    for (int i = 0; i < size; i++) {
+      byte type_ = memberType == 0 ? in.getByte() : memberType;
+      Rectangle r = readCompactBoundingBoxByTypeIfSupported(in, type_);
+      if (r == null)
+        throw new InvalidShapeException("Unsupported shape byte "+type_);
+      bboxCalc.expandRange(r);
+    }
+    return bboxCalc.getBoundary();
+  }
+
+  /** The members' type is written once if they all have the same type, otherwise 0 and per member. */
+  protected void writeCompactCollection(CompactWriter out, ShapeCollection col) {
+    byte memberType = 0;
+    for (int i = 0; i < col.size(); i++) {
+      byte type = compactTypeForShape(col.get(i));
+      if (i == 0) {
+        memberType = type;
+      } else if (type != memberType) {
+        memberType = 0;
+        break;
+      }
+    }
+    out.putByte(memberType);
+    out.putVarLong(col.size());
+    for (int i = 0; i < col.size(); i++) {
+      Shape s = col.get(i);
+      byte type = memberType;
+      if (type == 0) {
+        type = compactTypeForShape(s);
+        out.putByte(type);
+      }
+      if (!writeCompactShapeByTypeIfSupported(out, s, type))
+        throw new IllegalArgumentException("Unsupported shape type "+s.getClass());
+    }
+  }
+
+  @SuppressWarnings("deprecation")//multiShape(List): the builder can build a non-ShapeCollection
+  protected ShapeCollection readCompactCollection(CompactReader in) {
+    byte memberType = in.getByte();
+    int size = (int) in.getVarLong();
+    ArrayList<Shape> shapes = new ArrayList<Shape>(size);
+    for (int i = 0; i < size; i++) {
+      byte type = memberType == 0 ? in.getByte() : memberType;
+      Shape s = readCompactShapeByTypeIfSupported(in, type);
+      if (s == null)
+        throw new InvalidShapeException("Unsupported shape byte "+type);
+      shapes.add(s);
+    }
+    return ctx.getShapeFactory().multiShape(shapes);
+  }
+
+  /**
+   * (INTERNAL) Writes the compact format into a growable byte array: bytes, unsigned varints,
+   * zig-zag varints, and quantized values.  {@link #putXY(double, double)} writes deltas from the
+   * previous call.
+   */
+  protected static class CompactWriter {
+    /** The quantized value of NaN, for empty shapes; no other value quantizes to it. */
+    public static final long QUANTIZED_NAN = Long.MIN_VALUE;
+
+    private final int decimals;
+    private final double scale;
+    private byte[] bytes = new byte[32];
+    private int length;
+    private long prevX, prevY;//quantized; for putXY
+
+    public CompactWriter(int decimals) {
+      this.decimals = decimals;
+      this.scale = Math.pow(10, decimals);
+    }
+
+    public byte[] bytes() {
+      return bytes;
+    }
+
+    public int length() {
+      return length;
+    }
+
+    public void putByte(int b) {
+      if (length == bytes.length)
+        bytes = java.util.Arrays.copyOf(bytes, length * 2);
+      bytes[length++] = (byte) b;
+    }
+
+    public void putVarLong(long v) {
+      while ((v & ~0x7FL) != 0) {
+        putByte((int) ((v & 0x7F) | 0x80));
+        v >>>= 7;
+      }
+      putByte((int) v);
+    }
+
+    public void putZigZag(long v) {
+      putVarLong((v << 1) ^ (v >> 63));
+    }
+
+    /**
+     * Quantizes a value; NaN is {@link #QUANTIZED_NAN}.
+     *
+     * @throws IllegalArgumentException if the value doesn't fit, rather than saturating.
+     */
+    public long quantize(double v) {
+      if (Double.isNaN(v))
+        return QUANTIZED_NAN;
+      double scaled = v * scale;
+      //exclusive bounds: (double) Long.MAX_VALUE is 2^63, and -2^63 is QUANTIZED_NAN
+      if (!(scaled > Long.MIN_VALUE && scaled < Long.MAX_VALUE))
+        throw new IllegalArgumentException("Value " + v + " is out of range for binaryCodecDecimals " + decimals);
+      return Math.round(scaled);
+    }
+
+    public void putValue(double v) {
+      putZigZag(quantize(v));
+    }
+
+    public void putXY(double x, double y) {
+      long qx = quantize(x), qy = quantize(y);
+      putZigZag(qx - prevX);
+      putZigZag(qy - prevY);
+      prevX = qx;
+      prevY = qy;
+    }
+  }
+
+  /** (INTERNAL) Reads what {@link CompactWriter} wrote, from a ByteBuffer at its position. */
+  protected static class CompactReader {
+    private final ByteBuffer byteBuffer;
+    private final double scale;
+    private long x, y;//quantized; for nextXY
+
+    public CompactReader(ByteBuffer byteBuffer, int decimals) {
+      this.byteBuffer = byteBuffer;
+      this.scale = Math.pow(10, decimals);
+    }
+
+    public byte getByte() {
+      return byteBuffer.get();
+    }
+
+    public long getVarLong() {
+      long v = 0;
+      for (int shift = 0; ; shift += 7) {
+        byte b = byteBuffer.get();
+        v |= (long) (b & 0x7F) << shift;
+        if (b >= 0)
+          return v;
+      }
+    }
+
+    public long getZigZag() {
+      long v = getVarLong();
+      return (v >>> 1) ^ -(v & 1);
+    }
+
+    public double toValue(long quantized) {
+      //note: dividing (not multiplying by the inverse) returns the closest double to the decimal
+      return quantized == CompactWriter.QUANTIZED_NAN ? Double.NaN : quantized / scale;
+    }
+
+    public double getValue() {
+      return toValue(getZigZag());
+    }
+
+    /** Reads the next delta encoded coordinate; see {@link #getX()} and {@link #getY()}. */
+    public void nextXY() {
+      x += getZigZag();
+      y += getZigZag();
+    }
+
+    public double getX() {
+      return toValue(x);
+    }
+
+    public double getY() {
+      return toValue(y);
+    }
+  }
+
 }
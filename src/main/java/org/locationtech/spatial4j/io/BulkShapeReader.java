@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.exception.InvalidShapeException;
+import org.locationtech.spatial4j.shape.Shape;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads many shapes, one per line, parsing them in parallel on a {@link ForkJoinPool}.  The lines
+ * are read sequentially and grouped into chunks that are parsed concurrently, while the results are
+ * handed to a {@link Handler} on the calling thread in the order of the input.  A bounded number of
+ * chunks are in flight so memory use doesn't depend on the size of the input.
+ * <p>
+ * The format is given by a {@link ShapeReader}, or if there isn't one, then each line may be in any
+ * format of the context's {@link SupportedFormats} (e.g. WKT, GeoJSON, POLY).  Blank lines are
+ * skipped.  A line that can't be parsed is reported to {@link Handler#handleError(long, String,
+ * Exception)} and the rest are still read.  Optionally, each shape is also encoded with the
+ * context's {@link BinaryCodec} on the pool.
+ * <p>
+ * Instances are thread-safe if the ShapeReader is, which is the case of those in Spatial4j.
+ */
+public class BulkShapeReader {
+
+  public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+  /** Receives the results of {@link #read(Reader, Handler)}, in the order of the lines. */
+  public interface Handler {
+    /**
+     * Called for each shape.
+     *
+     * @param lineNumber 1-based
+     * @param binary The shape encoded with {@link BinaryCodec} if requested; otherwise null.
+     */
+    void handleShape(long lineNumber, Shape shape, byte[] binary) throws IOException;
+
+    /**
+     * Called for each line that couldn't be parsed.  If there's no ShapeReader and no format
+     * supported the line, the error is a ParseException.
+     *
+     * @param lineNumber 1-based
+     */
+    void handleError(long lineNumber, String line, Exception error) throws IOException;
+  }
+
+  protected final SpatialContext ctx;
+  protected final ShapeReader shapeReader;//null means try all formats
+  protected final ForkJoinPool pool;//null means one per read
+  protected final int chunkSize;
+  protected final boolean encodeBinary;
+
+  /**
+   * @param shapeReader The format of the lines; null to try all of the context's formats.
+   * @param pool The pool to parse on; null to create one for each read.
+   * @param chunkSize The number of lines parsed by a task; e.g. {@link #DEFAULT_CHUNK_SIZE}.
+   * @param encodeBinary Whether to encode each shape with the context's {@link BinaryCodec}.
+   */
+  public BulkShapeReader(SpatialContext ctx, ShapeReader shapeReader, ForkJoinPool pool,
+                         int chunkSize, boolean encodeBinary) {
+    if (chunkSize < 1)
+      throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+    this.ctx = ctx;
+    this.shapeReader = shapeReader;
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+    this.encodeBinary = encodeBinary;
+  }
+
+  /** Reads lines in any of the context's formats, with a new pool for each read. */
+  public BulkShapeReader(SpatialContext ctx) {
+    this(ctx, null, null, DEFAULT_CHUNK_SIZE, false);
+  }
+
+  /** Reads UTF-8 lines from the stream; see {@link #read(Reader, Handler)}. */
+  public void read(InputStream inputStream, Handler handler) throws IOException {
+    read(new InputStreamReader(inputStream, Charset.forName("UTF-8")), handler);
+  }
+
+  /**
+   * Reads all lines from the reader and passes the results to the handler on this thread, in
+   * order.  The reader isn't closed.  IOExceptions from the reader or the handler stop the read.
+   */
+  public void read(Reader reader, Handler handler) throws IOException {
+    ForkJoinPool pool = this.pool != null ? this.pool : new ForkJoinPool();
+    try {
+      BufferedReader bufferedReader = reader instanceof BufferedReader ? (BufferedReader) reader
+          : new BufferedReader(reader);
+      final int maxInFlight = 2 * pool.getParallelism() + 1;
+      ArrayDeque<Chunk> inFlight = new ArrayDeque<>();
+      long lineNumber = 0;
+      Chunk chunk = new Chunk();
+      String line;
+      while ((line = bufferedReader.readLine()) != null) {
+        lineNumber++;
+        if (line.trim().isEmpty())
+          continue;
+        chunk.add(lineNumber, line);
+        if (chunk.size() == chunkSize) {
+          if (inFlight.size() == maxInFlight)
+            inFlight.removeFirst().deliver(handler);
+          inFlight.addLast(chunk);
+          pool.execute(chunk);
+          chunk = new Chunk();
+        }
+      }
+      if (chunk.size() > 0) {
+        inFlight.addLast(chunk);
+        pool.execute(chunk);
+      }
+      while (!inFlight.isEmpty()) {
+        inFlight.removeFirst().deliver(handler);
+      }
+    } finally {
+      if (pool != this.pool) {
+        pool.shutdown();
+        try {
+          pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads all lines into a list in order, with null for those that couldn't be parsed.  That's for
+   * modest inputs; otherwise use {@link #read(Reader, Handler)}.
+   */
+  public List<Shape> readAll(Reader reader) throws IOException {
+    final List<Shape> shapes = new ArrayList<>();
+    read(reader, new Handler() {
+      @Override
+      public void handleShape(long lineNumber, Shape shape, byte[] binary) {
+        shapes.add(shape);
+      }
+
+      @Override
+      public void handleError(long lineNumber, String line, Exception error) {
+        shapes.add(null);
+      }
+    });
+    return shapes;
+  }
+
+  /** Parses a line; called concurrently. */
+  protected Shape parseLine(String line) throws IOException, ParseException, InvalidShapeException {
+    if (shapeReader != null)
+      return shapeReader.read(line);
+    Shape shape = ctx.getFormats().read(line);
+    if (shape == null)
+      throw new ParseException("No format supports the line", 0);
+    return shape;
+  }
+
+  /** The lines of a chunk, parsed by splitting in halves down to a small size. */
+  private class Chunk extends RecursiveAction {
+    private static final int MIN_SPLIT = 32;
+
+    private final List<String> lines = new ArrayList<>();
+    private final List<Long> lineNumbers = new ArrayList<>();
+    private Object[] results;//Shape or Exception
+    private byte[][] binaries;
+
+    void add(long lineNumber, String line) {
+      lines.add(line);
+      lineNumbers.add(lineNumber);
+    }
+
+    int size() {
+      return lines.size();
+    }
+
+    @Override
+    protected void compute() {
+      results = new Object[lines.size()];
+      binaries = encodeBinary ? new byte[lines.size()][] : null;
+      new Part(0, lines.size()).compute();
+    }
+
+    void deliver(Handler handler) throws IOException {
+      join();
+      for (int i = 0; i < results.length; i++) {
+        if (results[i] instanceof Shape) {
+          handler.handleShape(lineNumbers.get(i), (Shape) results[i], binaries == null ? null : binaries[i]);
+        } else {
+          handler.handleError(lineNumbers.get(i), lines.get(i), (Exception) results[i]);
+        }
+      }
+    }
+
+    private class Part extends RecursiveAction {
+      private final int start, end;
+
+      Part(int start, int end) {
+        this.start = start;
+        this.end = end;
+      }
+
+      @Override
+      protected void compute() {
+        if (end - start > MIN_SPLIT) {
+          int mid = (start + end) >>> 1;
+          invokeAll(new Part(start, mid), new Part(mid, end));
+          return;
+        }
+        for (int i = start; i < end; i++) {
+          try {
+            Shape shape = parseLine(lines.get(i));
+            if (binaries != null) {
+              ByteArrayOutputStream baos = new ByteArrayOutputStream();
+              ctx.getBinaryCodec().writeShape(new DataOutputStream(baos), shape);
+              binaries[i] = baos.toByteArray();
+            }
+            results[i] = shape;
+          } catch (Exception e) {
+            results[i] = e;
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.locationtech.spatial4j.shape.Shape;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+
+/**
+ * Writes many shapes to one output, by default one per line as read by {@link BulkShapeReader}.
+ * Each shape is streamed by the {@link ShapeWriter} straight to the output, so memory use doesn't
+ * depend on the number or size of the shapes; wrap the output in a {@link java.io.BufferedWriter}
+ * to bound the buffering.  None of the text formats in Spatial4j write line breaks.
+ * <p>
+ * Instances are thread-safe if the ShapeWriter is, which is the case of those in Spatial4j.
+ */
+public class BulkShapeWriter {
+
+  protected final ShapeWriter shapeWriter;
+  protected final String separator;
+
+  /**
+   * @param separator Written between shapes, e.g. "\n" or "," (for a JSON array).
+   */
+  public BulkShapeWriter(ShapeWriter shapeWriter, String separator) {
+    if (shapeWriter == null || separator == null)
+      throw new NullPointerException();
+    this.shapeWriter = shapeWriter;
+    this.separator = separator;
+  }
+
+  /** Writes one shape per line. */
+  public BulkShapeWriter(ShapeWriter shapeWriter) {
+    this(shapeWriter, "\n");
+  }
+
+  public ShapeWriter getShapeWriter() {
+    return shapeWriter;
+  }
+
+  /**
+   * Writes the shapes with the separator in between.  The output is neither flushed nor closed.
+   *
+   * @return the number of shapes written.
+   */
+  public long write(Writer output, Iterable<? extends Shape> shapes) throws IOException {
+    return write(output, shapes.iterator());
+  }
+
+  /** @see #write(Writer, Iterable) */
+  public long write(Writer output, Iterator<? extends Shape> shapes) throws IOException {
+    long count = 0;
+    while (shapes.hasNext()) {
+      if (count++ > 0) {
+        output.write(separator);
+      }
+      shapeWriter.write(output, shapes.next());
+    }
+    return count;
+  }
+}
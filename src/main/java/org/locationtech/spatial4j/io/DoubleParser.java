@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import java.math.BigInteger;
+
+/**
+ * (INTERNAL) Parses decimal numbers from characters without creating a String, with the exact same
+ * result as {@link Double#parseDouble(String)}.  Numbers with at most 15 significant digits and
+ * a small power of ten take the classic fast path (one exact division or multiplication).  Up to 18
+ * digits, as in coordinates printed with full double precision, the Eisel-Lemire algorithm is used
+ * (D. Lemire, "Number Parsing at a Gigabyte per Second", 2021).  Anything else is left to the
+ * caller, typically to fall back on {@link Double#parseDouble(String)}.
+ */
+final class DoubleParser {
+
+  private static final double[] POWERS_OF_TEN = new double[23];//exact
+  //Eisel-Lemire: 10^q is 5^q * 2^q; 5^q normalized to 128 bits as pairs of high,low longs
+  private static final int MIN_POW5 = -27, MAX_POW5 = 27;
+  private static final long[] POWERS_OF_FIVE = new long[2 * (MAX_POW5 - MIN_POW5 + 1)];
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+    for (int q = MIN_POW5; q <= MAX_POW5; q++) {
+      BigInteger pow5 = BigInteger.valueOf(5).pow(Math.abs(q));
+      BigInteger value;
+      if (q >= 0) {
+        value = pow5.shiftLeft(128 - pow5.bitLength());
+      } else {//the reciprocal, rounded up
+        value = BigInteger.ONE.shiftLeft(pow5.bitLength() + 127).divide(pow5).add(BigInteger.ONE);
+      }
+      int index = 2 * (q - MIN_POW5);
+      POWERS_OF_FIVE[index] = value.shiftRight(64).longValue();
+      POWERS_OF_FIVE[index + 1] = value.longValue();
+    }
+  }
+
+  private DoubleParser() {
+  }
+
+  /**
+   * Parses the number in chars between start and end (exclusive): an optional sign, digits with
+   * an optional decimal point, and an optional exponent.
+   *
+   * @return the number, or NaN if it isn't handled (or isn't a number).
+   */
+  static double parse(CharSequence chars, int start, int end) {
+    if (start >= end)
+      return Double.NaN;
+    int i = start;
+    char c = chars.charAt(i);
+    final boolean negative = c == '-';
+    if (negative || c == '+')
+      i++;
+    long mantissa = 0;
+    int numDigits = 0;//significant digits in mantissa
+    int exponent = 0;
+    boolean anyDigits = false;
+    boolean fraction = false;
+    for (; i < end; i++) {
+      c = chars.charAt(i);
+      if (c >= '0' && c <= '9') {
+        anyDigits = true;
+        if (fraction)
+          exponent--;
+        if (numDigits == 0 && c == '0')
+          continue;//leading zero
+        if (++numDigits > 18)
+          return Double.NaN;
+        mantissa = mantissa * 10 + (c - '0');
+      } else if (c == '.' && !fraction) {
+        fraction = true;
+      } else {
+        break;
+      }
+    }
+    if (!anyDigits)
+      return Double.NaN;
+    if (i < end) {//exponent
+      if (c != 'e' && c != 'E' || ++i == end)
+        return Double.NaN;
+      c = chars.charAt(i);
+      final boolean negativeExp = c == '-';
+      if (negativeExp || c == '+')
+        i++;
+      if (i == end || end - i > 3)
+        return Double.NaN;
+      int exp = 0;
+      for (; i < end; i++) {
+        c = chars.charAt(i);
+        if (c < '0' || c > '9')
+          return Double.NaN;
+        exp = exp * 10 + (c - '0');
+      }
+      exponent += negativeExp ? -exp : exp;
+    }
+    double result;
+    if (mantissa == 0) {
+      result = 0;
+    } else if (numDigits <= 15 && exponent >= -22 && exponent <= 22) {
+      //the mantissa and power of ten are exact, so there's only one rounding
+      result = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+    } else {
+      result = eiselLemire(mantissa, exponent);
+    }
+    return negative ? -result : result;
+  }
+
+  /** Computes w * 10^q for a positive w, correctly rounded; or NaN if it can't be sure. */
+  private static double eiselLemire(long w, int q) {
+    if (q < MIN_POW5 || q > MAX_POW5)
+      return Double.NaN;
+    final int lz = Long.numberOfLeadingZeros(w);
+    w <<= lz;
+    final int index = 2 * (q - MIN_POW5);
+    long hi = multiplyHighUnsigned(w, POWERS_OF_FIVE[index]);
+    long lo = w * POWERS_OF_FIVE[index];
+    if ((hi & 0x1FF) == 0x1FF) {//the truncated bits might matter; use the lower half of 5^q
+      long secondHi = multiplyHighUnsigned(w, POWERS_OF_FIVE[index + 1]);
+      lo += secondHi;
+      if ((lo ^ Long.MIN_VALUE) < (secondHi ^ Long.MIN_VALUE))//unsigned; carry
+        hi++;
+      if ((hi & 0x1FF) == 0x1FF && lo == -1L)
+        return Double.NaN;//ambiguous
+    }
+    final int upperBit = (int) (hi >>> 63);
+    long mantissa = hi >>> (upperBit + 9);
+    int power2 = (((152170 + 65536) * q) >> 16) + 63 + upperBit - lz + 1023;
+    if (power2 <= 0)
+      return Double.NaN;//subnormal
+    //exactly half way between two doubles: round to even
+    if ((lo == 0 || lo == 1) && q >= -4 && q <= 23 && (mantissa & 3) == 1
+        && (mantissa << (upperBit + 9)) == hi) {
+      mantissa &= ~1L;
+    }
+    mantissa += mantissa & 1;
+    mantissa >>>= 1;
+    if (mantissa >= (2L << 52)) {
+      mantissa = 1L << 52;
+      power2++;
+    }
+    mantissa &= ~(1L << 52);
+    if (power2 >= 0x7FF)
+      return Double.NaN;//infinity
+    return Double.longBitsToDouble(mantissa | ((long) power2 << 52));
+  }
+
+  /** The high 64 bits of the unsigned 128 bit product. */
+  private static long multiplyHighUnsigned(long a, long b) {
+    final long a0 = a & 0xFFFFFFFFL, a1 = a >>> 32;
+    final long b0 = b & 0xFFFFFFFFL, b1 = b >>> 32;
+    final long p01 = a0 * b1, p10 = a1 * b0;
+    final long middle = ((a0 * b0) >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+    return a1 * b1 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+  }
+}
@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.FieldPosition;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.util.Locale;
+
+/**
+ * A {@link NumberFormat} for writing coordinates that's much faster than {@link DecimalFormat} and
+ * produces the very same output as the one from {@link LegacyShapeWriter#makeNumberFormat(int)}:
+ * no grouping, and at most the maximum fraction digits, with trailing zeros dropped.
+ * It formats the common values with double arithmetic into a reused char buffer, and hands the rare
+ * ones it can't do exactly (close to a rounding boundary, huge, tiny, non-finite, or other settings)
+ * to a {@link DecimalFormat}.  Use {@link #append(StringBuilder, NumberFormat, double)} and
+ * {@link #write(Writer, NumberFormat, double)} to avoid a String per number.
+ * <p>
+ * With a negative number of fraction digits, it instead writes the shortest decimal that reads back
+ * as the same double (in plain notation, no exponent), thus losing nothing.
+ * <p>
+ * Like any NumberFormat, it's not thread-safe.
+ */
+public class FastDecimalFormat extends NumberFormat {
+
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+  //decimals with up to 15 significant digits map to distinct doubles; so below this a double that
+  // is the closest to n / 10^d is exactly that decimal, as far as Double.toString is concerned.
+  private static final double MAX_EXACT = 1e15;
+
+  private final boolean roundTrip;
+  private RoundingMode roundingMode = RoundingMode.HALF_EVEN;
+  private char[] chars = new char[32];//enough for 16 digits, a sign and a dot
+  private DecimalFormat fallback;//lazy
+
+  /**
+   * @param maximumFractionDigits the number of decimals to round to, or negative for the shortest
+   *                              decimal that round-trips.
+   */
+  public FastDecimalFormat(int maximumFractionDigits) {
+    this.roundTrip = maximumFractionDigits < 0;
+    setGroupingUsed(false);
+    setMaximumIntegerDigits(Integer.MAX_VALUE);
+    setMaximumFractionDigits(roundTrip ? 340 : maximumFractionDigits);//340 is what DecimalFormat allows
+    setMinimumFractionDigits(0);
+  }
+
+  /** Whether this writes the shortest decimal that round-trips instead of rounding. */
+  public boolean isRoundTrip() {
+    return roundTrip;
+  }
+
+  @Override
+  public RoundingMode getRoundingMode() {
+    return roundingMode;
+  }
+
+  @Override
+  public void setRoundingMode(RoundingMode roundingMode) {
+    if (roundingMode == null)
+      throw new NullPointerException();
+    this.roundingMode = roundingMode;
+  }
+
+  /** Appends the formatted value; if {@code nf} is a FastDecimalFormat then without allocating. */
+  public static StringBuilder append(StringBuilder buffer, NumberFormat nf, double value) {
+    if (nf instanceof FastDecimalFormat) {
+      FastDecimalFormat fdf = (FastDecimalFormat) nf;
+      int len = fdf.formatFast(value);
+      if (len >= 0)
+        return buffer.append(fdf.chars, 0, len);
+    }
+    return buffer.append(nf.format(value));
+  }
+
+  /** Writes the formatted value; if {@code nf} is a FastDecimalFormat then without allocating. */
+  public static void write(Writer output, NumberFormat nf, double value) throws IOException {
+    if (nf instanceof FastDecimalFormat) {
+      FastDecimalFormat fdf = (FastDecimalFormat) nf;
+      int len = fdf.formatFast(value);
+      if (len >= 0) {
+        output.write(fdf.chars, 0, len);
+        return;
+      }
+    }
+    output.write(nf.format(value));
+  }
+
+  @Override
+  public StringBuffer format(double number, StringBuffer toAppendTo, FieldPosition pos) {
+    int len = formatFast(number);
+    if (len >= 0)
+      return toAppendTo.append(chars, 0, len);
+    return getFallback().format(number, toAppendTo, pos);
+  }
+
+  @Override
+  public StringBuffer format(long number, StringBuffer toAppendTo, FieldPosition pos) {
+    return getFallback().format(number, toAppendTo, pos);
+  }
+
+  @Override
+  public Number parse(String source, ParsePosition parsePosition) {
+    return getFallback().parse(source, parsePosition);
+  }
+
+  /**
+   * Formats the value into {@link #chars}.
+   *
+   * @return the length, or -1 if the fallback is needed.
+   */
+  private int formatFast(double value) {
+    if (isGroupingUsed() || getMinimumFractionDigits() != 0 || getMinimumIntegerDigits() > 1
+        || getMaximumIntegerDigits() < 309)
+      return -1;
+    final boolean negative = Double.doubleToRawLongBits(value) < 0;
+    final double abs = Math.abs(value);
+    if (abs == 0)
+      return negative ? writeChars("-0") : writeChars("0");
+    if (roundTrip)
+      return formatRoundTrip(abs, negative);
+
+    final int digits = getMaximumFractionDigits();
+    if (digits >= POWERS_OF_TEN.length)
+      return -1;
+    final double scale = POWERS_OF_TEN[digits];
+    final double scaled = abs * scale;
+    //note: excludes NaN & infinity, and tiny numbers for which DecimalFormat has its own ways
+    if (!(scaled >= 1 && scaled < MAX_EXACT))
+      return -1;
+
+    //DecimalFormat rounds the digits of Double.toString, not the binary value.  If those digits fit
+    // in the fraction digits then there's nothing to round.
+    double n = Math.rint(scaled);
+    if (n / scale != abs) {
+      //Else the digits and the value round the same way, unless a boundary is in between.
+      // Both are within an ulp of 'scaled'.
+      final double floor = Math.floor(scaled);
+      final double fraction = scaled - floor;
+      final double margin = 4 * Math.ulp(scaled);
+      final boolean up;
+      switch (roundingMode) {
+        case HALF_EVEN:
+        case HALF_UP:
+        case HALF_DOWN:
+          if (Math.abs(fraction - 0.5) <= margin)
+            return -1;
+          up = fraction > 0.5;
+          break;
+        case FLOOR: case CEILING: case UP: case DOWN:
+          if (fraction <= margin || fraction >= 1 - margin)
+            return -1;
+          up = roundingMode == RoundingMode.UP
+              || roundingMode == (negative ? RoundingMode.FLOOR : RoundingMode.CEILING);
+          break;
+        default:
+          return -1;
+      }
+      n = up ? floor + 1 : floor;
+    }
+    return writeDecimal((long) n, digits, negative);
+  }
+
+  private int formatRoundTrip(double abs, boolean negative) {
+    if (!(abs < Double.POSITIVE_INFINITY))
+      return -1;
+    //find the fewest decimals that read back as the value; then those are Double.toString's digits
+    for (int digits = 0; digits < POWERS_OF_TEN.length; digits++) {
+      final double scaled = abs * POWERS_OF_TEN[digits];
+      if (scaled >= MAX_EXACT)
+        break;
+      final double n = Math.rint(scaled);
+      if (n != 0 && n / POWERS_OF_TEN[digits] == abs)
+        return writeDecimal((long) n, digits, negative);
+    }
+    //more digits than that, so convert from Double.toString: "d.ddd", or "d.dddE[-]x"
+    final String str = Double.toString(abs);
+    final int ePos = str.indexOf('E');
+    final int mantissaEnd = ePos < 0 ? str.length() : ePos;
+    final int dotPos = str.indexOf('.');
+    int exp = ePos < 0 ? 0 : Integer.parseInt(str.substring(ePos + 1));
+    //the significant digits, without leading and trailing zeros
+    StringBuilder digits = new StringBuilder(24);
+    int pointPos = dotPos + exp;//the decimal point's position relative to 'digits'
+    for (int i = 0; i < mantissaEnd; i++) {
+      char c = str.charAt(i);
+      if (c == '.')
+        continue;
+      if (c == '0' && digits.length() == 0) {
+        pointPos--;
+        continue;
+      }
+      digits.append(c);
+    }
+    while (digits.charAt(digits.length() - 1) == '0') {
+      digits.setLength(digits.length() - 1);
+    }
+    StringBuilder result = new StringBuilder(digits.length() + Math.abs(pointPos) + 3);
+    if (negative)
+      result.append('-');
+    if (pointPos <= 0) {
+      result.append("0.");
+      for (int i = pointPos; i < 0; i++) {
+        result.append('0');
+      }
+      result.append(digits);
+    } else if (pointPos >= digits.length()) {
+      result.append(digits);
+      for (int i = digits.length(); i < pointPos; i++) {
+        result.append('0');
+      }
+    } else {
+      result.append(digits, 0, pointPos).append('.').append(digits, pointPos, digits.length());
+    }
+    return writeChars(result);
+  }
+
+  /** Writes {@code n / 10^digits} without trailing zeros. */
+  private int writeDecimal(long n, int digits, boolean negative) {
+    while (digits > 0 && n % 10 == 0) {
+      n /= 10;
+      digits--;
+    }
+    //write right to left from the end, then move to the start
+    final char[] buf = chars;
+    int pos = buf.length;
+    for (int i = 0; i < digits; i++) {
+      buf[--pos] = (char) ('0' + n % 10);
+      n /= 10;
+    }
+    if (digits > 0)
+      buf[--pos] = '.';
+    do {
+      buf[--pos] = (char) ('0' + n % 10);
+      n /= 10;
+    } while (n != 0);
+    if (negative)
+      buf[--pos] = '-';
+    final int len = buf.length - pos;
+    System.arraycopy(buf, pos, buf, 0, len);
+    return len;
+  }
+
+  private int writeChars(CharSequence str) {
+    final int len = str.length();
+    if (len > chars.length)
+      chars = new char[Math.max(len, chars.length * 2)];
+    for (int i = 0; i < len; i++) {
+      chars[i] = str.charAt(i);
+    }
+    return len;
+  }
+
+  /** A DecimalFormat with the same settings as this. */
+  private DecimalFormat getFallback() {
+    if (fallback == null)
+      fallback = (DecimalFormat) NumberFormat.getInstance(Locale.ROOT);
+    fallback.setGroupingUsed(isGroupingUsed());
+    fallback.setMinimumIntegerDigits(getMinimumIntegerDigits());
+    fallback.setMaximumIntegerDigits(getMaximumIntegerDigits());
+    fallback.setMinimumFractionDigits(getMinimumFractionDigits());
+    fallback.setMaximumFractionDigits(getMaximumFractionDigits());
+    fallback.setRoundingMode(roundingMode);
+    fallback.setParseIntegerOnly(isParseIntegerOnly());
+    return fallback;
+  }
+
+  @Override
+  public FastDecimalFormat clone() {
+    FastDecimalFormat clone = (FastDecimalFormat) super.clone();
+    clone.chars = new char[chars.length];
+    clone.fallback = null;
+    return clone;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!super.equals(obj))
+      return false;
+    FastDecimalFormat other = (FastDecimalFormat) obj;
+    return roundTrip == other.roundTrip && roundingMode == other.roundingMode;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * super.hashCode() + (roundTrip ? 1 : 0);
+  }
+}
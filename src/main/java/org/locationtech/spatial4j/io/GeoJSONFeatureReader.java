@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.locationtech.spatial4j.shape.Shape;
+import org.noggit.JSONParser;
+import org.noggit.ObjectBuilder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streams the Features of a GeoJSON FeatureCollection, one at a time, with constant memory no
+ * matter how many features there are.  Get one from
+ * {@link GeoJSONReader#readFeatures(Reader, Collection)}.  Use it like an iterator:
+ * <pre>
+ *   try (GeoJSONFeatureReader features = geoJSONReader.readFeatures(reader, null)) {
+ *     while (features.next()) {
+ *       Shape shape = features.getShape();
+ *       ...
+ *     }
+ *   }
+ * </pre>
+ * Only the properties asked for are kept; the others are skipped as they are read.  Members of
+ * the collection or of the features other than "features", "id", "geometry" and "properties"
+ * (e.g. "bbox") are skipped too.  Not thread-safe.
+ */
+public class GeoJSONFeatureReader implements Closeable {
+
+  private final GeoJSONReader geoJSONReader;
+  private final Reader reader;
+  private final JSONParser parser;
+  private final Collection<String> propertyNames;//null means all
+
+  private boolean started;
+  private boolean done;
+  private Shape shape;
+  private Object id;
+  private Map<String, Object> properties;
+
+  /**
+   * @param propertyNames The properties to keep; null to keep all of them.
+   */
+  protected GeoJSONFeatureReader(GeoJSONReader geoJSONReader, Reader reader, Collection<String> propertyNames) {
+    this.geoJSONReader = geoJSONReader;
+    this.reader = reader;
+    this.parser = new JSONParser(reader);
+    this.propertyNames = propertyNames;
+  }
+
+  /**
+   * Reads the next Feature.
+   *
+   * @return false if there are no more.
+   */
+  public boolean next() throws IOException, ParseException {
+    shape = null;
+    id = null;
+    properties = null;
+    if (done)
+      return false;
+    if (!started) {
+      started = true;
+      if (!skipToFeatures()) {
+        done = true;
+        return false;
+      }
+    }
+    int evt = parser.nextEvent();
+    if (evt == JSONParser.ARRAY_END) {
+      done = true;
+      return false;
+    }
+    if (evt != JSONParser.OBJECT_START)
+      throw unexpected(evt);
+    readFeature();
+    return true;
+  }
+
+  /** The geometry of the current Feature; null if it has none. */
+  public Shape getShape() {
+    return shape;
+  }
+
+  /** The id of the current Feature, a String or a Number; null if it has none. */
+  public Object getId() {
+    return id;
+  }
+
+  /**
+   * The requested properties of the current Feature, in their order.  Values are as given by
+   * noggit's {@link ObjectBuilder}: String, Long, Double, Boolean, null, List, or Map.
+   */
+  public Map<String, Object> getProperties() {
+    if (properties == null)
+      return Collections.emptyMap();
+    return properties;
+  }
+
+  @Override
+  public void close() throws IOException {
+    done = true;
+    reader.close();
+  }
+
+  /** Advances into the "features" array of the top level object; false if there isn't one. */
+  private boolean skipToFeatures() throws IOException, ParseException {
+    int evt = parser.nextEvent();
+    if (evt == JSONParser.EOF)
+      return false;
+    if (evt != JSONParser.OBJECT_START)
+      throw unexpected(evt);
+    while ((evt = parser.nextEvent()) != JSONParser.OBJECT_END) {
+      if (evt != JSONParser.STRING || !parser.wasKey())
+        throw unexpected(evt);
+      String key = parser.getString();
+      evt = parser.nextEvent();
+      if ("features".equals(key) && evt == JSONParser.ARRAY_START)
+        return true;
+      skipValue(evt);
+    }
+    return false;
+  }
+
+  private void readFeature() throws IOException, ParseException {
+    int evt;
+    while ((evt = parser.nextEvent()) != JSONParser.OBJECT_END) {
+      if (evt != JSONParser.STRING || !parser.wasKey())
+        throw unexpected(evt);
+      String key = parser.getString();
+      evt = parser.nextEvent();
+      switch (key) {
+        case "geometry":
+          if (evt == JSONParser.OBJECT_START) {
+            shape = geoJSONReader.readShape(parser);//reads through the OBJECT_END
+          } else {
+            skipValue(evt);//probably null
+          }
+          break;
+        case "id":
+          if (evt == JSONParser.STRING) {
+            id = parser.getString();
+          } else if (evt == JSONParser.LONG || evt == JSONParser.NUMBER || evt == JSONParser.BIGNUMBER) {
+            id = ObjectBuilder.getVal(parser);
+          } else {
+            skipValue(evt);
+          }
+          break;
+        case "properties":
+          if (evt == JSONParser.OBJECT_START) {
+            readProperties();
+          } else {
+            skipValue(evt);
+          }
+          break;
+        default:
+          skipValue(evt);
+      }
+    }
+  }
+
+  private void readProperties() throws IOException, ParseException {
+    properties = new LinkedHashMap<>();
+    int evt;
+    while ((evt = parser.nextEvent()) != JSONParser.OBJECT_END) {
+      if (evt != JSONParser.STRING || !parser.wasKey())
+        throw unexpected(evt);
+      String key = parser.getString();
+      evt = parser.nextEvent();
+      if (propertyNames == null || propertyNames.contains(key)) {
+        properties.put(key, ObjectBuilder.getVal(parser));
+      } else {
+        skipValue(evt);
+      }
+    }
+  }
+
+  /** Skips the value that starts with the given (just read) event, without building it. */
+  private void skipValue(int evt) throws IOException, ParseException {
+    int depth = 0;
+    while (true) {
+      switch (evt) {
+        case JSONParser.OBJECT_START:
+        case JSONParser.ARRAY_START:
+          depth++;
+          break;
+        case JSONParser.OBJECT_END:
+        case JSONParser.ARRAY_END:
+          depth--;
+          break;
+        case JSONParser.EOF:
+          throw unexpected(evt);
+        default://a scalar; noggit skips it if we don't read it
+      }
+      if (depth == 0)
+        return;
+      evt = parser.nextEvent();
+    }
+  }
+
+  private ParseException unexpected(int evt) {
+    return new ParseException("Unexpected " + JSONParser.getEventString(evt), (int) parser.getPosition());
+  }
+
+}
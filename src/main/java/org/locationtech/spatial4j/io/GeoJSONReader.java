@@ -23,6 +23,7 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class GeoJSONReader implements ShapeReader {
@@ -54,6 +55,16 @@ public class GeoJSONReader implements ShapeReader {
     return read(new StringReader(v));
   }
 
+  /**
+   * Streams the Features of a FeatureCollection, one at a time.
+   *
+   * @param propertyNames The properties of each feature to keep; null to keep all of them.
+   * @see GeoJSONFeatureReader
+   */
+  public GeoJSONFeatureReader readFeatures(Reader reader, Collection<String> propertyNames) {
+    return new GeoJSONFeatureReader(this, reader, propertyNames);
+  }
+
   @Override
   public Shape readIfSupported(Object value) throws InvalidShapeException {
     String v = value.toString().trim();
@@ -27,8 +27,10 @@ import static org.locationtech.spatial4j.io.GeoJSONReader.BUFFER_UNITS;
 
 public class GeoJSONWriter implements ShapeWriter {
 
-  public GeoJSONWriter(SpatialContext ctx, SpatialContextFactory factory) {
+  protected final int decimals;
 
+  public GeoJSONWriter(SpatialContext ctx, SpatialContextFactory factory) {
+    this.decimals = factory.writerDecimals;
   }
 
   @Override
@@ -36,6 +38,10 @@ public class GeoJSONWriter implements ShapeWriter {
     return ShapeIO.GeoJSON;
   }
 
+  protected NumberFormat getNumberFormat() {
+    return LegacyShapeWriter.makeNumberFormat(decimals);
+  }
+
   protected void write(Writer output, NumberFormat nf, double... coords) throws IOException {
     output.write('[');
     for (int i = 0; i < coords.length; i++) {
@@ -45,7 +51,7 @@ public class GeoJSONWriter implements ShapeWriter {
       if (i > 0) {
         output.append(',');
       }
-      output.append(nf.format(coords[i]));
+      FastDecimalFormat.write(output, nf, coords[i]);
     }
     output.write(']');
   }
@@ -55,7 +61,7 @@ public class GeoJSONWriter implements ShapeWriter {
     if (shape == null) {
       throw new NullPointerException("Shape can not be null");
     }
-    NumberFormat nf = LegacyShapeWriter.makeNumberFormat(6);
+    NumberFormat nf = getNumberFormat();
     if (shape instanceof Point) {
       Point v = (Point) shape;
       output.append("{\"type\":\"Point\",\"coordinates\":");
@@ -89,7 +95,7 @@ public class GeoJSONWriter implements ShapeWriter {
       if (v.getBuf() > 0) {
         output.append(',');
         output.append("\"buffer\":");
-        output.append(nf.format(v.getBuf()));
+        FastDecimalFormat.write(output, nf, v.getBuf());
       }
       output.append('}');
       return;
@@ -166,11 +172,11 @@ public class GeoJSONWriter implements ShapeWriter {
     if (isGeo) {
       double distKm =
           DistanceUtils.degrees2Dist(dist, DistanceUtils.EARTH_MEAN_RADIUS_KM);
-      output.append(nf.format(distKm));
+      FastDecimalFormat.write(output, nf, distKm);
       output.append(",\"properties\":{");
       output.append("\"").append(distUnitsProperty).append("\":\"km\"}");
     } else {
-      output.append(nf.format(dist));
+      FastDecimalFormat.write(output, nf, dist);
     }
   }
 
@@ -22,6 +22,9 @@ package org.locationtech.spatial4j.io;
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+import org.locationtech.spatial4j.shape.impl.RectangleImpl;
 
 import java.util.Arrays;
 
@@ -45,7 +48,12 @@ public class GeohashUtils {
   private static final int[] BASE_32_IDX;//sparse array of indexes from '0' to 'z'
 
   public static final int MAX_PRECISION = 24;//DWS: I forget what level results in needless more precision but it's about this
+  /** The maximum number of bits of a geohash in a long, e.g. by {@link #encodeLatLonLong(double, double, int)}. */
+  public static final int MAX_LONG_BITS = 62;
   private static final int[] BITS = {16, 8, 4, 2, 1};
+  //N, NE, E, SE, S, SW, W, NW
+  private static final int[] NEIGHBOR_DLON = {0, 1, 1, 1, 0, -1, -1, -1};
+  private static final int[] NEIGHBOR_DLAT = {1, 1, 0, -1, -1, -1, 0, 1};
 
   static {
     BASE_32_IDX = new int[BASE_32[BASE_32.length-1] - BASE_32[0] + 1];
@@ -71,6 +79,14 @@ public class GeohashUtils {
   }
 
   public static String encodeLatLon(double latitude, double longitude, int precision) {
+    if (precision > 0 && precision * 5 <= MAX_LONG_BITS) {
+      final long hash = encodeLatLonLong(latitude, longitude, precision * 5);
+      final char[] chars = new char[precision];
+      for (int i = 0; i < precision; i++) {
+        chars[i] = BASE_32[(int) (hash >>> (58 - i * 5)) & 0x1F];
+      }
+      return new String(chars);
+    }
     double[] latInterval = {-90.0, 90.0};
     double[] lngInterval = {-180.0, 180.0};
 
@@ -156,6 +172,368 @@ public class GeohashUtils {
     return ctx.makeRectangle(minX, maxX, minY, maxY);
   }
 
+  /**
+   * Encodes the given latitude and longitude into a geohash of the given number of bits (not
+   * characters; 5 bits per character) in a long, without any allocation.  The bits are the same as
+   * {@link #encodeLatLon(double, double, int)}'s, but are computed by quantizing each coordinate and
+   * interleaving its bits instead of bisecting bit by bit.
+   * <p>
+   * The long holds the hash left-aligned from bit 62 down, followed by a single 1 bit that marks its
+   * length; the sign bit is always 0.  Consequently hashes of the same length sort like their
+   * strings, and all the hashes it is a prefix of (including itself) are in one contiguous range:
+   * greater than {@code hash - Long.lowestOneBit(hash)} and at most
+   * {@code hash + (Long.lowestOneBit(hash) - 1)}.
+   *
+   * @param bits from 0 to {@link #MAX_LONG_BITS}
+   * @see #decodeToRect(long, double[])
+   * @see #longToGeohash(long)
+   */
+  public static long encodeLatLonLong(double latitude, double longitude, int bits) {
+    if (bits < 0 || bits > MAX_LONG_BITS)
+      throw new IllegalArgumentException("bits must be between 0 and " + MAX_LONG_BITS + ": " + bits);
+    //longitude takes the first bit and thus the extra one when odd
+    final int lonBits = (bits + 1) >>> 1;
+    final int latBits = bits >>> 1;
+    return fromIndexes(quantize(longitude, -180, 360, lonBits), quantize(latitude, -90, 180, latBits), bits);
+  }
+
+  /**
+   * The number of bits of a hash from {@link #encodeLatLonLong(double, double, int)} or
+   * {@link #geohashToLong(String)}.
+   */
+  public static int getLongHashBits(long hash) {
+    checkLongHash(hash);
+    return MAX_LONG_BITS - Long.numberOfTrailingZeros(hash);
+  }
+
+  /**
+   * Decodes a hash from {@link #encodeLatLonLong(double, double, int)} or
+   * {@link #geohashToLong(String)} into the given array as minX, maxX, minY, maxY (min-max lon, min-max
+   * lat); the same values as {@link #decodeBoundary(String, SpatialContext)} but without creating any
+   * objects.
+   *
+   * @param out an array of at least 4 values
+   */
+  public static void decodeToRect(long hash, double[] out) {
+    final int bits = getLongHashBits(hash);
+    final long lonIdx = lonIndex(hash, bits);
+    final long latIdx = latIndex(hash, bits);
+    final int lonBits = (bits + 1) >>> 1;
+    final int latBits = bits >>> 1;
+    //exact: the widths are powers of 2 times 360 or 180, and the indexes are at most 31 bits
+    final double lonWidth = 360.0 / (1L << lonBits);
+    final double latHeight = 180.0 / (1L << latBits);
+    out[0] = -180 + lonIdx * lonWidth;
+    out[1] = out[0] + lonWidth;
+    out[2] = -90 + latIdx * latHeight;
+    out[3] = out[2] + latHeight;
+  }
+
+  /**
+   * Converts a geohash string of up to 12 characters to a long, as returned by
+   * {@link #encodeLatLonLong(double, double, int)} with 5 bits per character.  Upper case is accepted.
+   *
+   * @throws IllegalArgumentException if it's too long or not a geohash
+   */
+  public static long geohashToLong(String geohash) {
+    final int length = geohash.length();
+    if (length * 5 > MAX_LONG_BITS)
+      throw new IllegalArgumentException("Geohash longer than " + MAX_LONG_BITS / 5 + " characters: " + geohash);
+    long hash = 0;
+    for (int i = 0; i < length; i++) {
+      char c = geohash.charAt(i);
+      if (c >= 'A' && c <= 'Z')
+        c -= ('A' - 'a');
+      final int idx = c - BASE_32[0];
+      if (idx < 0 || idx >= BASE_32_IDX.length || BASE_32_IDX[idx] < 0)
+        throw new IllegalArgumentException("Not a geohash character '" + geohash.charAt(i) + "': " + geohash);
+      hash = (hash << 5) | BASE_32_IDX[idx];
+    }
+    return ((hash << 1) | 1) << (MAX_LONG_BITS - length * 5);
+  }
+
+  /**
+   * Converts a long from {@link #encodeLatLonLong(double, double, int)} or
+   * {@link #geohashToLong(String)} to its geohash string.
+   *
+   * @throws IllegalArgumentException if its number of bits isn't a multiple of 5
+   */
+  public static String longToGeohash(long hash) {
+    final int bits = getLongHashBits(hash);
+    if (bits % 5 != 0)
+      throw new IllegalArgumentException("Hash of " + bits + " bits isn't a whole number of characters");
+    final char[] chars = new char[bits / 5];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = BASE_32[(int) (hash >>> (58 - i * 5)) & 0x1F];
+    }
+    return new String(chars);
+  }
+
+  /**
+   * The hash of the cell that is the given number of cells east (dLon) and north (dLat) of the given
+   * one, at the same length.  Longitude wraps around the dateline; there is nothing past the poles.
+   *
+   * @return 0 (never a valid hash) if it's past a pole.
+   */
+  public static long getNeighbor(long hash, int dLon, int dLat) {
+    final int bits = getLongHashBits(hash);
+    final long columns = 1L << ((bits + 1) >>> 1);
+    final long rows = 1L << (bits >>> 1);
+    final long latIdx = latIndex(hash, bits) + dLat;
+    if (latIdx < 0 || latIdx >= rows)
+      return 0;
+    long lonIdx = (lonIndex(hash, bits) + dLon) % columns;
+    if (lonIdx < 0)
+      lonIdx += columns;
+    return fromIndexes(lonIdx, latIdx, bits);
+  }
+
+  /**
+   * Fills the given array with the 8 neighbors of the hash, clockwise from north: N, NE, E, SE, S, SW,
+   * W, NW; see {@link #getNeighbor(long, int, int)}.  The ones past a pole are 0.  At the shortest
+   * lengths the same cell may appear more than once, e.g. as both the east and west neighbor.
+   *
+   * @param out an array of at least 8 values
+   */
+  public static void getNeighbors(long hash, long[] out) {
+    for (int i = 0; i < 8; i++) {
+      out[i] = getNeighbor(hash, NEIGHBOR_DLON[i], NEIGHBOR_DLAT[i]);
+    }
+  }
+
+  /**
+   * The geohash of the cell that is the given number of cells east (dLon) and north (dLat) of the
+   * given one, which may have up to 12 characters; see {@link #getNeighbor(long, int, int)}.
+   *
+   * @return null if it's past a pole.
+   */
+  public static String getNeighbor(String geohash, int dLon, int dLat) {
+    final long neighbor = getNeighbor(geohashToLong(geohash), dLon, dLat);
+    return neighbor == 0 ? null : longToGeohash(neighbor);
+  }
+
+  /**
+   * The 8 neighbors of the geohash, which may have up to 12 characters, clockwise from north: N, NE,
+   * E, SE, S, SW, W, NW; see {@link #getNeighbors(long, long[])}.  The ones past a pole are null.
+   */
+  public static String[] getNeighbors(String geohash) {
+    final long hash = geohashToLong(geohash);
+    final String[] neighbors = new String[8];
+    for (int i = 0; i < 8; i++) {
+      final long neighbor = getNeighbor(hash, NEIGHBOR_DLON[i], NEIGHBOR_DLAT[i]);
+      neighbors[i] = neighbor == 0 ? null : longToGeohash(neighbor);
+    }
+    return neighbors;
+  }
+
+  /**
+   * Covers the shape with geohash cells of up to the given number of characters, coarsest first: each
+   * level's cells that the shape intersects are split into their 32 children, and the ones the shape
+   * is disjoint from are dropped, until the precision is reached or splitting another cell would
+   * exceed maxCells.  Each cell is related with {@link Shape#relate(Shape)} to a single reused
+   * {@link Rectangle}, so the walk allocates little besides the result.  The shape should be in a
+   * geo context.
+   *
+   * @param precision the maximum number of characters, up to 12
+   * @param maxCells the maximum number of cells; at least 1.  Since a split yields up to 32 cells, the
+   *                 result may have up to 31 fewer cells than this when the precision isn't reached.
+   */
+  public static Covering cover(Shape shape, int precision, int maxCells) {
+    if (precision < 0 || precision * 5 > MAX_LONG_BITS)
+      throw new IllegalArgumentException("precision must be between 0 and " + MAX_LONG_BITS / 5 + ": " + precision);
+    if (maxCells < 1)
+      throw new IllegalArgumentException("maxCells must be at least 1: " + maxCells);
+    final Rectangle cell = new RectangleImpl(-180, 180, -90, 90, shape.getContext());//reused
+    final double[] bounds = new double[4];
+    final long root = 1L << MAX_LONG_BITS;
+    final SpatialRelation rootRelation = shape.relate(cell);
+    if (rootRelation == SpatialRelation.DISJOINT)
+      return new Covering(new long[0], new boolean[0]);
+    if (rootRelation == SpatialRelation.CONTAINS)
+      return new Covering(new long[]{root}, new boolean[]{true});
+
+    long[] contained = new long[32];
+    int numContained = 0;
+    long[] edges = {root};
+    int numEdges = 1;
+    final long[] children = new long[32];
+    final boolean[] childrenContained = new boolean[32];
+    for (int level = 0; level < precision && numEdges > 0; level++) {
+      long[] nextEdges = new long[numEdges * 8];
+      int numNextEdges = 0;
+      int i = 0;
+      for (; i < numEdges; i++) {
+        final long parent = edges[i];
+        final int childShift = MAX_LONG_BITS - level * 5 - 5;
+        final long base = parent ^ Long.lowestOneBit(parent);//clear the marker
+        int numChildren = 0;
+        for (long c = 0; c < 32; c++) {
+          final long child = base | (c << (childShift + 1)) | (1L << childShift);
+          decodeToRect(child, bounds);
+          cell.reset(bounds[0], bounds[1], bounds[2], bounds[3]);
+          final SpatialRelation relation = shape.relate(cell);
+          if (relation == SpatialRelation.DISJOINT)
+            continue;
+          children[numChildren] = child;
+          childrenContained[numChildren++] = relation == SpatialRelation.CONTAINS;
+        }
+        //the cells there would be if this one were split; the rest of this level isn't yet
+        if (numContained + numNextEdges + numChildren + (numEdges - i - 1) > maxCells)
+          break;
+        for (int j = 0; j < numChildren; j++) {
+          if (childrenContained[j]) {
+            if (numContained == contained.length)
+              contained = Arrays.copyOf(contained, numContained * 2);
+            contained[numContained++] = children[j];
+          } else {
+            if (numNextEdges == nextEdges.length)
+              nextEdges = Arrays.copyOf(nextEdges, numNextEdges * 2);
+            nextEdges[numNextEdges++] = children[j];
+          }
+        }
+      }
+      if (i < numEdges) {//ran out of cells; keep the rest of this level as is
+        final int rest = numEdges - i;
+        if (numNextEdges + rest > nextEdges.length)
+          nextEdges = Arrays.copyOf(nextEdges, numNextEdges + rest);
+        System.arraycopy(edges, i, nextEdges, numNextEdges, rest);
+        edges = nextEdges;
+        numEdges = numNextEdges + rest;
+        break;
+      }
+      edges = nextEdges;
+      numEdges = numNextEdges;
+    }
+
+    //merge in sort order; the cells are disjoint, so their hashes sort like their ranges
+    Arrays.sort(contained, 0, numContained);
+    Arrays.sort(edges, 0, numEdges);
+    final long[] hashes = new long[numContained + numEdges];
+    final boolean[] isContained = new boolean[hashes.length];
+    for (int i = 0, ci = 0, ei = 0; i < hashes.length; i++) {
+      if (ei == numEdges || (ci < numContained && contained[ci] < edges[ei])) {
+        hashes[i] = contained[ci++];
+        isContained[i] = true;
+      } else {
+        hashes[i] = edges[ei++];
+      }
+    }
+    return new Covering(hashes, isContained);
+  }
+
+  /**
+   * The result of {@link #cover(Shape, int, int)}: disjoint geohash cells in sort order, each either
+   * contained by the shape or on its edge (intersecting or containing it).  Sorting them as longs or as
+   * strings yields the same order.
+   */
+  public static class Covering {
+    private final long[] hashes;
+    private final boolean[] contained;
+
+    Covering(long[] hashes, boolean[] contained) {
+      this.hashes = hashes;
+      this.contained = contained;
+    }
+
+    /** The number of cells. */
+    public int size() {
+      return hashes.length;
+    }
+
+    /** The cell's hash as a long; see {@link #encodeLatLonLong(double, double, int)}. */
+    public long getHash(int i) {
+      return hashes[i];
+    }
+
+    /** The cell's geohash string. */
+    public String getGeohash(int i) {
+      return longToGeohash(hashes[i]);
+    }
+
+    /** Whether the cell is contained by the shape, otherwise it's on its edge. */
+    public boolean isContained(int i) {
+      return contained[i];
+    }
+
+    @Override
+    public String toString() {
+      final StringBuilder str = new StringBuilder("Covering[");
+      for (int i = 0; i < hashes.length; i++) {
+        if (i > 0)
+          str.append(", ");
+        str.append(getGeohash(i)).append(contained[i] ? "" : "*");
+      }
+      return str.append(']').toString();
+    }
+  }
+
+  private static void checkLongHash(long hash) {
+    if (hash <= 0)
+      throw new IllegalArgumentException("Not a long geohash: " + hash);
+  }
+
+  /**
+   * The index of the cell of {@code 2^bits} equal cells from min to min + width that contains the
+   * value, where a value on the boundary between two cells is in the lower one, like the bisection in
+   * {@link #encodeLatLon(double, double, int)}.  Out of range values (and NaN) are clamped.
+   */
+  private static long quantize(double value, double min, double width, int bits) {
+    final long cells = 1L << bits;
+    final double cellWidth = width / cells;//exact
+    long idx = (long) ((value - min) / cellWidth);//may be off by one due to rounding; corrected below
+    if (idx < 0)
+      idx = 0;
+    else if (idx >= cells)
+      idx = cells - 1;
+    //the cell boundaries are exact, so comparing with them is too
+    if (idx > 0 && value <= min + idx * cellWidth)
+      idx--;
+    else if (idx < cells - 1 && value > min + (idx + 1) * cellWidth)
+      idx++;
+    return idx;
+  }
+
+  /** Composes a hash from its longitude and latitude cell indexes. */
+  private static long fromIndexes(long lonIdx, long latIdx, int bits) {
+    //longitude takes the first bit, so it's the last one when odd
+    final long interleaved = (bits & 1) == 0
+        ? (spread(lonIdx) << 1) | spread(latIdx)
+        : spread(lonIdx) | (spread(latIdx) << 1);
+    return ((interleaved << 1) | 1) << (MAX_LONG_BITS - bits);
+  }
+
+  private static long lonIndex(long hash, int bits) {
+    final long interleaved = hash >>> (MAX_LONG_BITS - bits + 1);
+    return compact((bits & 1) == 0 ? interleaved >>> 1 : interleaved);
+  }
+
+  private static long latIndex(long hash, int bits) {
+    final long interleaved = hash >>> (MAX_LONG_BITS - bits + 1);
+    return compact((bits & 1) == 0 ? interleaved : interleaved >>> 1);
+  }
+
+  /** Spreads the low 32 bits of v to the even bits of the result. */
+  static long spread(long v) {
+    v &= 0xFFFFFFFFL;
+    v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+    v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+    v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+    v = (v | (v << 2)) & 0x3333333333333333L;
+    v = (v | (v << 1)) & 0x5555555555555555L;
+    return v;
+  }
+
+  /** The inverse of {@link #spread(long)}: gathers the even bits of v. */
+  static long compact(long v) {
+    v &= 0x5555555555555555L;
+    v = (v | (v >>> 1)) & 0x3333333333333333L;
+    v = (v | (v >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+    v = (v | (v >>> 4)) & 0x00FF00FF00FF00FFL;
+    v = (v | (v >>> 8)) & 0x0000FFFF0000FFFFL;
+    v = (v | (v >>> 16)) & 0x00000000FFFFFFFFL;
+    return v;
+  }
+
   /** Array of geohashes 1 level below the baseGeohash. Sorted. */
   public static String[] getSubGeohashes(String baseGeohash) {
     String[] hashes = new String[BASE_32.length];
@@ -11,7 +11,6 @@ package org.locationtech.spatial4j.io;
 import java.io.IOException;
 import java.io.Writer;
 import java.text.NumberFormat;
-import java.util.Locale;
 
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.context.SpatialContextFactory;
@@ -40,9 +39,11 @@ import org.locationtech.spatial4j.shape.Shape;
 public class LegacyShapeWriter implements ShapeWriter {
 
   final SpatialContext ctx;
+  final int decimals;
 
   public LegacyShapeWriter(SpatialContext ctx, SpatialContextFactory factory) {
     this.ctx = ctx;
+    this.decimals = factory == null ? 6 : factory.writerDecimals;
   }
 
   /**
@@ -57,38 +58,39 @@ public class LegacyShapeWriter implements ShapeWriter {
 
   /** Overloaded to provide a number format. */
   public static String writeShape(Shape shape, NumberFormat nf) {
+    StringBuilder str = new StringBuilder();
     if (shape instanceof Point) {
       Point point = (Point) shape;
-      return nf.format(point.getX()) + " " + nf.format(point.getY());
+      FastDecimalFormat.append(str, nf, point.getX()).append(' ');
+      FastDecimalFormat.append(str, nf, point.getY());
+      return str.toString();
     }
     else if (shape instanceof Rectangle) {
       Rectangle rect = (Rectangle)shape;
-      return
-          nf.format(rect.getMinX()) + " " +
-              nf.format(rect.getMinY()) + " " +
-              nf.format(rect.getMaxX()) + " " +
-              nf.format(rect.getMaxY());
+      FastDecimalFormat.append(str, nf, rect.getMinX()).append(' ');
+      FastDecimalFormat.append(str, nf, rect.getMinY()).append(' ');
+      FastDecimalFormat.append(str, nf, rect.getMaxX()).append(' ');
+      FastDecimalFormat.append(str, nf, rect.getMaxY());
+      return str.toString();
     }
     else if (shape instanceof Circle) {
       Circle c = (Circle) shape;
-      return "Circle(" +
-          nf.format(c.getCenter().getX()) + " " +
-          nf.format(c.getCenter().getY()) + " " +
-          "d=" + nf.format(c.getRadius()) +
-          ")";
+      str.append("Circle(");
+      FastDecimalFormat.append(str, nf, c.getCenter().getX()).append(' ');
+      FastDecimalFormat.append(str, nf, c.getCenter().getY()).append(" d=");
+      FastDecimalFormat.append(str, nf, c.getRadius()).append(')');
+      return str.toString();
     }
     return shape.toString();
   }
 
   /**
-   * A convenience method to create a suitable NumberFormat for writing numbers.
+   * A convenience method to create a suitable NumberFormat for writing numbers: no grouping and at
+   * most {@code fractionDigits}, or if negative then the shortest that reads back the same.
+   * It's a {@link FastDecimalFormat}.
    */
   public static NumberFormat makeNumberFormat(int fractionDigits) {
-    NumberFormat nf = NumberFormat.getInstance(Locale.ROOT);//not thread-safe
-    nf.setGroupingUsed(false);
-    nf.setMaximumFractionDigits(fractionDigits);
-    nf.setMinimumFractionDigits(0);
-    return nf;
+    return new FastDecimalFormat(fractionDigits);//not thread-safe
   }
 
   @Override
@@ -98,11 +100,11 @@ public class LegacyShapeWriter implements ShapeWriter {
 
   @Override
   public void write(Writer output, Shape shape) throws IOException {
-    output.append(writeShape(shape));
+    output.append(toString(shape));
   }
 
   @Override
   public String toString(Shape shape) {
-    return writeShape(shape);
+    return writeShape(shape, makeNumberFormat(decimals));
   }
 }
@@ -210,10 +210,10 @@ public class PolyshapeWriter implements ShapeWriter {
     private void encode(long v) throws IOException {
       v = v < 0 ? ~(v << 1) : v << 1;
       while (v >= 0x20) {
-        writer.write(Character.toChars((int) ((0x20 | (v & 0x1f)) + 63)));
+        writer.write((int) ((0x20 | (v & 0x1f)) + 63));
         v >>= 5;
       }
-      writer.write(Character.toChars((int) (v + 63)));
+      writer.write((int) (v + 63));
     }
   }
 }
\ No newline at end of file
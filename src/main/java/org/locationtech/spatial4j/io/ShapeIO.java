@@ -14,6 +14,7 @@ public interface ShapeIO {
   public static final String GeoJSON = "GeoJSON";
   public static final String POLY = "POLY";
   public static final String LEGACY = "LEGACY";
+  public static final String TWKB = "TWKB";
 
   /**
    * @return the format name
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.impl.RectangleImpl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random access to the shapes of a file written by {@link ShapeStoreWriter}, by ordinal.  The file
+ * is memory-mapped with {@link FileChannel#map}, so opening it is immediate, nothing is copied
+ * onto the heap, and the OS page cache is shared by all processes that open it.
+ * {@link #get(int)} decodes only the one shape with the context's {@link BinaryCodec}, whereas
+ * {@link #bbox(int)} and {@link #scan(Rectangle, Visitor)} only read the bounding
+ * box table, never the shapes.
+ * <p>
+ * Files over 2GB are mapped in chunks; the rare shape spanning two is copied to decode it.  The
+ * mapping is released when this is garbage collected; there's nothing to close.  Thread-safe.
+ */
+public class ShapeStore {
+
+  /** Called for each shape found by {@link #scan(Rectangle, Visitor)}. */
+  public interface Visitor {
+    /** @return false to stop the scan. */
+    boolean visit(int ordinal);
+  }
+
+  /** "S4JS" */
+  public static final int MAGIC = 0x53344A53;
+  public static final int VERSION = 1;
+  static final int HEADER_SIZE = 32;
+  static final int MAX_SIZE = Integer.MAX_VALUE - 8;//max array size
+
+  private static final int CHUNK_SHIFT = 30;//1GB; a multiple of 8 so that table values aren't split
+  private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+  private final SpatialContext ctx;
+  private final BinaryCodec binaryCodec;
+  private final ByteBuffer[] chunks;//read-only; only absolute gets, or on duplicates
+  private final int size;
+  private final long offsetsPosition;
+  private final long boundsPosition;
+
+  public ShapeStore(SpatialContext ctx, Path file) throws IOException {
+    this.ctx = ctx;
+    this.binaryCodec = ctx.getBinaryCodec();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final long length = channel.size();
+      chunks = new ByteBuffer[(int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT)];
+      for (int i = 0; i < chunks.length; i++) {
+        final long start = (long) i << CHUNK_SHIFT;
+        chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(length - start, 1L << CHUNK_SHIFT));
+      }
+      //the mapping stays valid after the channel is closed
+      if (length < HEADER_SIZE || getInt(0) != MAGIC)
+        throw new IOException("Not a complete shape store: " + file);
+      if (getInt(4) != VERSION)
+        throw new IOException("Unsupported shape store version " + getInt(4) + ": " + file);
+      size = getInt(8);
+      offsetsPosition = getLong(16);
+      boundsPosition = getLong(24);
+      if (size < 0 || offsetsPosition + (size + 1) * 8L != boundsPosition
+          || boundsPosition + size * 32L != length)
+        throw new IOException("Corrupt shape store: " + file);
+    }
+  }
+
+  public SpatialContext getContext() {
+    return ctx;
+  }
+
+  /** The number of shapes. */
+  public int size() {
+    return size;
+  }
+
+  /** Reads the shape at the ordinal, as returned by {@link ShapeStoreWriter#add(Shape)}. */
+  public Shape get(int ordinal) {
+    checkOrdinal(ordinal);
+    final long start = getLong(offsetsPosition + ordinal * 8L);
+    final long end = getLong(offsetsPosition + ordinal * 8L + 8);
+    final int chunk = (int) (start >>> CHUNK_SHIFT);
+    ByteBuffer buffer;
+    if (chunk == (int) ((end - 1) >>> CHUNK_SHIFT)) {
+      buffer = chunks[chunk].duplicate();
+      buffer.position((int) (start & CHUNK_MASK));
+    } else {//spans two chunks
+      buffer = ByteBuffer.allocate((int) (end - start));
+      for (long pos = start; pos < end; pos++) {
+        buffer.put(getByte(pos));
+      }
+      buffer.flip();
+    }
+    return binaryCodec.readShape(buffer);
+  }
+
+  /** The bounding box of the shape at the ordinal, without reading the shape. */
+  public Rectangle bbox(int ordinal) {
+    checkOrdinal(ordinal);
+    final long pos = boundsPosition + ordinal * 32L;
+    return ctx.getShapeFactory().rect(getDouble(pos), getDouble(pos + 8), getDouble(pos + 16), getDouble(pos + 24));
+  }
+
+  /**
+   * Visits the ordinals, in order, of the shapes whose bounding box intersects the query (including
+   * touching), reading only the bounding box table.  Empty shapes are never visited.
+   *
+   * @return false if the visitor stopped the scan.
+   */
+  public boolean scan(Rectangle query, Visitor visitor) {
+    final double qMinY = query.getMinY(), qMaxY = query.getMaxY();
+    final Rectangle bbox = new RectangleImpl(0, 0, 0, 0, ctx);//reused
+    long pos = boundsPosition;
+    for (int i = 0; i < size; i++, pos += 32) {
+      final double minY = getDouble(pos + 16), maxY = getDouble(pos + 24);
+      if (!(minY <= qMaxY && maxY >= qMinY))
+        continue;//also skips NaN (empty)
+      bbox.reset(getDouble(pos), getDouble(pos + 8), minY, maxY);
+      if (query.relate(bbox).intersects() && !visitor.visit(i))
+        return false;
+    }
+    return true;
+  }
+
+  private void checkOrdinal(int ordinal) {
+    if (ordinal < 0 || ordinal >= size)
+      throw new IndexOutOfBoundsException("ordinal " + ordinal + " of " + size);
+  }
+
+  private byte getByte(long pos) {
+    return chunks[(int) (pos >>> CHUNK_SHIFT)].get((int) (pos & CHUNK_MASK));
+  }
+
+  private int getInt(long pos) {
+    return chunks[(int) (pos >>> CHUNK_SHIFT)].getInt((int) (pos & CHUNK_MASK));
+  }
+
+  private long getLong(long pos) {
+    return chunks[(int) (pos >>> CHUNK_SHIFT)].getLong((int) (pos & CHUNK_MASK));
+  }
+
+  private double getDouble(long pos) {
+    return chunks[(int) (pos >>> CHUNK_SHIFT)].getDouble((int) (pos & CHUNK_MASK));
+  }
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes a file of shapes for {@link ShapeStore}.  Shapes are appended with {@link #add(Shape)},
+ * which returns their ordinal, and written with the context's {@link BinaryCodec}.  The offset and
+ * bounding box tables are kept on the heap (40 bytes per shape) and written by {@link #close()},
+ * which completes the file; until then it can't be opened.
+ * <p>
+ * The file is big-endian:
+ * <ul>
+ *   <li>a header: {@link ShapeStore#MAGIC}, the version, the number of shapes, 4 bytes of padding,
+ *   and the file positions of the offset and bounding box tables;</li>
+ *   <li>the shapes as written by {@link BinaryCodec#writeShape(java.io.DataOutput, Shape)}, padded
+ *   to a multiple of 8 bytes;</li>
+ *   <li>the offset table: the file position of each shape, and of the end of the last one;</li>
+ *   <li>the bounding box table: minX, maxX, minY, maxY of each shape.</li>
+ * </ul>
+ * Not thread-safe.
+ */
+public class ShapeStoreWriter implements Closeable {
+
+  private final BinaryCodec binaryCodec;
+  private final FileChannel channel;
+  private final DataOutputStream output;
+  private final ByteArrayOutputStream shapeBytes = new ByteArrayOutputStream();
+  private final DataOutputStream shapeOutput = new DataOutputStream(shapeBytes);
+
+  private long position = ShapeStore.HEADER_SIZE;
+  private int size;
+  private long[] offsets = new long[1024];
+  private double[] minXs = new double[1024], maxXs = new double[1024];
+  private double[] minYs = new double[1024], maxYs = new double[1024];
+  private boolean closed;
+
+  /** Creates the file, or truncates it if it exists. */
+  public ShapeStoreWriter(SpatialContext ctx, Path file) throws IOException {
+    this.binaryCodec = ctx.getBinaryCodec();
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    channel.position(ShapeStore.HEADER_SIZE);//the header is written by close()
+    this.output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+  }
+
+  /**
+   * Appends the shape.
+   *
+   * @return its ordinal, for {@link ShapeStore#get(int)}
+   */
+  public int add(Shape shape) throws IOException {
+    if (closed)
+      throw new IllegalStateException("closed");
+    if (size == ShapeStore.MAX_SIZE)
+      throw new IllegalStateException("too many shapes");
+    shapeBytes.reset();
+    binaryCodec.writeShape(shapeOutput, shape);
+    Rectangle bbox = shape.getBoundingBox();
+
+    if (size == offsets.length) {
+      final int newLength = (int) Math.min(size * 2L, ShapeStore.MAX_SIZE);
+      offsets = Arrays.copyOf(offsets, newLength);
+      minXs = Arrays.copyOf(minXs, newLength);
+      maxXs = Arrays.copyOf(maxXs, newLength);
+      minYs = Arrays.copyOf(minYs, newLength);
+      maxYs = Arrays.copyOf(maxYs, newLength);
+    }
+    offsets[size] = position;
+    minXs[size] = bbox.getMinX();
+    maxXs[size] = bbox.getMaxX();
+    minYs[size] = bbox.getMinY();
+    maxYs[size] = bbox.getMaxY();
+
+    shapeBytes.writeTo(output);
+    position += shapeBytes.size();
+    return size++;
+  }
+
+  /** The number of shapes added. */
+  public int size() {
+    return size;
+  }
+
+  /** Writes the tables and the header, and closes the file. */
+  @Override
+  public void close() throws IOException {
+    if (closed)
+      return;
+    closed = true;
+    try {
+      final long end = position;
+      //pad so that the tables are 8-byte aligned, thus never split by ShapeStore's mapping chunks
+      while (position % 8 != 0) {
+        output.writeByte(0);
+        position++;
+      }
+      final long offsetsPosition = position;
+      for (int i = 0; i < size; i++) {
+        output.writeLong(offsets[i]);
+      }
+      output.writeLong(end);
+      final long boundsPosition = offsetsPosition + (size + 1) * 8L;
+      for (int i = 0; i < size; i++) {
+        output.writeDouble(minXs[i]);
+        output.writeDouble(maxXs[i]);
+        output.writeDouble(minYs[i]);
+        output.writeDouble(maxYs[i]);
+      }
+      output.flush();
+
+      ByteBuffer header = ByteBuffer.allocate(ShapeStore.HEADER_SIZE);
+      header.putInt(ShapeStore.MAGIC).putInt(ShapeStore.VERSION).putInt(size).putInt(0);
+      header.putLong(offsetsPosition).putLong(boundsPosition);
+      header.flip();
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+    } finally {
+      output.close();//closes the channel
+    }
+  }
+}
@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+import org.locationtech.spatial4j.shape.impl.RectangleImpl;
+
+import java.util.Arrays;
+
+/**
+ * Maps points to keys along a <a href="https://en.wikipedia.org/wiki/Hilbert_curve">Hilbert</a> or
+ * <a href="https://en.wikipedia.org/wiki/Z-order_curve">Morton (Z-order)</a> space-filling curve
+ * through a grid of {@code 2^order} by {@code 2^order} cells over the context's
+ * {@link SpatialContext#getWorldBounds() world bounds}, and decomposes shapes into ranges of keys;
+ * for storing shapes in sorted key-value stores and range-scanning them.  Morton keys interleave the
+ * cell's x and y bits like geohashes do; Hilbert keys have better locality: consecutive keys are
+ * always adjacent cells, and so a shape needs fewer ranges.
+ * <p>
+ * Keys are longs of up to 62 bits, so they sort as signed longs.  The world bounds must be finite,
+ * which isn't the default for non-geo contexts.  Thread-safe.
+ *
+ * @see GeohashUtils
+ */
+public class SpaceFillingCurve {
+
+  public enum Type {HILBERT, MORTON}
+
+  /** The maximum order: 31 bits per dimension. */
+  public static final int MAX_ORDER = 31;
+
+  private final SpatialContext ctx;
+  private final Type type;
+  private final int order;
+  private final double minX, maxX, minY, maxY;
+
+  /**
+   * @param order the number of bits of each dimension, from 1 to {@link #MAX_ORDER}; keys have twice
+   *              that.
+   */
+  public SpaceFillingCurve(SpatialContext ctx, Type type, int order) {
+    if (order < 1 || order > MAX_ORDER)
+      throw new IllegalArgumentException("order must be between 1 and " + MAX_ORDER + ": " + order);
+    final Rectangle bounds = ctx.getWorldBounds();
+    if (Double.isInfinite(bounds.getWidth()) || Double.isInfinite(bounds.getHeight()))
+      throw new IllegalArgumentException("The world bounds must be finite: " + bounds);
+    this.ctx = ctx;
+    this.type = type;
+    this.order = order;
+    this.minX = bounds.getMinX();
+    this.maxX = bounds.getMaxX();
+    this.minY = bounds.getMinY();
+    this.maxY = bounds.getMaxY();
+  }
+
+  public SpatialContext getContext() {
+    return ctx;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public int getOrder() {
+    return order;
+  }
+
+  /** The key of the cell that contains the point; out of bounds coordinates are clamped. */
+  public long encode(Point point) {
+    return encode(point.getX(), point.getY());
+  }
+
+  /** The key of the cell that contains the point; out of bounds coordinates are clamped. */
+  public long encode(double x, double y) {
+    return encodeCell(cellIndex(x, minX, maxX), cellIndex(y, minY, maxY));
+  }
+
+  /**
+   * Decodes the key into the given array as the minX, maxX, minY, maxY of its cell.
+   *
+   * @param out an array of at least 4 values
+   */
+  public void decodeToRect(long key, double[] out) {
+    if (key < 0 || key >= 1L << (order * 2))
+      throw new IllegalArgumentException("Not a key of order " + order + ": " + key);
+    int x, y;
+    if (type == Type.MORTON) {
+      x = (int) GeohashUtils.compact(key >>> 1);
+      y = (int) GeohashUtils.compact(key);
+    } else {
+      x = 0;
+      y = 0;
+      long t = key;
+      for (int i = 0; i < order; i++) {
+        final int s = 1 << i;
+        final int rx = (int) (1 & (t >>> 1));
+        final int ry = (int) (1 & (t ^ rx));
+        if (ry == 0) {
+          if (rx == 1) {
+            x = s - 1 - x;
+            y = s - 1 - y;
+          }
+          final int swap = x;
+          x = y;
+          y = swap;
+        }
+        x += s * rx;
+        y += s * ry;
+        t >>>= 2;
+      }
+    }
+    cellBounds(x, y, order, out);
+  }
+
+  /**
+   * Decomposes the shape into sorted, disjoint and non-adjacent inclusive ranges of keys that
+   * together contain the keys of all the cells the shape intersects (including touching).  The grid
+   * is walked as a quad tree, level by level, in curve order: each cell (a contiguous range of keys)
+   * the shape intersects but doesn't contain is split into its 4 children, dropping those the shape
+   * is disjoint from, until the finest level is reached or the next level would need more ranges than
+   * maxRanges.  Each cell is related with {@link Shape#relate(Shape)} to a single reused
+   * {@link Rectangle}.
+   *
+   * @param maxRanges the maximum number of ranges; at least 1.
+   * @return the ranges as pairs of the minimum and maximum key.
+   */
+  public long[] ranges(Shape shape, int maxRanges) {
+    if (maxRanges < 1)
+      throw new IllegalArgumentException("maxRanges must be at least 1: " + maxRanges);
+    final Rectangle cell = new RectangleImpl(minX, maxX, minY, maxY, ctx);//reused
+    final SpatialRelation rootRelation = shape.relate(cell);
+    if (rootRelation == SpatialRelation.DISJOINT)
+      return new long[0];
+    final long maxKey = (1L << (order * 2)) - 1;
+    if (rootRelation == SpatialRelation.CONTAINS)
+      return new long[]{0, maxKey};
+
+    final double[] bounds = new double[4];
+    //the cells of a level in curve order; x & y are the edge cells' indexes at this level, else -1
+    CellList cells = new CellList(16);
+    cells.add(0, maxKey, 0, 0);
+    final CellList children = new CellList(4);
+    for (int level = 1; level <= order; level++) {
+      final int shift = order - level;
+      final long span = 1L << (shift * 2);
+      final CellList next = new CellList(cells.size * 2);
+      boolean split = false;
+      for (int i = 0; i < cells.size; i++) {
+        if (cells.xs[i] < 0) {//contained
+          next.add(cells.starts[i], cells.ends[i], -1, -1);
+          continue;
+        }
+        children.size = 0;
+        for (int c = 0; c < 4; c++) {
+          final int x = cells.xs[i] * 2 + (c >>> 1);
+          final int y = cells.ys[i] * 2 + (c & 1);
+          cellBounds(x, y, level, bounds);
+          cell.reset(bounds[0], bounds[1], bounds[2], bounds[3]);
+          final SpatialRelation relation = shape.relate(cell);
+          if (relation == SpatialRelation.DISJOINT)
+            continue;
+          //all the keys in the cell share their high bits
+          final long start = encodeCell(x << shift, y << shift) & -span;
+          final boolean contained = relation == SpatialRelation.CONTAINS;
+          children.insertSorted(start, start + span - 1, contained ? -1 : x, contained ? -1 : y);
+        }
+        for (int c = 0; c < children.size; c++) {
+          next.add(children.starts[c], children.ends[c], children.xs[c], children.ys[c]);
+          split |= children.xs[c] >= 0;
+        }
+      }
+      if (next.countRanges() > maxRanges)
+        break;
+      cells = next;
+      if (!split)//nothing left to split
+        break;
+    }
+    return cells.toRanges();
+  }
+
+  private long encodeCell(int x, int y) {
+    if (type == Type.MORTON)
+      return (GeohashUtils.spread(x) << 1) | GeohashUtils.spread(y);
+    long d = 0;
+    for (int s = 1 << (order - 1); s > 0; s >>>= 1) {
+      final int rx = (x & s) != 0 ? 1 : 0;
+      final int ry = (y & s) != 0 ? 1 : 0;
+      d += (long) s * s * ((3 * rx) ^ ry);
+      //rotate the quadrant; only the bits below s matter from here on
+      if (ry == 0) {
+        if (rx == 1) {
+          x = s - 1 - x;
+          y = s - 1 - y;
+        }
+        final int swap = x;
+        x = y;
+        y = swap;
+      }
+    }
+    return d;
+  }
+
+  private int cellIndex(double value, double min, double max) {
+    final long cells = 1L << order;
+    final double width = (max - min) / cells;
+    long idx = (long) ((value - min) / width);//NaN becomes 0
+    idx = Math.max(0, Math.min(cells - 1, idx));
+    //correct rounding so that the cell's bounds, as computed by cellBounds, contain the value
+    if (idx > 0 && value < min + idx * width)
+      idx--;
+    else if (idx < cells - 1 && value > min + (idx + 1) * width)
+      idx++;
+    return (int) idx;
+  }
+
+  /** The bounds of the cell at the given indexes of a level (an order) of the grid. */
+  private void cellBounds(int x, int y, int level, double[] out) {
+    final long cells = 1L << level;
+    final double width = (maxX - minX) / cells;
+    final double height = (maxY - minY) / cells;
+    out[0] = minX + x * width;
+    out[1] = x == cells - 1 ? maxX : minX + (x + 1) * width;
+    out[2] = minY + y * height;
+    out[3] = y == cells - 1 ? maxY : minY + (y + 1) * height;
+  }
+
+  /** Parallel arrays of cells: their key ranges, and indexes if they're edge cells. */
+  private static class CellList {
+    long[] starts;
+    long[] ends;
+    int[] xs;
+    int[] ys;
+    int size;
+
+    CellList(int capacity) {
+      starts = new long[capacity];
+      ends = new long[capacity];
+      xs = new int[capacity];
+      ys = new int[capacity];
+    }
+
+    void add(long start, long end, int x, int y) {
+      if (size == starts.length) {
+        final int newLength = size * 2;
+        starts = Arrays.copyOf(starts, newLength);
+        ends = Arrays.copyOf(ends, newLength);
+        xs = Arrays.copyOf(xs, newLength);
+        ys = Arrays.copyOf(ys, newLength);
+      }
+      starts[size] = start;
+      ends[size] = end;
+      xs[size] = x;
+      ys[size] = y;
+      size++;
+    }
+
+    /** Adds, keeping the cells sorted by start; for a few. */
+    void insertSorted(long start, long end, int x, int y) {
+      add(start, end, x, y);
+      for (int i = size - 1; i > 0 && starts[i - 1] > start; i--) {
+        starts[i] = starts[i - 1];
+        ends[i] = ends[i - 1];
+        xs[i] = xs[i - 1];
+        ys[i] = ys[i - 1];
+        starts[i - 1] = start;
+        ends[i - 1] = end;
+        xs[i - 1] = x;
+        ys[i - 1] = y;
+      }
+    }
+
+    /** The number of ranges after merging adjacent cells. */
+    int countRanges() {
+      int count = 0;
+      for (int i = 0; i < size; i++) {
+        if (i == 0 || ends[i - 1] + 1 != starts[i])
+          count++;
+      }
+      return count;
+    }
+
+    long[] toRanges() {
+      final long[] ranges = new long[countRanges() * 2];
+      int r = -1;
+      for (int i = 0; i < size; i++) {
+        if (i == 0 || ends[i - 1] + 1 != starts[i])
+          ranges[++r] = starts[i];
+        else
+          r--;
+        ranges[++r] = ends[i];
+      }
+      return ranges;
+    }
+  }
+}
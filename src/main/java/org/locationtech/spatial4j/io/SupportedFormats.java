@@ -9,6 +9,7 @@
 package org.locationtech.spatial4j.io;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.shape.Shape;
@@ -26,6 +27,12 @@ public class SupportedFormats {
   
   private final ShapeReader geoJsonReader;
   private final ShapeWriter geoJsonWriter;
+
+  private final ShapeReader polyReader;
+  private final ShapeReader legacyReader;
+  private final ShapeReader twkbReader;
+
+  private final AtomicLong fallbackCount = new AtomicLong();
   
   public SupportedFormats(List<ShapeReader> readers, List<ShapeWriter> writers) {
     this.readers = readers;
@@ -36,6 +43,10 @@ public class SupportedFormats {
     
     geoJsonReader = getReader(ShapeIO.GeoJSON);
     geoJsonWriter = getWriter(ShapeIO.GeoJSON);
+
+    polyReader = getReader(ShapeIO.POLY);
+    legacyReader = getReader(ShapeIO.LEGACY);
+    twkbReader = getReader(ShapeIO.TWKB);
   }
   
   public List<ShapeReader> getReaders() {
@@ -80,8 +91,25 @@ public class SupportedFormats {
     return geoJsonWriter;
   }
 
+  /**
+   * Reads the shape in whichever format it's in, or returns null if none of them support it.  The
+   * format is first guessed from the leading characters (see {@link #guessReader(String)}) so that
+   * usually only one reader is tried.  If the guess is wrong or there is none, then all readers are
+   * tried in order, counting a fallback; see {@link #getFallbackCount()}.
+   */
   public Shape read(String value) {
+    ShapeReader guess = guessReader(value);
+    if (guess != null) {
+      Shape v = guess.readIfSupported(value);
+      if (v != null) {
+        return v;
+      }
+    }
+    fallbackCount.incrementAndGet();
     for(ShapeReader format : readers) {
+      if (format == guess) {
+        continue;
+      }
       Shape v = format.readIfSupported(value);
       if(v!=null) {
         return v;
@@ -89,4 +117,48 @@ public class SupportedFormats {
     }
     return null;
   }
+
+  /**
+   * Guesses the reader for the value from its first non-whitespace characters: '{' is GeoJSON,
+   * only hexadecimal digits (an even number) are TWKB, a letter is WKT, a POLY key digit followed
+   * by an encoded character is POLY, and otherwise a number is the legacy format.  Only the
+   * built-in formats are guessed, by their format names.
+   *
+   * @return the reader, or null if there's no guess.
+   */
+  protected ShapeReader guessReader(String value) {
+    int i = 0;
+    while (i < value.length() && Character.isWhitespace(value.charAt(i))) {
+      i++;
+    }
+    if (i == value.length()) {
+      return null;
+    }
+    char c = value.charAt(i);
+    if (c == '{') {
+      return geoJsonReader;
+    }
+    if (twkbReader != null && Character.digit(c, 16) >= 0 && TWKBReader.isHex(value.trim())) {
+      return twkbReader;
+    }
+    if (Character.isLetter(c)) {
+      return wktReader;//note: legacy "Circle(" isn't WKT; that's a fallback
+    }
+    if (c >= PolyshapeWriter.KEY_POINT && c <= PolyshapeWriter.KEY_BOX && i + 1 < value.length()) {
+      char next = value.charAt(i + 1);
+      //encoded values are chars 63 to 126
+      if (next == PolyshapeWriter.KEY_ARG_START || (next >= 63 && next <= 126)) {
+        return polyReader;
+      }
+    }
+    if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.') {
+      return legacyReader;
+    }
+    return null;
+  }
+
+  /** The number of times {@link #read(String)} had to try all readers because of a wrong or no guess. */
+  public long getFallbackCount() {
+    return fallbackCount.get();
+  }
 }
@@ -0,0 +1,382 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.exception.InvalidShapeException;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.ShapeFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.text.ParseException;
+
+import static org.locationtech.spatial4j.io.TWKBWriter.*;
+
+/**
+ * Reads shapes in the TWKB format, from bytes or from their hexadecimal text; see
+ * {@link TWKBWriter}.  Any precision, the optional headers, ID lists and M values are supported;
+ * the M values are ignored.  A Polygon written for a Rectangle is read back as a Rectangle.  Empty
+ * geometries other than points are read as an empty collection.
+ */
+public class TWKBReader implements ShapeReader {
+  final SpatialContext ctx;
+  final ShapeFactory shpFactory;
+
+  public TWKBReader(SpatialContext ctx, SpatialContextFactory factory) {
+    this.ctx = ctx;
+    this.shpFactory = ctx.getShapeFactory();
+  }
+
+  @Override
+  public String getFormatName() {
+    return ShapeIO.TWKB;
+  }
+
+  /** @param value the bytes as a {@code byte[]}, or their hexadecimal text */
+  @Override
+  public Shape read(Object value) throws IOException, ParseException, InvalidShapeException {
+    if (value instanceof byte[]) {
+      return read((byte[]) value);
+    }
+    return read(hexToBytes(value.toString().trim()));
+  }
+
+  @Override
+  public Shape readIfSupported(Object value) throws InvalidShapeException {
+    try {
+      if (value instanceof byte[]) {
+        return read((byte[]) value);
+      }
+      String v = value.toString().trim();
+      if (isHex(v)) {
+        return read(hexToBytes(v));
+      }
+    } catch (ParseException e) {
+    }
+    return null;
+  }
+
+  /** Reads the hexadecimal text. */
+  @Override
+  public Shape read(Reader reader) throws IOException, ParseException, InvalidShapeException {
+    StringBuilder hex = new StringBuilder();
+    char[] buffer = new char[1024];
+    int len;
+    while ((len = reader.read(buffer)) >= 0) {
+      hex.append(buffer, 0, len);
+    }
+    return read(hexToBytes(hex.toString().trim()));
+  }
+
+  public Shape read(byte[] bytes) throws ParseException, InvalidShapeException {
+    return read(bytes, 0, bytes.length);
+  }
+
+  /** Reads one geometry, which must span exactly the given bytes. */
+  public Shape read(byte[] bytes, int offset, int length) throws ParseException, InvalidShapeException {
+    Decoder in = new Decoder(bytes, offset, offset + length);
+    Shape shape = readGeometry(in);
+    if (in.pos != in.end) {
+      throw new ParseException("unexpected bytes after the geometry", in.pos);
+    }
+    return shape;
+  }
+
+  /** Whether the text is an even number of hexadecimal digits. */
+  static boolean isHex(CharSequence value) {
+    if (value.length() == 0 || value.length() % 2 != 0) {
+      return false;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      if (Character.digit(value.charAt(i), 16) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static byte[] hexToBytes(CharSequence hex) throws ParseException {
+    if (hex.length() % 2 != 0) {
+      throw new ParseException("odd number of hexadecimal digits", hex.length());
+    }
+    byte[] bytes = new byte[hex.length() / 2];
+    for (int i = 0; i < bytes.length; i++) {
+      int hi = Character.digit(hex.charAt(i * 2), 16);
+      int lo = Character.digit(hex.charAt(i * 2 + 1), 16);
+      if (hi < 0 || lo < 0) {
+        throw new ParseException("not a hexadecimal digit", i * 2);
+      }
+      bytes[i] = (byte) (hi << 4 | lo);
+    }
+    return bytes;
+  }
+
+  /** Reads a geometry, header included. */
+  protected Shape readGeometry(Decoder in) throws ParseException {
+    final int header = in.readByte();
+    final int type = header & 0x0F;
+    final int metadata = in.readByte();
+    if ((metadata & ~0x1F) != 0) {
+      throw new ParseException("unknown TWKB metadata flags: " + metadata, in.pos);
+    }
+    boolean hasZ = false, hasM = false;
+    int zPrecision = 0;
+    if ((metadata & FLAG_EXTENDED_DIMS) != 0) {
+      final int dims = in.readByte();
+      hasZ = (dims & 0x01) != 0;
+      hasM = (dims & 0x02) != 0;
+      zPrecision = (dims >> 2) & 0x07;
+    }
+    if ((metadata & FLAG_SIZE) != 0) {
+      in.readVarint();
+    }
+    if ((metadata & FLAG_BBOX) != 0) {
+      final int dims = 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+      for (int i = 0; i < dims * 2; i++) {
+        in.readVarint();
+      }
+    }
+    in.reset((int) unZigZag(header >>> 4), zPrecision, hasZ, hasM);
+    if ((metadata & FLAG_EMPTY) != 0) {
+      if (type == TYPE_POINT) {
+        return shpFactory.pointXY(Double.NaN, Double.NaN);
+      }
+      return shpFactory.multiShape(Shape.class).build();
+    }
+    final boolean hasIdList = (metadata & FLAG_IDLIST) != 0;
+    switch (type) {
+      case TYPE_POINT: {
+        in.readPosition();
+        return hasZ ? shpFactory.pointXYZ(normX(in.x), normY(in.y), shpFactory.normZ(in.z))
+            : shpFactory.pointXY(normX(in.x), normY(in.y));
+      }
+      case TYPE_LINESTRING:
+        return readPoints(in, shpFactory.lineString()).build();
+      case TYPE_BUFFERED_LINESTRING: {
+        ShapeFactory.LineStringBuilder builder = readPoints(in, shpFactory.lineString());
+        return builder.buffer(shpFactory.normDist(in.readDistance())).build();
+      }
+      case TYPE_POLYGON:
+        return readPolygon(in, null);
+      case TYPE_CIRCLE: {
+        in.readPosition();
+        return shpFactory.circle(normX(in.x), normY(in.y), shpFactory.normDist(in.readDistance()));
+      }
+      case TYPE_MULTIPOINT: {
+        final int num = readCount(in, hasIdList);
+        ShapeFactory.MultiPointBuilder builder = shpFactory.multiPoint();
+        for (int i = 0; i < num; i++) {
+          readPoint(in, builder);
+        }
+        return builder.build();
+      }
+      case TYPE_MULTILINESTRING: {
+        final int num = readCount(in, hasIdList);
+        ShapeFactory.MultiLineStringBuilder builder = shpFactory.multiLineString();
+        for (int i = 0; i < num; i++) {
+          builder.add(readPoints(in, builder.lineString()));
+        }
+        return builder.build();
+      }
+      case TYPE_MULTIPOLYGON: {
+        final int num = readCount(in, hasIdList);
+        ShapeFactory.MultiPolygonBuilder builder = shpFactory.multiPolygon();
+        for (int i = 0; i < num; i++) {
+          readPolygon(in, builder);
+        }
+        return builder.build();
+      }
+      case TYPE_COLLECTION: {
+        final int num = readCount(in, hasIdList);
+        ShapeFactory.MultiShapeBuilder<Shape> builder = shpFactory.multiShape(Shape.class);
+        for (int i = 0; i < num; i++) {
+          builder.add(readGeometry(in));
+        }
+        return builder.build();
+      }
+      default:
+        throw new ParseException("unknown TWKB type: " + type, in.pos);
+    }
+  }
+
+  /** Reads the number of parts and skips the ID list. */
+  private int readCount(Decoder in, boolean hasIdList) throws ParseException {
+    final int num = in.readCount();
+    if (hasIdList) {
+      for (int i = 0; i < num; i++) {
+        in.readVarint();
+      }
+    }
+    return num;
+  }
+
+  /**
+   * Reads the rings of a polygon.  If {@code multi} is null the polygon is returned, else it's
+   * added to it and null is returned.  A ring of 5 points as written for a Rectangle is a
+   * Rectangle, even across the dateline and without polygon support.
+   */
+  protected Shape readPolygon(Decoder in, ShapeFactory.MultiPolygonBuilder multi) throws ParseException {
+    final int numRings = in.readCount();
+    if (numRings == 0) {
+      if (multi != null) {
+        return null;
+      }
+      return shpFactory.multiShape(Shape.class).build();
+    }
+    int numPoints = in.readCount();
+    if (multi == null && numRings == 1 && numPoints == 5) {
+      double[] xy = new double[10];
+      for (int i = 0; i < 5; i++) {
+        in.readPosition();
+        xy[i * 2] = in.x;
+        xy[i * 2 + 1] = in.y;
+      }
+      //minX,minY  minX,maxY  maxX,maxY  maxX,minY  minX,minY
+      if (xy[0] == xy[2] && xy[4] == xy[6] && xy[1] == xy[7] && xy[3] == xy[5]
+          && xy[8] == xy[0] && xy[9] == xy[1] && xy[1] <= xy[3]) {
+        return shpFactory.rect(normX(xy[0]), normX(xy[4]), normY(xy[1]), normY(xy[3]));
+      }
+      ShapeFactory.PolygonBuilder builder = shpFactory.polygon();
+      for (int i = 0; i < 5; i++) {
+        builder.pointXY(normX(xy[i * 2]), normY(xy[i * 2 + 1]));
+      }
+      return builder.buildOrRect();
+    }
+    ShapeFactory.PolygonBuilder builder = multi == null ? shpFactory.polygon() : multi.polygon();
+    for (int i = 0; i < numPoints; i++) {
+      readPoint(in, builder);
+    }
+    for (int ring = 1; ring < numRings; ring++) {
+      ShapeFactory.PolygonBuilder.HoleBuilder hole = builder.hole();
+      numPoints = in.readCount();
+      for (int i = 0; i < numPoints; i++) {
+        readPoint(in, hole);
+      }
+      hole.endHole();
+    }
+    if (multi != null) {
+      multi.add(builder);
+      return null;
+    }
+    return builder.buildOrRect();
+  }
+
+  /** Reads the number of points and the points. */
+  protected <T extends ShapeFactory.PointsBuilder<?>> T readPoints(Decoder in, T builder) throws ParseException {
+    final int num = in.readCount();
+    for (int i = 0; i < num; i++) {
+      readPoint(in, builder);
+    }
+    return builder;
+  }
+
+  protected void readPoint(Decoder in, ShapeFactory.PointsBuilder<?> builder) throws ParseException {
+    in.readPosition();
+    if (in.hasZ) {
+      builder.pointXYZ(normX(in.x), normY(in.y), shpFactory.normZ(in.z));
+    } else {
+      builder.pointXY(normX(in.x), normY(in.y));
+    }
+  }
+
+  private double normX(double x) {
+    return shpFactory.normX(x);
+  }
+
+  private double normY(double y) {
+    return shpFactory.normY(y);
+  }
+
+  static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Reads varints from a byte array.  {@link #readPosition()} adds the deltas to the previous
+   * position and sets {@link #x}, {@link #y} and {@link #z}.
+   */
+  protected static class Decoder {
+    private final byte[] bytes;
+    private int pos;
+    private final int end;
+
+    private double divisor, zDivisor;
+    private boolean hasZ, hasM;
+    private long lastX, lastY, lastZ, lastM;
+
+    double x, y, z;
+
+    Decoder(byte[] bytes, int offset, int end) {
+      if (offset < 0 || end > bytes.length || offset > end)
+        throw new IndexOutOfBoundsException();
+      this.bytes = bytes;
+      this.pos = offset;
+      this.end = end;
+    }
+
+    /** Starts a geometry; the deltas start from 0. */
+    void reset(int precision, int zPrecision, boolean hasZ, boolean hasM) {
+      this.divisor = Math.pow(10, precision);
+      this.zDivisor = Math.pow(10, zPrecision);
+      this.hasZ = hasZ;
+      this.hasM = hasM;
+      lastX = lastY = lastZ = lastM = 0;
+    }
+
+    int readByte() throws ParseException {
+      if (pos >= end)
+        throw new ParseException("unexpected end of TWKB", pos);
+      return bytes[pos++] & 0xFF;
+    }
+
+    long readVarint() throws ParseException {
+      long result = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        final int b = readByte();
+        result |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0)
+          return result;
+      }
+      throw new ParseException("varint too long", pos);
+    }
+
+    /** Reads a number of elements; checked against the remaining bytes, which bounds allocations. */
+    int readCount() throws ParseException {
+      final long num = readVarint();
+      if (num > end - pos)
+        throw new ParseException("invalid count: " + num, pos);
+      return (int) num;
+    }
+
+    void readPosition() throws ParseException {
+      lastX += unZigZag(readVarint());
+      lastY += unZigZag(readVarint());
+      x = dequantize(lastX, divisor);
+      y = dequantize(lastY, divisor);
+      if (hasZ) {
+        lastZ += unZigZag(readVarint());
+        z = dequantize(lastZ, zDivisor);
+      }
+      if (hasM) {
+        lastM += unZigZag(readVarint());
+      }
+    }
+
+    double readDistance() throws ParseException {
+      return dequantize(unZigZag(readVarint()), divisor);
+    }
+
+    private static double dequantize(long value, double divisor) {
+      //dividing by an exact power of 10 gives the closest double to the decimal
+      return divisor >= 1 ? value / divisor : value * Math.rint(1 / divisor);
+    }
+  }
+}
@@ -0,0 +1,418 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.shape.Circle;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.ShapeCollection;
+import org.locationtech.spatial4j.shape.impl.BufferedLine;
+import org.locationtech.spatial4j.shape.impl.BufferedLineString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes shapes in the <a href="https://github.com/TWKB/Specification/blob/master/twkb.md">TWKB</a>
+ * (Tiny Well Known Binary) format: coordinates are rounded to a number of decimals, delta encoded
+ * from the previous one, and written as variable length integers.  The bounding box and size
+ * headers are optional.
+ * <p>
+ * TWKB is binary; {@link #toBytes(Shape)} and {@link #write(OutputStream, Shape)} write the bytes
+ * whereas the {@link ShapeWriter} methods write them in hexadecimal.
+ * A Rectangle is written as a Polygon.  A Circle and a buffered line string aren't in the spec, so
+ * they are written with the types {@link #TYPE_CIRCLE} and {@link #TYPE_BUFFERED_LINESTRING} that
+ * only {@link TWKBReader} knows of.  Points are written in 2D.
+ *
+ * @see TWKBReader
+ */
+public class TWKBWriter implements ShapeWriter {
+
+  public static final int TYPE_POINT = 1;
+  public static final int TYPE_LINESTRING = 2;
+  public static final int TYPE_POLYGON = 3;
+  public static final int TYPE_MULTIPOINT = 4;
+  public static final int TYPE_MULTILINESTRING = 5;
+  public static final int TYPE_MULTIPOLYGON = 6;
+  public static final int TYPE_COLLECTION = 7;
+  /** Spatial4j extension: a point followed by the radius. */
+  public static final int TYPE_CIRCLE = 8;
+  /** Spatial4j extension: a line string followed by the buffer distance. */
+  public static final int TYPE_BUFFERED_LINESTRING = 9;
+
+  public static final int FLAG_BBOX = 0x01;
+  public static final int FLAG_SIZE = 0x02;
+  public static final int FLAG_IDLIST = 0x04;
+  public static final int FLAG_EXTENDED_DIMS = 0x08;
+  public static final int FLAG_EMPTY = 0x10;
+
+  public static final int MIN_PRECISION = -8;
+  public static final int MAX_PRECISION = 7;
+
+  protected final int precision;
+  protected final boolean includeBbox;
+  protected final boolean includeSize;
+
+  /** Configured by {@link SpatialContextFactory#twkbDecimals}, {@code twkbBbox} and {@code twkbSize}. */
+  public TWKBWriter(SpatialContext ctx, SpatialContextFactory factory) {
+    this(ctx, factory.twkbDecimals, factory.twkbBbox, factory.twkbSize);
+  }
+
+  /**
+   * @param precision the number of decimals to round to, from -8 to 7; negative rounds to tens,
+   *                  hundreds, etc.  The Z values are rounded to between 0 and 7 decimals.
+   */
+  public TWKBWriter(SpatialContext ctx, int precision, boolean includeBbox, boolean includeSize) {
+    if (precision < MIN_PRECISION || precision > MAX_PRECISION)
+      throw new IllegalArgumentException("precision must be between " + MIN_PRECISION + " and "
+          + MAX_PRECISION + ": " + precision);
+    this.precision = precision;
+    this.includeBbox = includeBbox;
+    this.includeSize = includeSize;
+  }
+
+  @Override
+  public String getFormatName() {
+    return ShapeIO.TWKB;
+  }
+
+  public int getPrecision() {
+    return precision;
+  }
+
+  /** The TWKB bytes of the shape. */
+  public byte[] toBytes(Shape shape) {
+    return encode(shape).toByteArray();
+  }
+
+  /** Writes the TWKB bytes of the shape.  The output is neither flushed nor closed. */
+  public void write(OutputStream output, Shape shape) throws IOException {
+    encode(shape).writeTo(output);
+  }
+
+  /** Writes the TWKB bytes of the shape in hexadecimal. */
+  @Override
+  public void write(Writer output, Shape shape) throws IOException {
+    encode(shape).writeHex(output);
+  }
+
+  @Override
+  public String toString(Shape shape) {
+    try {
+      StringWriter buffer = new StringWriter();
+      write(buffer, shape);
+      return buffer.toString();
+    } catch (IOException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /** Encodes the shape, header included. */
+  protected Encoder encode(Shape shape) {
+    if (shape == null) {
+      throw new NullPointerException("Shape can not be null");
+    }
+    Encoder body = newEncoder(false);
+    int type = writeBody(body, shape);
+    return withHeader(type, body);
+  }
+
+  protected Encoder newEncoder(boolean hasZ) {
+    return new Encoder(precision, hasZ);
+  }
+
+  /**
+   * Writes the shape without a header; collection members are written with theirs.
+   *
+   * @return the TWKB type
+   */
+  protected int writeBody(Encoder enc, Shape shape) {
+    if (shape instanceof Point) {
+      Point v = (Point) shape;
+      if (!v.isEmpty()) {
+        enc.writeXY(v.getX(), v.getY());
+      }
+      return TYPE_POINT;
+    }
+    if (shape instanceof Rectangle) {
+      //the same ring as GeoJSONWriter
+      Rectangle v = (Rectangle) shape;
+      enc.writeVarint(1);
+      enc.writeVarint(5);
+      enc.writeXY(v.getMinX(), v.getMinY());
+      enc.writeXY(v.getMinX(), v.getMaxY());
+      enc.writeXY(v.getMaxX(), v.getMaxY());
+      enc.writeXY(v.getMaxX(), v.getMinY());
+      enc.writeXY(v.getMinX(), v.getMinY());
+      return TYPE_POLYGON;
+    }
+    if (shape instanceof BufferedLine) {
+      BufferedLine v = (BufferedLine) shape;
+      enc.writeVarint(2);
+      enc.writeXY(v.getA().getX(), v.getA().getY());
+      enc.writeXY(v.getB().getX(), v.getB().getY());
+      if (v.getBuf() > 0) {
+        enc.writeDistance(v.getBuf());
+        return TYPE_BUFFERED_LINESTRING;
+      }
+      return TYPE_LINESTRING;
+    }
+    if (shape instanceof BufferedLineString) {
+      BufferedLineString v = (BufferedLineString) shape;
+      List<BufferedLine> segments = v.getSegments().getShapes();
+      enc.writeVarint(segments.isEmpty() ? 0 : segments.size() + 1);
+      for (BufferedLine seg : segments) {
+        enc.writeXY(seg.getA().getX(), seg.getA().getY());
+      }
+      if (!segments.isEmpty()) {
+        BufferedLine last = segments.get(segments.size() - 1);
+        enc.writeXY(last.getB().getX(), last.getB().getY());
+      }
+      if (v.getBuf() > 0) {
+        enc.writeDistance(v.getBuf());
+        return TYPE_BUFFERED_LINESTRING;
+      }
+      return TYPE_LINESTRING;
+    }
+    if (shape instanceof Circle) {
+      Circle v = (Circle) shape;
+      enc.writeXY(v.getCenter().getX(), v.getCenter().getY());
+      enc.writeDistance(v.getRadius());
+      return TYPE_CIRCLE;
+    }
+    if (shape instanceof ShapeCollection) {
+      ShapeCollection<?> v = (ShapeCollection<?>) shape;
+      enc.writeVarint(v.size());
+      for (Shape member : v) {
+        enc.writeGeometry(encode(member));
+      }
+      return TYPE_COLLECTION;
+    }
+    throw new UnsupportedOperationException("unsupported shape: " + shape);
+  }
+
+  /**
+   * Prefixes the body with the header: the type and precision, the flags, and optionally the
+   * extended dimensions, the size and the bounding box.  Without coordinates, the geometry is
+   * written as empty.
+   */
+  protected Encoder withHeader(int type, Encoder body) {
+    Encoder out = new Encoder(body);
+    out.writeByte(type | (int) zigZag(precision) << 4);
+    if (!body.hasCoordinates()) {
+      out.writeByte(FLAG_EMPTY);
+      return out;
+    }
+    out.writeByte((includeBbox ? FLAG_BBOX : 0) | (includeSize ? FLAG_SIZE : 0)
+        | (body.hasZ ? FLAG_EXTENDED_DIMS : 0));
+    if (body.hasZ) {
+      out.writeByte(0x01 | body.zPrecision << 2);
+    }
+    Encoder bbox = new Encoder(body);
+    if (includeBbox) {
+      bbox.writeSigned(body.minX);
+      bbox.writeSigned(body.maxX - body.minX);
+      bbox.writeSigned(body.minY);
+      bbox.writeSigned(body.maxY - body.minY);
+      if (body.hasZ) {
+        bbox.writeSigned(body.minZ);
+        bbox.writeSigned(body.maxZ - body.minZ);
+      }
+    }
+    if (includeSize) {
+      out.writeVarint(bbox.length + body.length);
+    }
+    out.writeBytes(bbox);
+    out.writeBytes(body);
+    return out;
+  }
+
+  static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  /**
+   * Accumulates the bytes of a geometry.  Each coordinate is written as the difference to the
+   * previous one, and the extent of the coordinates is tracked for the bounding box.
+   */
+  public static class Encoder {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    final int precision;
+    final int zPrecision;
+    final boolean hasZ;
+    private final double scale;
+    private final double zScale;
+
+    private byte[] bytes = new byte[32];
+    int length;
+
+    private long lastX, lastY, lastZ;
+    long minX = Long.MAX_VALUE, maxX = Long.MIN_VALUE;
+    long minY = Long.MAX_VALUE, maxY = Long.MIN_VALUE;
+    long minZ = Long.MAX_VALUE, maxZ = Long.MIN_VALUE;
+
+    public Encoder(int precision, boolean hasZ) {
+      this.precision = precision;
+      this.zPrecision = Math.max(0, precision);
+      this.hasZ = hasZ;
+      this.scale = Math.pow(10, precision);
+      this.zScale = Math.pow(10, zPrecision);
+    }
+
+    /** An encoder with the same settings, e.g. for a header. */
+    Encoder(Encoder other) {
+      this(other.precision, other.hasZ);
+      minX = other.minX; maxX = other.maxX;
+      minY = other.minY; maxY = other.maxY;
+      minZ = other.minZ; maxZ = other.maxZ;
+    }
+
+    public void writeXY(double x, double y) {
+      if (hasZ) {
+        writeXYZ(x, y, 0);
+        return;
+      }
+      final long qx = quantize(x, scale);
+      final long qy = quantize(y, scale);
+      writeSigned(qx - lastX);
+      writeSigned(qy - lastY);
+      lastX = qx;
+      lastY = qy;
+      expand(qx, qy);
+    }
+
+    /** Writes the Z too if the encoder {@code hasZ}, else ignores it. */
+    public void writeXYZ(double x, double y, double z) {
+      if (!hasZ) {
+        writeXY(x, y);
+        return;
+      }
+      final long qx = quantize(x, scale);
+      final long qy = quantize(y, scale);
+      final long qz = quantize(z, zScale);
+      writeSigned(qx - lastX);
+      writeSigned(qy - lastY);
+      writeSigned(qz - lastZ);
+      lastX = qx;
+      lastY = qy;
+      lastZ = qz;
+      expand(qx, qy);
+      if (qz < minZ) minZ = qz;
+      if (qz > maxZ) maxZ = qz;
+    }
+
+    private void expand(long qx, long qy) {
+      if (qx < minX) minX = qx;
+      if (qx > maxX) maxX = qx;
+      if (qy < minY) minY = qy;
+      if (qy > maxY) maxY = qy;
+    }
+
+    /** Writes a distance (not delta encoded) with the precision of X and Y. */
+    public void writeDistance(double distance) {
+      writeSigned(quantize(distance, scale));
+    }
+
+    /**
+     * Rounds the value times the scale; NaN is 0.
+     *
+     * @throws IllegalArgumentException if it doesn't fit in a long, rather than saturating.
+     */
+    private static long quantize(double value, double scale) {
+      final double scaled = value * scale;
+      if (Double.isNaN(scaled))
+        return 0;
+      if (!(Math.abs(scaled) < Long.MAX_VALUE))
+        throw new IllegalArgumentException("Value " + value + " is out of range for the TWKB precision");
+      return Math.round(scaled);
+    }
+
+    /** Appends a geometry with its header, as a collection member; its extent is included. */
+    public void writeGeometry(Encoder geometry) {
+      writeBytes(geometry);
+      if (geometry.hasCoordinates()) {
+        expand(geometry.minX, geometry.minY);
+        expand(geometry.maxX, geometry.maxY);
+        minZ = Math.min(minZ, geometry.minZ);
+        maxZ = Math.max(maxZ, geometry.maxZ);
+      }
+    }
+
+    public boolean hasCoordinates() {
+      return minX <= maxX;
+    }
+
+    public void writeSigned(long value) {
+      writeVarint(zigZag(value));
+    }
+
+    /** Writes an unsigned varint: 7 bits per byte, least significant first. */
+    public void writeVarint(long value) {
+      ensureCapacity(10);
+      while ((value & ~0x7FL) != 0) {
+        bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[length++] = (byte) value;
+    }
+
+    void writeByte(int value) {
+      ensureCapacity(1);
+      bytes[length++] = (byte) value;
+    }
+
+    void writeBytes(Encoder other) {
+      ensureCapacity(other.length);
+      System.arraycopy(other.bytes, 0, bytes, length, other.length);
+      length += other.length;
+    }
+
+    private void ensureCapacity(int extra) {
+      if (length + extra > bytes.length) {
+        byte[] newBytes = new byte[Math.max(length + extra, bytes.length * 2)];
+        System.arraycopy(bytes, 0, newBytes, 0, length);
+        bytes = newBytes;
+      }
+    }
+
+    public int size() {
+      return length;
+    }
+
+    public byte[] toByteArray() {
+      byte[] result = new byte[length];
+      System.arraycopy(bytes, 0, result, 0, length);
+      return result;
+    }
+
+    public void writeTo(OutputStream output) throws IOException {
+      output.write(bytes, 0, length);
+    }
+
+    public void writeHex(Writer output) throws IOException {
+      char[] chars = new char[Math.min(length, 512) * 2];
+      for (int start = 0; start < length; start += chars.length / 2) {
+        final int end = Math.min(length, start + chars.length / 2);
+        int c = 0;
+        for (int i = start; i < end; i++) {
+          chars[c++] = HEX[(bytes[i] >> 4) & 0xF];
+          chars[c++] = HEX[bytes[i] & 0xF];
+        }
+        output.write(chars, 0, c);
+      }
+    }
+  }
+}
@@ -20,6 +20,7 @@ import org.locationtech.spatial4j.shape.ShapeFactory;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.CharBuffer;
 import java.text.ParseException;
 
 /**
@@ -46,6 +47,10 @@ import java.text.ParseException;
  * <p>
  * Most users of this class will call just one method: {@link #parse(String)}, or
  * {@link #parseIfSupported(String)} to not fail if it isn't parse-able.
+ * With {@link SpatialContextFactory#wktStreaming}, {@link #read(Reader)} parses as it reads, through
+ * a bounded buffer, without reading the whole input into a String first; that's useful for huge
+ * shapes.  {@link #read(Object)} then parses other CharSequences than Strings in place.  Streamed
+ * input doesn't go through {@link #newState(String)}, and {@link State#rawString} is null.
  *
  * <p>
  * To support more shapes, extend this class and override
@@ -58,6 +63,7 @@ import java.text.ParseException;
 public class WKTReader implements ShapeReader {
   protected final SpatialContext ctx;
   protected final ShapeFactory shapeFactory;
+  protected final boolean streaming;//see SpatialContextFactory.wktStreaming
 
   // TODO support SRID: "SRID=4326;POINT(1,2)
 
@@ -68,6 +74,7 @@ public class WKTReader implements ShapeReader {
   public WKTReader(SpatialContext ctx, SpatialContextFactory factory) {
     this.ctx = ctx;
     this.shapeFactory = ctx.getShapeFactory();
+    this.streaming = factory.wktStreaming;
   }
 
 
@@ -97,18 +104,25 @@ public class WKTReader implements ShapeReader {
    * @throws ParseException Thrown if there is an error in the Shape definition
    */
   public Shape parseIfSupported(String wktString) throws ParseException, InvalidShapeException {
-    State state = newState(wktString);
+    return parseIfSupported(newState(wktString));
+  }
+
+  /**
+   * Parses the WKT from the state's input, returning the defined Shape, or null as described in
+   * {@link #parseIfSupported(String)}.
+   */
+  protected Shape parseIfSupported(State state) throws ParseException, InvalidShapeException {
     state.nextIfWhitespace();// leading
     if (state.eof())
       return null;
     // shape types must start with a letter
-    if (!Character.isLetter(state.rawString.charAt(state.offset)))
+    if (!Character.isLetter(state.charAt(state.offset)))
       return null;
     String shapeType = state.nextWord();
     Shape result = null;
     try {
       result = parseShapeByType(state, shapeType);
-    } catch (ParseException | InvalidShapeException e) {
+    } catch (ParseException | InvalidShapeException | ReaderException e) {
       throw e;
     } catch (IllegalArgumentException e) { // NOTE: JTS Throws IAE for bad WKT
       throw new InvalidShapeException(e.getMessage(), e);
@@ -133,6 +147,26 @@ public class WKTReader implements ShapeReader {
     return new State(wktString);
   }
 
+  /**
+   * (internal) Creates a new State reading from the given chars without copying them.  Strings
+   * are given to {@link #newState(String)}.  It's only called when streaming; see
+   * {@link SpatialContextFactory#wktStreaming}.
+   */
+  protected State newState(CharSequence chars) {
+    if (chars instanceof String)
+      return newState((String) chars);
+    return new State(chars);
+  }
+
+  /**
+   * (internal) Creates a new State that reads from the reader as it parses, with a buffer of
+   * {@link State#DEFAULT_BUFFER_SIZE}.  It's only called when streaming; see
+   * {@link SpatialContextFactory#wktStreaming}.
+   */
+  protected State newState(Reader reader) {
+    return new State(reader, State.DEFAULT_BUFFER_SIZE);
+  }
+
   /**
    * (internal) Parses the remainder of a shape definition following the shape's name given as
    * {@code shapeType} already consumed via {@link State#nextWord()}. If it's able to parse the
@@ -421,15 +455,100 @@ public class WKTReader implements ShapeReader {
 
   /** The parse state. */
   public class State {
-    /** Set in {@link #parseIfSupported(String)}. */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * Set in {@link #parseIfSupported(String)}; null if the input isn't a String, which is only
+     * when streaming (see {@link SpatialContextFactory#wktStreaming}).  Subclasses should prefer
+     * {@link #charAt(int)} and {@link #substring(int, int)} which always work.
+     */
     public String rawString;
-    /** Offset of the next char in {@link #rawString} to be read. */
+    /** Offset of the next char in the input to be read. */
     public int offset;
     /** Dimensionality specifier (e.g. 'Z', or 'M') following a shape type name. */
     public String dimension;
 
+    private final CharSequence chars;//the input, unless reading from a Reader
+    //when reading from a Reader, buffer holds the input from offset bufferStart (absolute) to bufferEnd
+    private final Reader reader;
+    private char[] buffer;
+    private CharBuffer bufferChars;//wraps buffer
+    private int bufferStart, bufferEnd;
+    private int mark = -1;//if >= 0, the start of the token being read; retained in the buffer
+
     public State(String rawString) {
       this.rawString = rawString;
+      this.chars = rawString;
+      this.reader = null;
+    }
+
+    /** Parses the chars without copying them. */
+    public State(CharSequence chars) {
+      this.rawString = chars instanceof String ? (String) chars : null;
+      this.chars = chars;
+      this.reader = null;
+    }
+
+    /**
+     * Parses from the reader as it reads.  Only about {@code bufferSize} chars are buffered; the
+     * buffer grows only to hold a longer token or {@link #nextSubShapeString()}.
+     */
+    public State(Reader reader, int bufferSize) {
+      this.chars = null;
+      this.reader = reader;
+      this.buffer = new char[Math.max(bufferSize, 16)];
+      this.bufferChars = CharBuffer.wrap(buffer);
+    }
+
+    /**
+     * Returns true if there's a char at the given offset, which must not be before {@link #offset}
+     * nor the start of the token being read.
+     */
+    protected final boolean hasChar(int pos) {
+      if (reader == null)
+        return pos < chars.length();
+      return pos < bufferEnd || fill(pos);
+    }
+
+    /** The char at the given offset; {@link #hasChar(int)} must have returned true for it. */
+    public final char charAt(int pos) {
+      if (reader == null)
+        return chars.charAt(pos);
+      return buffer[pos - bufferStart];
+    }
+
+    /** The chars from start to end (exclusive), which must be available. */
+    public String substring(int start, int end) {
+      if (reader == null)
+        return chars.subSequence(start, end).toString();
+      return new String(buffer, start - bufferStart, end - start);
+    }
+
+    /** Reads from the reader until pos is buffered, or EOF. */
+    private boolean fill(int pos) {
+      //discard what's before the offset and the token start
+      final int keepFrom = mark >= 0 ? Math.min(mark, offset) : offset;
+      final int keepLen = bufferEnd - keepFrom;
+      if (keepFrom > bufferStart) {
+        System.arraycopy(buffer, keepFrom - bufferStart, buffer, 0, keepLen);
+        bufferStart = keepFrom;
+      }
+      try {
+        while (bufferEnd <= pos) {
+          int len = bufferEnd - bufferStart;
+          if (len == buffer.length) {//a long token
+            buffer = java.util.Arrays.copyOf(buffer, buffer.length * 2);
+            bufferChars = CharBuffer.wrap(buffer);
+          }
+          int numRead = reader.read(buffer, len, buffer.length - len);
+          if (numRead < 0)
+            return false;
+          bufferEnd += numRead;
+        }
+      } catch (IOException e) {
+        throw new ReaderException(e);
+      }
+      return true;
     }
 
     public SpatialContext getCtx() {
@@ -449,13 +568,14 @@ public class WKTReader implements ShapeReader {
      */
     public String nextWord() throws ParseException {
       int startOffset = offset;
-      while (offset < rawString.length()
-          && Character.isJavaIdentifierPart(rawString.charAt(offset))) {
+      mark = startOffset;
+      while (hasChar(offset) && Character.isJavaIdentifierPart(charAt(offset))) {
         offset++;
       }
+      mark = -1;
       if (startOffset == offset)
         throw new ParseException("Word expected", startOffset);
-      String result = rawString.substring(startOffset, offset);
+      String result = substring(startOffset, offset);
       nextIfWhitespace();
       return result;
     }
@@ -473,7 +593,7 @@ public class WKTReader implements ShapeReader {
     public boolean nextIfEmptyAndSkipZM() throws ParseException {
       if (eof())
         return false;
-      char c = rawString.charAt(offset);
+      char c = charAt(offset);
       if (c == '(' || !Character.isJavaIdentifierPart(c))
         return false;
       String word = nextWord();
@@ -484,7 +604,7 @@ public class WKTReader implements ShapeReader {
 
       if (eof())
         return false;
-      c = rawString.charAt(offset);
+      c = charAt(offset);
       if (c == '(' || !Character.isJavaIdentifierPart(c))
         return false;
       word = nextWord();
@@ -497,19 +617,25 @@ public class WKTReader implements ShapeReader {
     /**
      * Reads in a double from the String. Parses digits with an optional decimal, sign, or exponent.
      * NaN and Infinity are not supported. {@link #offset} is advanced past whitespace.
+     * Typical numbers are parsed without creating a String.
      *
      * @return Double value
      */
     public double nextDouble() throws ParseException {
       int startOffset = offset;
+      mark = startOffset;
       skipDouble();
+      mark = -1;
       if (startOffset == offset)
         throw new ParseException("Expected a number", offset);
-      double result;
-      try {
-        result = Double.parseDouble(rawString.substring(startOffset, offset));
-      } catch (Exception e) {
-        throw new ParseException(e.toString(), offset);
+      double result = reader == null ? DoubleParser.parse(chars, startOffset, offset)
+          : DoubleParser.parse(bufferChars, startOffset - bufferStart, offset - bufferStart);
+      if (Double.isNaN(result)) {//not handled; let the JDK do it
+        try {
+          result = Double.parseDouble(substring(startOffset, offset));
+        } catch (Exception e) {
+          throw new ParseException(e.toString(), offset);
+        }
       }
       nextIfWhitespace();
       return result;
@@ -518,8 +644,8 @@ public class WKTReader implements ShapeReader {
     /** Advances offset forward until it points to a character that isn't part of a number. */
     public void skipDouble() {
       int startOffset = offset;
-      for (; offset < rawString.length(); offset++) {
-        char c = rawString.charAt(offset);
+      for (; hasChar(offset); offset++) {
+        char c = charAt(offset);
         if (!(Character.isDigit(c) || c == '.' || c == '-' || c == '+')) {
           // 'e' is okay as long as it isn't first
           if (offset != startOffset && (c == 'e' || c == 'E'))
@@ -549,7 +675,7 @@ public class WKTReader implements ShapeReader {
     public void nextExpect(char expected) throws ParseException {
       if (eof())
         throw new ParseException("Expected [" + expected + "] found EOF", offset);
-      char c = rawString.charAt(offset);
+      char c = charAt(offset);
       if (c != expected)
         throw new ParseException("Expected [" + expected + "] found [" + c + "]", offset);
       offset++;
@@ -558,7 +684,7 @@ public class WKTReader implements ShapeReader {
 
     /** If the string is consumed, i.e. at end-of-file. */
     public final boolean eof() {
-      return offset >= rawString.length();
+      return !hasChar(offset);
     }
 
     /**
@@ -569,7 +695,7 @@ public class WKTReader implements ShapeReader {
      * @return true if consumed
      */
     public boolean nextIf(char expected) {
-      if (!eof() && rawString.charAt(offset) == expected) {
+      if (!eof() && charAt(offset) == expected) {
         offset++;
         nextIfWhitespace();
         return true;
@@ -583,8 +709,8 @@ public class WKTReader implements ShapeReader {
      * most other parsing methods call it.</em>
      */
     public void nextIfWhitespace() {
-      for (; offset < rawString.length(); offset++) {
-        if (!Character.isWhitespace(rawString.charAt(offset))) {
+      for (; hasChar(offset); offset++) {
+        if (!Character.isWhitespace(charAt(offset))) {
           return;
         }
       }
@@ -612,9 +738,10 @@ public class WKTReader implements ShapeReader {
      */
     public String nextSubShapeString() throws ParseException {
       int startOffset = offset;
+      mark = startOffset;
       int parenStack = 0;// how many parenthesis levels are we in?
-      for (; offset < rawString.length(); offset++) {
-        char c = rawString.charAt(offset);
+      for (; hasChar(offset); offset++) {
+        char c = charAt(offset);
         if (c == ',') {
           if (parenStack == 0)
             break;
@@ -626,9 +753,10 @@ public class WKTReader implements ShapeReader {
           parenStack++;
         }
       }
+      mark = -1;
       if (parenStack != 0)
         throw new ParseException("Unbalanced parenthesis", startOffset);
-      return rawString.substring(startOffset, offset);
+      return substring(startOffset, offset);
     }
 
   }// class State
@@ -648,16 +776,43 @@ public class WKTReader implements ShapeReader {
     return buffer.toString();
   }
 
+  /**
+   * Reads the input into a String and parses it, or if streaming, parses as it reads; see
+   * {@link State#State(Reader, int)}.
+   */
   @Override
   public Shape read(Reader reader) throws IOException, ParseException {
-    return parse(readString(reader));
+    if (!streaming)
+      return parse(readString(reader));
+    Shape shape;
+    try {
+      shape = parseIfSupported(newState(reader));
+    } catch (ReaderException e) {
+      throw (IOException) e.getCause();
+    }
+    if (shape == null)
+      throw new ParseException("Unknown Shape definition", 0);
+    return shape;
   }
 
   @Override
   public Shape read(Object value) throws IOException, ParseException, InvalidShapeException {
+    if (streaming && value instanceof CharSequence && !(value instanceof String)) {
+      Shape shape = parseIfSupported(newState((CharSequence) value));
+      if (shape == null)
+        throw new ParseException("Unknown Shape definition", 0);
+      return shape;
+    }
     return parse(value.toString());
   }
 
+  /** Wraps an IOException from a Reader through the parsing methods, which don't declare it. */
+  private static class ReaderException extends RuntimeException {
+    ReaderException(IOException cause) {
+      super(cause);
+    }
+  }
+
   @Override
   public Shape readIfSupported(Object value) throws InvalidShapeException {
     try {
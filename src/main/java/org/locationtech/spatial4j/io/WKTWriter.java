@@ -9,125 +9,203 @@
 package org.locationtech.spatial4j.io;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.math.RoundingMode;
 import java.text.NumberFormat;
 import java.util.Iterator;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
 import org.locationtech.spatial4j.shape.*;
 import org.locationtech.spatial4j.shape.impl.BufferedLine;
 import org.locationtech.spatial4j.shape.impl.BufferedLineString;
 
 public class WKTWriter implements ShapeWriter {
 
+  protected final int decimals;
+  //whether a subclass overrides these, which the streaming path then calls
+  private final boolean overridesAppend = overrides(getClass(), "append", StringBuilder.class, Point.class, NumberFormat.class);
+  private final boolean overridesToString = overrides(getClass(), "toString", Shape.class);
+
+  public WKTWriter() {
+    this.decimals = 6;
+  }
+
+  public WKTWriter(SpatialContext ctx, SpatialContextFactory factory) {
+    this.decimals = factory.writerDecimals;
+  }
+
+  private static boolean overrides(Class<?> clazz, String name, Class<?>... parameterTypes) {
+    for (Class<?> c = clazz; c != WKTWriter.class; c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod(name, parameterTypes);
+        return true;
+      } catch (NoSuchMethodException e) {
+        //check the superclass
+      }
+    }
+    return false;
+  }
+
   @Override
   public String getFormatName() {
     return ShapeIO.WKT;
   }
 
 
+  /**
+   * Appends the point's coordinates.
+   *
+   * @deprecated override {@link #write(Writer, Point, NumberFormat)} instead; overriding this is
+   * still honoured, but then each point is formatted into a new StringBuilder.
+   */
+  @Deprecated
   protected StringBuilder append(StringBuilder buffer, Point p, NumberFormat nf) {
-    return buffer.append(nf.format(p.getX())).append(' ').append( nf.format(p.getY()));
+    FastDecimalFormat.append(buffer, nf, p.getX()).append(' ');
+    return FastDecimalFormat.append(buffer, nf, p.getY());
+  }
+
+  /** Writes the point's coordinates. */
+  protected void write(Writer output, Point p, NumberFormat nf) throws IOException {
+    if (overridesAppend) {
+      output.append(append(new StringBuilder(), p, nf));
+      return;
+    }
+    FastDecimalFormat.write(output, nf, p.getX());
+    output.write(' ');
+    FastDecimalFormat.write(output, nf, p.getY());
   }
 
   protected NumberFormat getNumberFormat() {
-    return LegacyShapeWriter.makeNumberFormat(6);
+    return LegacyShapeWriter.makeNumberFormat(decimals);
   }
 
   @Override
   public String toString(Shape shape) {
-    NumberFormat nf = getNumberFormat();
+    if (shape == null) {
+      throw new NullPointerException("Shape can not be null");
+    }
+    try {
+      StringWriter buffer = new StringWriter();
+      write(buffer, shape, getNumberFormat());
+      return buffer.toString();
+    } catch (IOException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /** Streams the shape to the output, unless a subclass overrides {@link #toString(Shape)}. */
+  @Override
+  public void write(Writer output, Shape shape) throws IOException {
+    if (shape == null) {
+      throw new NullPointerException("Shape can not be null");
+    }
+    if (overridesToString) {
+      output.write(toString(shape));
+      return;
+    }
+    write(output, shape, getNumberFormat());
+  }
+
+  /**
+   * Writes the shape, and is called for each shape of a collection (through
+   * {@link #toString(Shape)} if a subclass overrides it).
+   */
+  protected void write(Writer output, Shape shape, NumberFormat nf) throws IOException {
     if (shape instanceof Point) {
       Point point = (Point)shape;
       if (point.isEmpty()) {
-        return "POINT EMPTY";
+        output.write("POINT EMPTY");
+        return;
       }
-
-      StringBuilder buffer = new StringBuilder();
-      return append(buffer.append("POINT ("), point, nf).append(")").toString();
+      output.write("POINT (");
+      write(output, point, nf);
+      output.write(')');
+      return;
     }
     if (shape instanceof Rectangle) {
-      NumberFormat nfMIN = nf;
-      NumberFormat nfMAX = LegacyShapeWriter.makeNumberFormat(6);
+      //round outwards so that it contains the shape
+      NumberFormat nfMIN = getNumberFormat();
+      NumberFormat nfMAX = getNumberFormat();
 
       nfMIN.setRoundingMode( RoundingMode.FLOOR );
       nfMAX.setRoundingMode( RoundingMode.CEILING );
-      
+
       Rectangle rect = (Rectangle)shape;
-      return "ENVELOPE (" +
-          // '(' x1 ',' x2 ',' y2 ',' y1 ')'
-        nfMIN.format(rect.getMinX()) + ", " + nfMAX.format(rect.getMaxX()) + ", "+
-        nfMAX.format(rect.getMaxY()) + ", " + nfMIN.format(rect.getMinY()) + ")";
-//      
-//      return "POLYGON(( "+
-//         nf.format(rect.getMinX()) + " " + nf.format(rect.getMinY()) + ", "+
-//         nf.format(rect.getMinX()) + " " + nf.format(rect.getMaxY()) + ", "+
-//         nf.format(rect.getMaxX()) + " " + nf.format(rect.getMaxY()) + ", "+
-//         nf.format(rect.getMaxX()) + " " + nf.format(rect.getMinY()) + ", "+
-//         nf.format(rect.getMinX()) + " " + nf.format(rect.getMinY()) + "))";
+      // '(' x1 ',' x2 ',' y2 ',' y1 ')'
+      output.write("ENVELOPE (");
+      FastDecimalFormat.write(output, nfMIN, rect.getMinX());
+      output.write(", ");
+      FastDecimalFormat.write(output, nfMAX, rect.getMaxX());
+      output.write(", ");
+      FastDecimalFormat.write(output, nfMAX, rect.getMaxY());
+      output.write(", ");
+      FastDecimalFormat.write(output, nfMIN, rect.getMinY());
+      output.write(')');
+      return;
     }
     if (shape instanceof Circle) {
       Circle c = (Circle) shape;
-
-      StringBuilder str = new StringBuilder();
-      str.append("BUFFER (POINT (")
-        .append(nf.format(c.getCenter().getX())).append(" ")
-        .append(nf.format(c.getCenter().getY()))
-        .append("), ")
-        .append(nf.format(c.getRadius()))
-        .append(")");
-      return str.toString();
+      output.write("BUFFER (POINT (");
+      write(output, c.getCenter(), nf);
+      output.write("), ");
+      FastDecimalFormat.write(output, nf, c.getRadius());
+      output.write(')');
+      return;
     }
     if (shape instanceof BufferedLineString) {
       BufferedLineString line = (BufferedLineString) shape;
-      StringBuilder str = new StringBuilder();
 
       double buf = line.getBuf();
       if (buf > 0d) {
-        str.append("BUFFER (");
+        output.write("BUFFER (");
       }
 
-      str.append("LINESTRING (");
+      output.write("LINESTRING (");
       Iterator<BufferedLine> iter = line.getSegments().iterator();
       while(iter.hasNext()) {
         BufferedLine seg = iter.next();
-        append(str,seg.getA(),nf).append(", ");
+        write(output, seg.getA(), nf);
+        output.write(", ");
         if(!iter.hasNext()) {
-          append(str,seg.getB(),nf);
+          write(output, seg.getB(), nf);
         }
       }
-      str.append(")");
+      output.write(')');
 
       if (buf > 0d) {
-        str.append(", ").append(nf.format(buf)).append(")");
+        output.write(", ");
+        FastDecimalFormat.write(output, nf, buf);
+        output.write(')');
       }
-      return str.toString();
+      return;
     }
     if(shape instanceof ShapeCollection) {
       @SuppressWarnings("unchecked")
       ShapeCollection<? extends Shape> collection = (ShapeCollection<? extends Shape>) shape;
 
       if (collection.isEmpty()) {
-        return "GEOMETRYCOLLECTION EMPTY";
+        output.write("GEOMETRYCOLLECTION EMPTY");
+        return;
       }
 
-      StringBuilder buffer = new StringBuilder();
-      buffer.append("GEOMETRYCOLLECTION (");
+      output.write("GEOMETRYCOLLECTION (");
       boolean first = true;
       for (Shape sub : collection.getShapes()) {
         if(!first) {
-          buffer.append(",");
+          output.write(',');
+        }
+        if (overridesToString) {
+          output.write(toString(sub));
+        } else {
+          write(output, sub, nf);
         }
-        buffer.append(toString(sub));
         first = false;
       }
-      buffer.append(")");
-      return buffer.toString();
+      output.write(')');
+      return;
     }
-    return LegacyShapeWriter.writeShape(shape, nf);
-  }
-  
-  @Override
-  public void write(Writer output, Shape shape) throws IOException {
-    output.append( toString(shape) );
+    output.write(LegacyShapeWriter.writeShape(shape, nf));
   }
-}
\ No newline at end of file
+}
@@ -31,32 +31,34 @@ public class GeometryAsGeoJSONSerializer extends JsonSerializer<Geometry>
   // --------------------------------------------------------------
 
   protected void write(JsonGenerator gen, Coordinate coord) throws IOException {
-    gen.writeStartArray();
+    gen.writeStartArray(2);
     gen.writeNumber(coord.x);
     gen.writeNumber(coord.y);
     gen.writeEndArray();
   }
 
   protected void write(JsonGenerator gen, CoordinateSequence coordseq) throws IOException {
-    gen.writeStartArray();
-    int dim = coordseq.getDimension();
-    for (int i = 0; i < coordseq.size(); i++) {
-      gen.writeStartArray();
-      gen.writeNumber(coordseq.getOrdinate(i, 0));
-      gen.writeNumber(coordseq.getOrdinate(i, 1));
+    final int size = coordseq.size();
+    gen.writeStartArray(size);
+    final int dim = Math.min(coordseq.getDimension(), 3);
+    final double[] position = new double[3];
+    for (int i = 0; i < size; i++) {
+      position[0] = coordseq.getOrdinate(i, 0);
+      position[1] = coordseq.getOrdinate(i, 1);
+      int length = 2;
       if (dim > 2) {
-        double v = coordseq.getOrdinate(i, 2);
-        if (!Double.isNaN(v)) {
-          gen.writeNumber(v);
+        position[2] = coordseq.getOrdinate(i, 2);
+        if (!Double.isNaN(position[2])) {
+          length = 3;
         }
       }
-      gen.writeEndArray();
+      ShapeAsGeoJSONSerializer.writeArray(gen, position, 0, length);
     }
     gen.writeEndArray();
   }
 
   protected void write(JsonGenerator gen, Coordinate[] coord) throws IOException {
-    gen.writeStartArray();
+    gen.writeStartArray(coord.length);
     for (int i = 0; i < coord.length; i++) {
       write(gen, coord[i]);
     }
@@ -94,14 +96,17 @@ public class GeometryAsGeoJSONSerializer extends JsonSerializer<Geometry>
     } else if (geom instanceof MultiPoint) {
       MultiPoint v = (MultiPoint) geom;
       gen.writeFieldName("coordinates");
-      write(gen, v.getCoordinates());
-      return;
+      gen.writeStartArray(v.getNumGeometries());
+      for (int i = 0; i < v.getNumGeometries(); i++) {
+        write(gen, v.getGeometryN(i).getCoordinate());
+      }
+      gen.writeEndArray();
     } else if (geom instanceof MultiLineString) {
       MultiLineString v = (MultiLineString) geom;
       gen.writeFieldName("coordinates");
       gen.writeStartArray();
       for (int i = 0; i < v.getNumGeometries(); i++) {
-        write(gen, v.getGeometryN(i).getCoordinates());
+        write(gen, ((LineString) v.getGeometryN(i)).getCoordinateSequence());
       }
       gen.writeEndArray();
     } else if (geom instanceof MultiPolygon) {
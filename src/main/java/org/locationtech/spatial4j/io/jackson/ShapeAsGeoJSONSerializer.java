@@ -36,12 +36,21 @@ public class ShapeAsGeoJSONSerializer extends JsonSerializer<Shape>
   
 
   protected void write(JsonGenerator gen, double... coords) throws IOException {
-    gen.writeStartArray();
-    for (double coord : coords) {
-      if (Double.isNaN(coord)) {
-        break; // empty
-      }
-      gen.writeNumber(coord);
+    int length = 0;
+    while (length < coords.length && !Double.isNaN(coords[length])) {
+      length++; // NaN means empty or no more coordinates
+    }
+    writeArray(gen, coords, 0, length);
+  }
+
+  /**
+   * Writes the values as a JSON array; the same as {@code JsonGenerator.writeArray(double[], int,
+   * int)} that Jackson 2.8 added, which this should delegate to once that's the minimum version.
+   */
+  public static void writeArray(JsonGenerator gen, double[] array, int offset, int length) throws IOException {
+    gen.writeStartArray(length);
+    for (int i = offset, end = offset + length; i < end; i++) {
+      gen.writeNumber(array[i]);
     }
     gen.writeEndArray();
   }
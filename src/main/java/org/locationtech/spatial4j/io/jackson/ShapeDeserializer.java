@@ -9,9 +9,13 @@
 package org.locationtech.spatial4j.io.jackson;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
 import org.locationtech.spatial4j.distance.DistanceUtils;
+import org.locationtech.spatial4j.io.OnePointsBuilder;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Shape;
 import org.locationtech.spatial4j.shape.ShapeFactory;
@@ -24,7 +28,14 @@ import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
+/**
+ * Reads GeoJSON geometries straight from the {@link JsonParser}'s tokens into the
+ * {@link ShapeFactory} builders, without a JsonNode tree.  The members of the object may come in
+ * any order, although "coordinates" before "type" means buffering the coordinate tokens.
+ * A scalar value is read in any of the context's formats, e.g. WKT.
+ */
 public class ShapeDeserializer extends JsonDeserializer<Shape>
 {
   public final SpatialContext ctx;
@@ -44,171 +55,226 @@ public class ShapeDeserializer extends JsonDeserializer<Shape>
     double x = arr.get(0).asDouble();
     double y = arr.get(1).asDouble();
     if(arr.size()==3) {
-      double z = arr.get(3).asDouble();
+      double z = arr.get(2).asDouble();
       return factory.pointXYZ(x, y, z);
     }
     return factory.pointXY(x, y);
   }
-  
-  private void fillPoints( ShapeFactory.PointsBuilder b, ArrayNode arrs ) {
-    for(int i=0; i<arrs.size(); i++) {
-      ArrayNode arr = (ArrayNode)arrs.get(i);
-      
-      double x = arr.get(0).asDouble();
-      double y = arr.get(1).asDouble();
-      if(arr.size()==3) {
-        double z = arr.get(3).asDouble();
-        b.pointXYZ(x, y, z);
-      }
-      else {
-        b.pointXY(x, y);
-      }
-    }
+
+  /** Reads the object; see {@link #read(JsonParser, ShapeFactory)}. */
+  public Shape read(ObjectNode node, ShapeFactory factory) throws IOException {
+    JsonParser jp = node.traverse();
+    jp.nextToken();
+    return read(jp, factory);
   }
-  
-  private void fillPolygon(ShapeFactory.PolygonBuilder b, ArrayNode arr ) {
-    ArrayNode coords = (ArrayNode)arr.get(0);
-    for(int i=0; i<coords.size(); i++) {
-      ArrayNode n = (ArrayNode)coords.get(i);
-      double x = n.get(0).asDouble();
-      double y = n.get(1).asDouble();
-      if(n.size()==3) {
-        double z = n.get(2).asDouble();
-        b.pointXYZ(x, y, z);
-      }
-      else {
-        b.pointXY(x, y);
-      }
+
+  /**
+   * Reads a GeoJSON geometry object; the current token must be its START_OBJECT.  Returns with
+   * the matching END_OBJECT as the current token.
+   */
+  public Shape read(JsonParser jp, ShapeFactory factory) throws IOException {
+    if(jp.getCurrentToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException(jp, "Expect the start of GeoJSON Geometry object");
     }
-    
-    // Now add the holes
-    for(int h=1; h<arr.size(); h++) {
-      ShapeFactory.PolygonBuilder.HoleBuilder hole = b.hole();
-      coords = (ArrayNode)arr.get(h);
-      for(int i=0; i<coords.size(); i++) {
-        ArrayNode n = (ArrayNode)coords.get(i);
-        double x = n.get(0).asDouble();
-        double y = n.get(1).asDouble();
-        if(n.size()==3) {
-          double z = n.get(2).asDouble();
-          hole.pointXYZ(x, y, z);
-        }
-        else {
-          hole.pointXY(x, y);
-        }
+
+    String type = null;
+    Object coordinates = null;//what readCoordinates returns
+    TokenBuffer pendingCoordinates = null;//when before the type
+    ShapeFactory.MultiShapeBuilder<Shape> geometries = null;
+    boolean hasProperties = false;
+    double distance = 0;
+    String distanceUnits = null;
+
+    JsonToken t;
+    while ((t = jp.nextToken()) == JsonToken.FIELD_NAME) {
+      String name = jp.getCurrentName();
+      jp.nextToken();
+      switch (name) {
+        case "type":
+          type = jp.getText();
+          if (pendingCoordinates != null) {
+            JsonParser buffered = pendingCoordinates.asParser(jp.getCodec());
+            buffered.nextToken();
+            coordinates = readCoordinates(buffered, type, factory);
+            pendingCoordinates = null;
+          }
+          break;
+        case "coordinates":
+          if (type == null) {
+            pendingCoordinates = new TokenBuffer(jp);
+            pendingCoordinates.copyCurrentStructure(jp);
+          } else {
+            coordinates = readCoordinates(jp, type, factory);
+          }
+          break;
+        case "geometries":
+          expect(jp, JsonToken.START_ARRAY);
+          geometries = factory.multiShape(Shape.class);
+          while (jp.nextToken() != JsonToken.END_ARRAY) {
+            geometries.add(read(jp, factory));
+          }
+          break;
+        case "radius":
+        case ShapeAsGeoJSONSerializer.BUFFER:
+          distance = jp.getValueAsDouble();
+          break;
+        case "properties":
+          hasProperties = true;
+          expect(jp, JsonToken.START_OBJECT);
+          while (jp.nextToken() == JsonToken.FIELD_NAME) {
+            String propName = jp.getCurrentName();
+            jp.nextToken();
+            if ("radius_units".equals(propName) || ShapeAsGeoJSONSerializer.BUFFER_UNITS.equals(propName)) {
+              distanceUnits = jp.getText();
+            } else {
+              jp.skipChildren();
+            }
+          }
+          break;
+        default:
+          jp.skipChildren();
       }
-      hole.endHole();
     }
-  }
-
-  public Shape read(ObjectNode node, ShapeFactory factory) throws IOException {
+    if (t != JsonToken.END_OBJECT) {
+      throw new JsonParseException(jp, "Expect the end of GeoJSON Geometry object");
+    }
 
-    if(!node.has("type")) {
+    if(type == null) {
       throw new IllegalArgumentException("Missing 'type'");
     }
-    
-    String type = node.get("type").asText();
-    if(node.has("geometries")) {
+    if(geometries != null) {
       if(!"GeometryCollection".equals(type)) {
         throw new IllegalArgumentException("Geometries are only expected for GeometryCollections");
       }
-
-      ShapeFactory.MultiShapeBuilder<Shape> b = factory.multiShape(Shape.class);
-      ArrayNode arr = (ArrayNode)node.get("geometries");
-      for(int i=0; i<arr.size(); i++) {
-        b.add( read((ObjectNode)arr.get(i), factory ) );
-      }
-      return b.build();
+      return geometries.build();
     }
-    
-    ObjectNode props = (ObjectNode)node.get("properties");
-    ArrayNode arr = (ArrayNode)node.get("coordinates");
-    
-    
-    if("Point".equals(type)) {
-      if(props!=null) {
-        throw new IllegalArgumentException("we don't support props on points...");
-      }
-      return readPoint(arr, factory);
+    if(hasProperties && ("Point".equals(type) || "MultiPoint".equals(type))) {
+      throw new IllegalArgumentException("we don't support props on points...");
     }
-    if("MultiPoint".equals(type)) {
-      if(props!=null) {
-        throw new IllegalArgumentException("we don't support props on points...");
-      }
-      
-      ShapeFactory.MultiPointBuilder b = factory.multiPoint();
-      fillPoints(b, arr);
-      return b.build();
+    if(coordinates == null) {
+      throw new IllegalArgumentException("Missing 'coordinates' of " + type);
     }
-    
-    boolean isMultiLine = "MultiLineString".equals(type);
-    if(isMultiLine || "LineString".equals(type)) {
-      double buffer = 0;
-      if(node.has(ShapeAsGeoJSONSerializer.BUFFER)) {
-        buffer = node.get(ShapeAsGeoJSONSerializer.BUFFER).asDouble();
-        if(props!=null) {
-          if("km".equals(props.get(ShapeAsGeoJSONSerializer.BUFFER_UNITS).asText())) {
-            buffer = DistanceUtils.dist2Degrees(buffer, DistanceUtils.EARTH_MEAN_RADIUS_KM);
-          }
+    if("km".equals(distanceUnits)) {
+      distance = DistanceUtils.dist2Degrees(distance, DistanceUtils.EARTH_MEAN_RADIUS_KM);
+    }
+    return build(type, coordinates, distance, factory);
+  }
+
+  /**
+   * Reads the coordinates array into a builder, or a Point for a Point or Circle.  They're built
+   * by {@link #build(String, Object, double, ShapeFactory)} once the rest of the object is read,
+   * since a radius or buffer may follow.
+   */
+  protected Object readCoordinates(JsonParser jp, String type, ShapeFactory factory) throws IOException {
+    expect(jp, JsonToken.START_ARRAY);
+    switch (type) {
+      case "Point":
+      case "Circle":
+        OnePointsBuilder onePointsBuilder = new OnePointsBuilder(factory);
+        readPosition(jp, onePointsBuilder);
+        return onePointsBuilder.getPoint();
+      case "MultiPoint":
+        return readPositions(jp, factory.multiPoint());
+      case "LineString":
+        return readPositions(jp, factory.lineString());
+      case "MultiLineString":
+        List<ShapeFactory.LineStringBuilder> lineStrings = new ArrayList<>();
+        while (jp.nextToken() != JsonToken.END_ARRAY) {
+          expect(jp, JsonToken.START_ARRAY);
+          lineStrings.add(readPositions(jp, factory.lineString()));
         }
-      }
-      if(isMultiLine) {
+        return lineStrings;
+      case "Polygon":
+        return readPolygon(jp, factory.polygon());
+      case "MultiPolygon":
+        ShapeFactory.MultiPolygonBuilder multiPolygon = factory.multiPolygon();
+        while (jp.nextToken() != JsonToken.END_ARRAY) {
+          expect(jp, JsonToken.START_ARRAY);
+          multiPolygon.add(readPolygon(jp, multiPolygon.polygon()));
+        }
+        return multiPolygon;
+      default:
+        throw new IllegalArgumentException("Unsupported type: "+type);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected Shape build(String type, Object coordinates, double distance, ShapeFactory factory) {
+    switch (type) {
+      case "Point":
+        return (Point) coordinates;
+      case "Circle":
+        return factory.circle((Point) coordinates, distance);
+      case "MultiPoint":
+        return ((ShapeFactory.MultiPointBuilder) coordinates).build();
+      case "LineString":
+        return ((ShapeFactory.LineStringBuilder) coordinates).buffer(distance).build();
+      case "MultiLineString":
         ShapeFactory.MultiLineStringBuilder builder = factory.multiLineString();
-        for(int i=0; i<arr.size(); i++) {
-          ShapeFactory.LineStringBuilder b = builder.lineString();
-          fillPoints(b, (ArrayNode)arr.get(i));
-          b.buffer(buffer);
-          builder.add(b);
+        for (ShapeFactory.LineStringBuilder lineString : (List<ShapeFactory.LineStringBuilder>) coordinates) {
+          builder.add(lineString.buffer(distance));
         }
         return builder.build();
-      }
-      
-      ShapeFactory.LineStringBuilder builder = factory.lineString();
-      fillPoints(builder, arr);
-      builder.buffer(buffer);
-      return builder.build();
+      case "Polygon":
+        return ((ShapeFactory.PolygonBuilder) coordinates).buildOrRect();
+      case "MultiPolygon":
+        return ((ShapeFactory.MultiPolygonBuilder) coordinates).build();
+      default:
+        throw new IllegalArgumentException("Unsupported type: "+type);
     }
-    
-    if("Polygon".equals(type)) {
-      ShapeFactory.PolygonBuilder b = factory.polygon();
-      fillPolygon(b, arr);
-      return b.buildOrRect();
-    }
-
-    if("MultiPolygon".equals(type)) {
-      ShapeFactory.MultiPolygonBuilder buildier = factory.multiPolygon();
-      for(int i=0; i<arr.size(); i++) {
-        ShapeFactory.PolygonBuilder b = buildier.polygon();
-        fillPolygon(b, (ArrayNode)arr.get(i));
-        buildier.add(b);
+  }
+
+  /** Reads a position array, the current token, into the builder.  An empty one is a NaN point. */
+  protected void readPosition(JsonParser jp, ShapeFactory.PointsBuilder<?> builder) throws IOException {
+    double x = Double.NaN, y = Double.NaN, z = Double.NaN;
+    int idx = 0;
+    JsonToken t;
+    while ((t = jp.nextToken()) != JsonToken.END_ARRAY) {
+      if (!t.isNumeric()) {
+        throw new JsonParseException(jp, "Expect a number in a position but got " + t);
       }
-      return buildier.build();
+      switch (idx++) {
+        case 0: x = jp.getDoubleValue(); break;
+        case 1: y = jp.getDoubleValue(); break;
+        case 2: z = jp.getDoubleValue(); break;
+        default://ignore more dimensions
+      }
+    }
+    if (idx <= 2) {
+      builder.pointXY(x, y);
+    } else {
+      builder.pointXYZ(x, y, z);
     }
+  }
 
-    if("Circle".equals(type)) {
-      double radius = 0;
-      if(node.has("radius")) {
-        radius = node.get("radius").asDouble();
-        if(props!=null) {
-          if("km".equals(props.get("radius_units").asText())) {
-            radius = DistanceUtils.dist2Degrees(radius, DistanceUtils.EARTH_MEAN_RADIUS_KM);
-          }
-        }
-      }
-      return factory.circle(readPoint(arr, factory), radius);
+  /** Reads an array of positions, the current token, into the builder. */
+  protected <T extends ShapeFactory.PointsBuilder<?>> T readPositions(JsonParser jp, T builder) throws IOException {
+    while (jp.nextToken() != JsonToken.END_ARRAY) {
+      expect(jp, JsonToken.START_ARRAY);
+      readPosition(jp, builder);
     }
+    return builder;
+  }
 
-    throw new IllegalArgumentException("Unsupported type: "+type);
+  /** Reads an array of rings, the current token: the shell then any holes. */
+  protected ShapeFactory.PolygonBuilder readPolygon(JsonParser jp, ShapeFactory.PolygonBuilder builder) throws IOException {
+    boolean shell = true;
+    while (jp.nextToken() != JsonToken.END_ARRAY) {
+      expect(jp, JsonToken.START_ARRAY);
+      if (shell) {
+        readPositions(jp, builder);
+        shell = false;
+      } else {
+        readPositions(jp, builder.hole()).endHole();
+      }
+    }
+    return builder;
   }
-  
-  
-  
-  public Shape read(JsonParser jp, ShapeFactory factory) throws IOException {
-    if(!jp.getCurrentToken().isStructStart()) {
-      throw new JsonParseException(jp, "Expect the start of GeoJSON Geometry object");
+
+  private static void expect(JsonParser jp, JsonToken token) throws JsonParseException {
+    if (jp.getCurrentToken() != token) {
+      throw new JsonParseException(jp, "Expect " + token + " but got " + jp.getCurrentToken());
     }
-    
-    return read( (ObjectNode)jp.getCodec().readTree(jp), factory );
   }
   
   @Override
@@ -232,4 +298,4 @@ public class ShapeDeserializer extends JsonDeserializer<Shape>
     }
     throw new JsonParseException(jp, "can't read GeoJSON yet");
   }
-}
\ No newline at end of file
+}
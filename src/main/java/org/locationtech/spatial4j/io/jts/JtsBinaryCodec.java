@@ -12,8 +12,22 @@ import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
 import org.locationtech.spatial4j.exception.InvalidShapeException;
 import org.locationtech.spatial4j.io.BinaryCodec;
+import org.locationtech.spatial4j.shape.Rectangle;
 import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.impl.BBoxCalculator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.locationtech.jts.io.InStream;
 import org.locationtech.jts.io.OutStream;
@@ -25,12 +39,18 @@ import org.locationtech.jts.io.WKBWriter;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
- * Writes shapes in WKB, if it isn't otherwise supported by the superclass.
+ * Writes shapes in WKB, if it isn't otherwise supported by the superclass.  In the compact format,
+ * geometries are instead written natively with the compact coordinate encoding.
  */
 public class JtsBinaryCodec extends BinaryCodec {
 
+  //the kinds of geometry in the compact format
+  private static final byte GEOM_POINT = 1, GEOM_LINESTRING = 2, GEOM_POLYGON = 3, GEOM_MULTIPOINT = 4,
+      GEOM_MULTILINESTRING = 5, GEOM_MULTIPOLYGON = 6, GEOM_COLLECTION = 7;
+
   protected final boolean useFloat;//instead of double
 
   public JtsBinaryCodec(JtsSpatialContext ctx, JtsSpatialContextFactory factory) {
@@ -54,6 +74,21 @@ public class JtsBinaryCodec extends BinaryCodec {
       super.writeDim(dataOutput, v);
   }
 
+  @Override
+  protected double readDim(ByteBuffer byteBuffer) {
+    if (useFloat)
+      return byteBuffer.getFloat();
+    return super.readDim(byteBuffer);
+  }
+
+  @Override
+  protected void writeDim(ByteBuffer byteBuffer, double v) {
+    if (useFloat)
+      byteBuffer.putFloat((float) v);
+    else
+      super.writeDim(byteBuffer, v);
+  }
+
   @Override
   protected byte typeForShape(Shape s) {
     byte type = super.typeForShape(s);
@@ -78,11 +113,99 @@ public class JtsBinaryCodec extends BinaryCodec {
     return true;
   }
 
+  @Override
+  protected Shape readShapeByTypeIfSupported(ByteBuffer byteBuffer, byte type) {
+    if (type != TYPE_GEOM)
+      return super.readShapeByTypeIfSupported(byteBuffer, type);
+    return readJtsGeom(byteBuffer);
+  }
+
+  @Override
+  protected boolean writeShapeByTypeIfSupported(ByteBuffer byteBuffer, Shape s, byte type) {
+    if (type != TYPE_GEOM)
+      return super.writeShapeByTypeIfSupported(byteBuffer, s, type);
+    writeJtsGeom(byteBuffer, s);
+    return true;
+  }
+
+  @Override
+  protected Rectangle readBoundingBoxByTypeIfSupported(ByteBuffer byteBuffer, byte type) {
+    if (type != TYPE_GEOM)
+      return super.readBoundingBoxByTypeIfSupported(byteBuffer, type);
+    return readJtsGeomBoundingBox(byteBuffer);
+  }
+
   public Shape readJtsGeom(final DataInput dataInput) throws IOException {
+    Geometry geom = readGeometry(new InStream() {//a strange JTS abstraction
+      @Override
+      public void read(byte[] buf) throws IOException {
+        //TODO for performance, specialize for common array lengths: 1, 4, 8
+        dataInput.readFully(buf);
+      }
+    });
+    //false: don't check for dateline-180 cross or multi-polygon overlaps; this won't happen
+    // once it gets written, and we're reading it now
+    return ((JtsSpatialContext)super.ctx).makeShape(geom, false, false);
+  }
+
+  public Shape readJtsGeom(final ByteBuffer byteBuffer) {
+    try {
+      Geometry geom = readGeometry(byteBufferInStream(byteBuffer));
+      //false: don't check for dateline-180 cross or multi-polygon overlaps (see above)
+      return ((JtsSpatialContext)super.ctx).makeShape(geom, false, false);
+    } catch (IOException e) {
+      throw new RuntimeException(e);//not plausible
+    }
+  }
+
+  /**
+   * Reads the bounding box of a JTS geometry, advancing past it, without making a
+   * {@link org.locationtech.spatial4j.shape.jts.JtsGeometry}; the expensive part of reading.  It's
+   * computed like JtsGeometry does for the already dateline-cut geometry.
+   */
+  protected Rectangle readJtsGeomBoundingBox(ByteBuffer byteBuffer) {
+    final Geometry geom;
+    try {
+      geom = readGeometry(byteBufferInStream(byteBuffer));
+    } catch (IOException e) {
+      throw new RuntimeException(e);//not plausible
+    }
+    return boundingBoxOf(geom);
+  }
+
+  private Rectangle boundingBoxOf(Geometry geom) {
+    if (geom.isEmpty())
+      return ctx.getShapeFactory().rect(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+    Envelope env = geom.getEnvelopeInternal();
+    if (ctx.isGeo() && env.getWidth() > 180 && geom.getNumGeometries() > 1) {
+      // This is ShapeCollection's bbox algorithm, as in JtsGeometry.computeGeoBBox
+      BBoxCalculator bboxCalc = new BBoxCalculator(ctx);
+      for (int i = 0; i < geom.getNumGeometries(); i++) {
+        Envelope envI = geom.getGeometryN(i).getEnvelopeInternal();
+        bboxCalc.expandXRange(envI.getMinX(), envI.getMaxX());
+        if (bboxCalc.doesXWorldWrap())
+          break; // can't grow any bigger
+      }
+      return ctx.getShapeFactory().rect(bboxCalc.getMinX(), bboxCalc.getMaxX(), env.getMinY(), env.getMaxY());
+    }
+    return ctx.getShapeFactory().rect(env.getMinX(), env.getMaxX(), env.getMinY(), env.getMaxY());
+  }
+
+  private static InStream byteBufferInStream(final ByteBuffer byteBuffer) {
+    return new InStream() {
+      @Override
+      public void read(byte[] buf) {
+        byteBuffer.get(buf);
+      }
+    };
+  }
+
+  /** Reads WKB, given an InStream lacking the leading byte order mark (we don't write it). */
+  private Geometry readGeometry(final InStream inStream) throws IOException {
     JtsSpatialContext ctx = (JtsSpatialContext)super.ctx;
     WKBReader reader = new WKBReader(ctx.getGeometryFactory());
     try {
-      InStream inStream = new InStream() {//a strange JTS abstraction
+      return reader.read(new InStream() {
         boolean first = true;
         @Override
         public void read(byte[] buf) throws IOException {
@@ -92,15 +215,10 @@ public class JtsBinaryCodec extends BinaryCodec {
             buf[0] = WKBConstants.wkbXDR;//0
             first = false;
           } else {
-            //TODO for performance, specialize for common array lengths: 1, 4, 8
-            dataInput.readFully(buf);
+            inStream.read(buf);
           }
         }
-      };
-      Geometry geom = reader.read(inStream);
-      //false: don't check for dateline-180 cross or multi-polygon overlaps; this won't happen
-      // once it gets written, and we're reading it now
-      return ctx.makeShape(geom, false, false);
+      });
     } catch (ParseException ex) {
       throw new InvalidShapeException("error reading WKT", ex);
     }
@@ -124,4 +242,173 @@ public class JtsBinaryCodec extends BinaryCodec {
       }
     });
   }
+
+  public void writeJtsGeom(final ByteBuffer byteBuffer, Shape s) {
+    JtsSpatialContext ctx = (JtsSpatialContext)super.ctx;
+    Geometry geom = ctx.getGeometryFrom(s);//might even translate it
+    try {
+      new WKBWriter().write(geom, new OutStream() {//a strange JTS abstraction
+        boolean first = true;
+        @Override
+        public void write(byte[] buf, int len) {
+          if (first) {
+            first = false;
+            //skip byte order mark
+            if (len != 1 || buf[0] != WKBConstants.wkbXDR)//the default
+              throw new IllegalStateException("Unexpected WKB byte order mark");
+            return;
+          }
+          byteBuffer.put(buf, 0, len);
+        }
+      });
+    } catch (IOException e) {
+      throw new RuntimeException(e);//not plausible
+    }
+  }
+
+  //
+  // The compact format
+  //
+
+  @Override
+  protected Shape readCompactShapeByTypeIfSupported(CompactReader in, byte type) {
+    if (type != TYPE_GEOM)
+      return super.readCompactShapeByTypeIfSupported(in, type);
+    //false: don't check for dateline-180 cross or multi-polygon overlaps (see above)
+    return ((JtsSpatialContext)super.ctx).makeShape(readCompactGeometry(in), false, false);
+  }
+
+  @Override
+  protected boolean writeCompactShapeByTypeIfSupported(CompactWriter out, Shape s, byte type) {
+    if (type != TYPE_GEOM)
+      return super.writeCompactShapeByTypeIfSupported(out, s, type);
+    writeCompactGeometry(out, ((JtsSpatialContext)super.ctx).getGeometryFrom(s));
+    return true;
+  }
+
+  @Override
+  protected Rectangle readCompactBoundingBoxByTypeIfSupported(CompactReader in, byte type) {
+    if (type != TYPE_GEOM)
+      return super.readCompactBoundingBoxByTypeIfSupported(in, type);
+    return boundingBoxOf(readCompactGeometry(in));
+  }
+
+  /** Writes the kind of geometry then its body.  Only X and Y are written. */
+  protected void writeCompactGeometry(CompactWriter out, Geometry geom) {
+    final byte kind;
+    if (geom instanceof Point) kind = GEOM_POINT;
+    else if (geom instanceof LineString) kind = GEOM_LINESTRING;//includes LinearRing
+    else if (geom instanceof Polygon) kind = GEOM_POLYGON;
+    else if (geom instanceof MultiPoint) kind = GEOM_MULTIPOINT;
+    else if (geom instanceof MultiLineString) kind = GEOM_MULTILINESTRING;
+    else if (geom instanceof MultiPolygon) kind = GEOM_MULTIPOLYGON;
+    else if (geom instanceof GeometryCollection) kind = GEOM_COLLECTION;
+    else throw new IllegalArgumentException("Unsupported geometry "+geom.getClass());
+    out.putByte(kind);
+    writeCompactGeometryBody(out, geom, kind);
+  }
+
+  private void writeCompactGeometryBody(CompactWriter out, Geometry geom, byte kind) {
+    switch (kind) {
+      case GEOM_POINT: writeCompactCoordinates(out, ((Point) geom).getCoordinateSequence()); break;
+      case GEOM_LINESTRING: writeCompactCoordinates(out, ((LineString) geom).getCoordinateSequence()); break;
+      case GEOM_POLYGON: {
+        Polygon poly = (Polygon) geom;
+        if (poly.isEmpty()) {
+          out.putVarLong(0);
+          break;
+        }
+        out.putVarLong(1 + poly.getNumInteriorRing());
+        writeCompactCoordinates(out, poly.getExteriorRing().getCoordinateSequence());
+        for (int i = 0; i < poly.getNumInteriorRing(); i++) {
+          writeCompactCoordinates(out, poly.getInteriorRingN(i).getCoordinateSequence());
+        }
+        break;
+      }
+      default: {//a collection
+        out.putVarLong(geom.getNumGeometries());
+        final byte partKind = kind == GEOM_MULTIPOINT ? GEOM_POINT
+            : kind == GEOM_MULTILINESTRING ? GEOM_LINESTRING
+            : kind == GEOM_MULTIPOLYGON ? GEOM_POLYGON : 0;
+        for (int i = 0; i < geom.getNumGeometries(); i++) {
+          if (partKind == 0)
+            writeCompactGeometry(out, geom.getGeometryN(i));
+          else
+            writeCompactGeometryBody(out, geom.getGeometryN(i), partKind);
+        }
+      }
+    }
+  }
+
+  private void writeCompactCoordinates(CompactWriter out, CoordinateSequence seq) {
+    out.putVarLong(seq.size());
+    for (int i = 0; i < seq.size(); i++) {
+      out.putXY(seq.getX(i), seq.getY(i));
+    }
+  }
+
+  /** Reads what {@link #writeCompactGeometry(CompactWriter, Geometry)} wrote. */
+  protected Geometry readCompactGeometry(CompactReader in) {
+    return readCompactGeometryBody(in, in.getByte());
+  }
+
+  private Geometry readCompactGeometryBody(CompactReader in, byte kind) {
+    final GeometryFactory geomFactory = ((JtsSpatialContext)super.ctx).getGeometryFactory();
+    switch (kind) {
+      case GEOM_POINT: return geomFactory.createPoint(readCompactCoordinates(in));
+      case GEOM_LINESTRING: return geomFactory.createLineString(readCompactCoordinates(in));
+      case GEOM_POLYGON: {
+        int numRings = (int) in.getVarLong();
+        if (numRings == 0)
+          return geomFactory.createPolygon((LinearRing) null, null);
+        LinearRing shell = geomFactory.createLinearRing(readCompactCoordinates(in));
+        LinearRing[] holes = new LinearRing[numRings - 1];
+        for (int i = 0; i < holes.length; i++) {
+          holes[i] = geomFactory.createLinearRing(readCompactCoordinates(in));
+        }
+        return geomFactory.createPolygon(shell, holes);
+      }
+      case GEOM_MULTIPOINT: {
+        Point[] points = new Point[(int) in.getVarLong()];
+        for (int i = 0; i < points.length; i++) {
+          points[i] = (Point) readCompactGeometryBody(in, GEOM_POINT);
+        }
+        return geomFactory.createMultiPoint(points);
+      }
+      case GEOM_MULTILINESTRING: {
+        LineString[] lines = new LineString[(int) in.getVarLong()];
+        for (int i = 0; i < lines.length; i++) {
+          lines[i] = (LineString) readCompactGeometryBody(in, GEOM_LINESTRING);
+        }
+        return geomFactory.createMultiLineString(lines);
+      }
+      case GEOM_MULTIPOLYGON: {
+        Polygon[] polys = new Polygon[(int) in.getVarLong()];
+        for (int i = 0; i < polys.length; i++) {
+          polys[i] = (Polygon) readCompactGeometryBody(in, GEOM_POLYGON);
+        }
+        return geomFactory.createMultiPolygon(polys);
+      }
+      case GEOM_COLLECTION: {
+        Geometry[] geoms = new Geometry[(int) in.getVarLong()];
+        for (int i = 0; i < geoms.length; i++) {
+          geoms[i] = readCompactGeometry(in);
+        }
+        return geomFactory.createGeometryCollection(geoms);
+      }
+      default: throw new InvalidShapeException("Unsupported geometry byte "+kind);
+    }
+  }
+
+  private CoordinateSequence readCompactCoordinates(CompactReader in) {
+    final GeometryFactory geomFactory = ((JtsSpatialContext)super.ctx).getGeometryFactory();
+    final PrecisionModel precisionModel = geomFactory.getPrecisionModel();
+    Coordinate[] coords = new Coordinate[(int) in.getVarLong()];
+    for (int i = 0; i < coords.length; i++) {
+      in.nextXY();
+      coords[i] = new Coordinate(in.getX(), in.getY());
+      precisionModel.makePrecise(coords[i]);
+    }
+    return geomFactory.getCoordinateSequenceFactory().create(coords);
+  }
 }
@@ -13,8 +13,8 @@ import java.io.Writer;
 import java.text.NumberFormat;
 import org.locationtech.spatial4j.context.SpatialContextFactory;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.io.FastDecimalFormat;
 import org.locationtech.spatial4j.io.GeoJSONWriter;
-import org.locationtech.spatial4j.io.LegacyShapeWriter;
 import org.locationtech.spatial4j.shape.Shape;
 import org.locationtech.spatial4j.shape.jts.JtsGeometry;
 import org.locationtech.jts.geom.Coordinate;
@@ -43,9 +43,9 @@ public class JtsGeoJSONWriter extends GeoJSONWriter {
 
   protected void write(Writer output, NumberFormat nf, Coordinate coord) throws IOException {
     output.write('[');
-    output.write(nf.format(coord.x));
+    FastDecimalFormat.write(output, nf, coord.x);
     output.write(',');
-    output.write(nf.format(coord.y));
+    FastDecimalFormat.write(output, nf, coord.y);
     output.write(']');
   }
 
@@ -58,14 +58,14 @@ public class JtsGeoJSONWriter extends GeoJSONWriter {
         output.write(',');
       }
       output.write('[');
-      output.write(nf.format(coordseq.getOrdinate(i, 0)));
+      FastDecimalFormat.write(output, nf, coordseq.getOrdinate(i, 0));
       output.write(',');
-      output.write(nf.format(coordseq.getOrdinate(i, 1)));
+      FastDecimalFormat.write(output, nf, coordseq.getOrdinate(i, 1));
       if (dim > 2) {
         double v = coordseq.getOrdinate(i, 2);
         if (!Double.isNaN(v)) {
           output.write(',');
-          output.write(nf.format(v));
+          FastDecimalFormat.write(output, nf, v);
         }
       }
       output.write(']');
@@ -95,7 +95,7 @@ public class JtsGeoJSONWriter extends GeoJSONWriter {
   }
 
   public void write(Writer output, Geometry geom) throws IOException {
-    NumberFormat nf = LegacyShapeWriter.makeNumberFormat(6);
+    NumberFormat nf = getNumberFormat();
     if (geom instanceof Point) {
       Point v = (Point) geom;
       output.append("{\"type\":\"Point\",\"coordinates\":");
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io.jts;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.io.TWKBWriter;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.jts.JtsGeometry;
+import org.locationtech.spatial4j.shape.jts.JtsPoint;
+
+/**
+ * Writes {@link JtsGeometry} and {@link JtsPoint} shapes with their JTS geometry types, and in 3D if
+ * the first coordinate has a Z.
+ */
+public class JtsTWKBWriter extends TWKBWriter {
+
+  protected final JtsSpatialContext ctx;
+
+  public JtsTWKBWriter(JtsSpatialContext ctx, SpatialContextFactory factory) {
+    super(ctx, factory);
+    this.ctx = ctx;
+  }
+
+  @Override
+  protected Encoder encode(Shape shape) {
+    if (shape instanceof JtsGeometry) {
+      return encode(((JtsGeometry) shape).getGeom());
+    }
+    if (shape instanceof JtsPoint) {
+      return encode(((JtsPoint) shape).getGeom());
+    }
+    return super.encode(shape);
+  }
+
+  /** Encodes the geometry, header included. */
+  protected Encoder encode(Geometry geom) {
+    Coordinate first = geom.getCoordinate();
+    Encoder body = newEncoder(first != null && !Double.isNaN(first.z));
+    int type = writeBody(body, geom);
+    return withHeader(type, body);
+  }
+
+  /**
+   * Writes the geometry without a header; collection members are written with theirs.
+   *
+   * @return the TWKB type
+   */
+  protected int writeBody(Encoder enc, Geometry geom) {
+    if (geom instanceof Point) {
+      if (!geom.isEmpty()) {
+        write(enc, ((Point) geom).getCoordinateSequence(), 0);
+      }
+      return TYPE_POINT;
+    }
+    if (geom instanceof LineString) {
+      write(enc, ((LineString) geom).getCoordinateSequence());
+      return TYPE_LINESTRING;
+    }
+    if (geom instanceof Polygon) {
+      write(enc, (Polygon) geom);
+      return TYPE_POLYGON;
+    }
+    if (geom instanceof MultiPoint) {
+      enc.writeVarint(geom.getNumGeometries());
+      for (int i = 0; i < geom.getNumGeometries(); i++) {
+        write(enc, ((Point) geom.getGeometryN(i)).getCoordinateSequence(), 0);
+      }
+      return TYPE_MULTIPOINT;
+    }
+    if (geom instanceof MultiLineString) {
+      enc.writeVarint(geom.getNumGeometries());
+      for (int i = 0; i < geom.getNumGeometries(); i++) {
+        write(enc, ((LineString) geom.getGeometryN(i)).getCoordinateSequence());
+      }
+      return TYPE_MULTILINESTRING;
+    }
+    if (geom instanceof MultiPolygon) {
+      enc.writeVarint(geom.getNumGeometries());
+      for (int i = 0; i < geom.getNumGeometries(); i++) {
+        write(enc, (Polygon) geom.getGeometryN(i));
+      }
+      return TYPE_MULTIPOLYGON;
+    }
+    if (geom instanceof GeometryCollection) {
+      enc.writeVarint(geom.getNumGeometries());
+      for (int i = 0; i < geom.getNumGeometries(); i++) {
+        enc.writeGeometry(encode(geom.getGeometryN(i)));
+      }
+      return TYPE_COLLECTION;
+    }
+    throw new UnsupportedOperationException("unknown: " + geom);
+  }
+
+  protected void write(Encoder enc, Polygon p) {
+    if (p.isEmpty()) {
+      enc.writeVarint(0);
+      return;
+    }
+    enc.writeVarint(1 + p.getNumInteriorRing());
+    write(enc, p.getExteriorRing().getCoordinateSequence());
+    for (int i = 0; i < p.getNumInteriorRing(); i++) {
+      write(enc, p.getInteriorRingN(i).getCoordinateSequence());
+    }
+  }
+
+  /** Writes the number of points and the points. */
+  protected void write(Encoder enc, CoordinateSequence seq) {
+    enc.writeVarint(seq.size());
+    for (int i = 0; i < seq.size(); i++) {
+      write(enc, seq, i);
+    }
+  }
+
+  protected void write(Encoder enc, CoordinateSequence seq, int i) {
+    if (seq.getDimension() > 2) {
+      enc.writeXYZ(seq.getX(i), seq.getY(i), seq.getOrdinate(i, CoordinateSequence.Z));
+    } else {
+      enc.writeXY(seq.getX(i), seq.getY(i));
+    }
+  }
+}
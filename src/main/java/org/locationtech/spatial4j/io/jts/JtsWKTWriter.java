@@ -8,6 +8,10 @@
 
 package org.locationtech.spatial4j.io.jts;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.text.NumberFormat;
+
 import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
 import org.locationtech.spatial4j.io.WKTWriter;
@@ -20,14 +24,15 @@ import org.locationtech.spatial4j.shape.jts.JtsGeometry;
 public class JtsWKTWriter extends WKTWriter {
 
   public JtsWKTWriter(JtsSpatialContext ctx, JtsSpatialContextFactory factory) {
-
+    super(ctx, factory);
   }
 
   @Override
-  public String toString(Shape shape) {
+  protected void write(Writer output, Shape shape, NumberFormat nf) throws IOException {
     if (shape instanceof JtsGeometry) {
-      return ((JtsGeometry) shape).getGeom().toText();
+      new org.locationtech.jts.io.WKTWriter().write(((JtsGeometry) shape).getGeom(), output);
+      return;
     }
-    return super.toString(shape);
+    super.write(output, shape, nf);
   }
 }
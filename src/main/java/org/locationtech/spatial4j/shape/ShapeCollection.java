@@ -10,6 +10,7 @@ package org.locationtech.spatial4j.shape;
 
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.shape.impl.BBoxCalculator;
+import org.locationtech.spatial4j.shape.impl.PackedBBoxTree;
 
 import java.util.*;
 
@@ -31,9 +32,10 @@ import static org.locationtech.spatial4j.shape.SpatialRelation.INTERSECTS;
  * intersects when the best answer is actually contains or within. If any shape
  * intersects the provided shape then that is the answer.
  * <p>
- * This implementation is not optimized for a large number of shapes; relate is
- * O(N).  A more sophisticated implementation might do an R-Tree based on
- * bbox'es, for example.
+ * Once there are at least {@link #INDEX_MIN_SIZE} shapes, relate() builds an
+ * R-Tree of the shapes' bboxes on first use, and thereafter only relates the
+ * shapes whose bbox intersects that of the other shape; the rest are DISJOINT.
+ * Otherwise relate is O(N).
  */
 public class ShapeCollection<S extends Shape> extends AbstractList<S> implements Shape {
 
@@ -41,6 +43,11 @@ public class ShapeCollection<S extends Shape> extends AbstractList<S> implements
   protected final List<S> shapes;
   protected final Rectangle bbox;
 
+  /** The minimum number of shapes for relate() to use an R-Tree. */
+  public static final int INDEX_MIN_SIZE = 32;
+
+  private volatile PackedBBoxTree index;//lazily built; see getIndex()
+
   /**
    * WARNING: {@code shapes} is copied by reference.
    * @param shapes Copied by reference! (make a defensive copy if caller modifies)
@@ -115,6 +122,9 @@ public class ShapeCollection<S extends Shape> extends AbstractList<S> implements
 
     final boolean containsWillShortCircuit = (other instanceof Point) ||
         relateContainsShortCircuits();
+    final PackedBBoxTree index = getIndex();
+    if (index != null)
+      return relateIndexed(index, other, containsWillShortCircuit);
     SpatialRelation sect = null;
     for (Shape shape : shapes) {
       SpatialRelation nextSect = shape.relate(other);
@@ -134,6 +144,47 @@ public class ShapeCollection<S extends Shape> extends AbstractList<S> implements
     return sect;
   }
 
+  /**
+   * Like the loop in relate() but only visits the shapes whose bbox intersects other's bbox; the
+   * others are DISJOINT. The combined result is the same since combine() is order independent,
+   * although which shapes are visited before short-circuiting on CONTAINS may differ.
+   */
+  private SpatialRelation relateIndexed(PackedBBoxTree index, final Shape other,
+                                        final boolean containsWillShortCircuit) {
+    class RelateVisitor implements PackedBBoxTree.Visitor {
+      SpatialRelation sect = null;
+      int count = 0;
+
+      @Override
+      public boolean visit(int id) {
+        count++;
+        SpatialRelation nextSect = shapes.get(id).relate(other);
+        sect = sect == null ? nextSect : sect.combine(nextSect);
+        return !(sect == INTERSECTS || sect == CONTAINS && containsWillShortCircuit);
+      }
+    }
+    RelateVisitor visitor = new RelateVisitor();
+    if (!index.visit(other.getBoundingBox(), visitor))
+      return visitor.sect;//short-circuited
+    if (visitor.count < index.size())//some shapes weren't visited; they are DISJOINT
+      return SpatialRelation.DISJOINT.combine(visitor.sect);
+    return visitor.sect;
+  }
+
+  /**
+   * Returns an R-Tree of the shapes' bboxes, built on the first call, or null if there are fewer
+   * than {@link #INDEX_MIN_SIZE} shapes. Thread-safe; in a race it might be built more than once.
+   * Package-private since the tree is internal; tests override it.
+   */
+  PackedBBoxTree getIndex() {
+    PackedBBoxTree index = this.index;
+    if (index == null && shapes.size() >= INDEX_MIN_SIZE) {
+      index = new PackedBBoxTree(shapes, ctx);
+      this.index = index;
+    }
+    return index;
+  }
+
   /**
    * Called by relate() to determine whether to return early if it finds
    * CONTAINS, instead of checking the remaining shapes. It will do so without
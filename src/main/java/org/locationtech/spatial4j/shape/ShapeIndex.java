@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.shape;
+
+import org.locationtech.spatial4j.SpatialPredicate;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.impl.PackedBBoxTree;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * An immutable in-memory index of shapes, searched by {@link SpatialPredicate}; an alternative to
+ * evaluating the predicate on every shape.  The shapes' bounding boxes are bulk loaded into an
+ * R-Tree packed with the Sort-Tile-Recursive algorithm that keeps them in primitive arrays, and the
+ * shapes are kept in an array in parallel to it.  Shapes are identified by
+ * their index in the list the index was built from.
+ * <p>
+ * A query prunes with the bounding boxes first, then evaluates the predicate, which relates the
+ * shapes with {@link Shape#relate(Shape)}.  All the standard predicates but {@code IsDisjointTo}
+ * imply that the bounding boxes intersect, so the tree only visits the shapes whose bounding box
+ * intersects the query's, and {@code BBoxWithin} also skips those whose bounding box isn't within
+ * the query's without relating them.  {@code IsDisjointTo} only evaluates the shapes whose bounding
+ * box intersects the query's; the others match.  Any other predicate, or an empty query shape (which
+ * some shapes relate to inconsistently), is evaluated on every shape.
+ * Thread-safe if the shapes are.
+ */
+public class ShapeIndex<S extends Shape> {
+
+  /** Called for each shape found by a query. */
+  public interface Visitor {
+    /** @return false to stop the query. */
+    boolean visit(int id);
+  }
+
+  private final SpatialContext ctx;
+  private final Shape[] shapes;
+  private final double[] minXs, maxXs, minYs, maxYs;
+  private final PackedBBoxTree tree;
+
+  public ShapeIndex(List<? extends S> shapes, SpatialContext ctx) {
+    this.ctx = ctx;
+    this.shapes = shapes.toArray(new Shape[shapes.size()]);
+    final double[][] bounds = PackedBBoxTree.boundsOf(shapes);
+    this.minXs = bounds[0];
+    this.maxXs = bounds[1];
+    this.minYs = bounds[2];
+    this.maxYs = bounds[3];
+    this.tree = new PackedBBoxTree(bounds, ctx, PackedBBoxTree.DEFAULT_NODE_CAPACITY, true);
+  }
+
+  public SpatialContext getContext() {
+    return ctx;
+  }
+
+  /** The number of shapes. */
+  public int size() {
+    return shapes.length;
+  }
+
+  /** The shape with the id: its index in the list the index was built from. */
+  @SuppressWarnings("unchecked")
+  public S get(int id) {
+    return (S) shapes[id];
+  }
+
+  /**
+   * Finds the shapes for which {@code predicate.evaluate(shape, queryShape)} is true.
+   *
+   * @return them, in no particular order.
+   */
+  public List<S> query(SpatialPredicate predicate, Shape queryShape) {
+    final List<S> results = new ArrayList<>();
+    query(predicate, queryShape, new Visitor() {
+      @Override
+      public boolean visit(int id) {
+        results.add(get(id));
+        return true;
+      }
+    });
+    return results;
+  }
+
+  /**
+   * Visits the ids of the shapes for which {@code predicate.evaluate(shape, queryShape)} is true, in
+   * no particular order.
+   *
+   * @return false if the visitor stopped the visit.
+   */
+  public boolean query(final SpatialPredicate predicate, final Shape queryShape, final Visitor visitor) {
+    if (queryShape.isEmpty() || !isBBoxIntersecting(predicate) && predicate != SpatialPredicate.IsDisjointTo) {
+      for (int id = 0; id < shapes.length; id++) {
+        if (predicate.evaluate(shapes[id], queryShape) && !visitor.visit(id))
+          return false;
+      }
+      return true;
+    }
+
+    final Rectangle queryBBox = queryShape.getBoundingBox();
+    if (predicate == SpatialPredicate.IsDisjointTo) {
+      final BitSet intersecting = new BitSet(shapes.length);
+      tree.visit(queryBBox, new PackedBBoxTree.Visitor() {
+        @Override
+        public boolean visit(int id) {
+          intersecting.set(id);
+          return true;
+        }
+      });
+      for (int id = 0; id < shapes.length; id++) {
+        if ((!intersecting.get(id) || predicate.evaluate(shapes[id], queryShape)) && !visitor.visit(id))
+          return false;
+      }
+      return true;
+    }
+
+    //if geo, -180 and +180 are the same meridian; not worth handling
+    final Rectangle worldBounds = ctx.getWorldBounds();
+    final boolean bboxWithin = predicate == SpatialPredicate.BBoxWithin
+        && queryBBox.getMinX() <= queryBBox.getMaxX()
+        && (!ctx.isGeo() || (queryBBox.getMinX() > worldBounds.getMinX() && queryBBox.getMaxX() < worldBounds.getMaxX()));
+    return tree.visit(queryBBox, new PackedBBoxTree.Visitor() {
+      @Override
+      public boolean visit(int id) {
+        if (bboxWithin && minXs[id] <= maxXs[id] //(not crossing the dateline)
+            && (minXs[id] < queryBBox.getMinX() || maxXs[id] > queryBBox.getMaxX()
+            || minYs[id] < queryBBox.getMinY() || maxYs[id] > queryBBox.getMaxY()))
+          return true;
+        return !predicate.evaluate(shapes[id], queryShape) || visitor.visit(id);
+      }
+    });
+  }
+
+  /** Whether the predicate can only be true if the bounding boxes intersect. */
+  private static boolean isBBoxIntersecting(SpatialPredicate predicate) {
+    return SpatialPredicate.is(predicate, SpatialPredicate.Intersects, SpatialPredicate.IsWithin,
+        SpatialPredicate.Contains, SpatialPredicate.BBoxIntersects, SpatialPredicate.BBoxWithin,
+        SpatialPredicate.IsEqualTo, SpatialPredicate.Overlaps);
+  }
+}
@@ -180,12 +180,15 @@ public class BufferedLine extends BaseShape<SpatialContext> {
       return bboxR;
     //Either CONTAINS, INTERSECTS, or DISJOINT
 
-    Point scratch = new PointImpl(0, 0, null);
-    Point prC = r.getCenter();
-    SpatialRelation result = linePrimary.relate(r, prC, scratch);
+    //the center of r, like r.getCenter() but without allocating a Point
+    double prCX = r.getWidth() / 2 + r.getMinX();
+    if (r.getCrossesDateLine())
+      prCX = DistanceUtils.normLonDEG(prCX);
+    final double prCY = r.getHeight() / 2 + r.getMinY();
+    SpatialRelation result = linePrimary.relate(r, prCX, prCY);
     if (result == DISJOINT)
       return DISJOINT;
-    SpatialRelation resultOpp = linePerp.relate(r, prC, scratch);
+    SpatialRelation resultOpp = linePerp.relate(r, prCX, prCY);
     if (resultOpp == DISJOINT)
       return DISJOINT;
     if (result == resultOpp)//either CONTAINS or INTERSECTS
@@ -195,7 +198,7 @@ public class BufferedLine extends BaseShape<SpatialContext> {
 
   public boolean contains(Point p) {
     //TODO check bbox 1st?
-    return linePrimary.contains(p) && linePerp.contains(p);
+    return linePrimary.contains(p.getX(), p.getY()) && linePerp.contains(p.getX(), p.getY());
   }
 
   public Rectangle getBoundingBox() {
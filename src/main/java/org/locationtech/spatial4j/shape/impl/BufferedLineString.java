@@ -77,7 +77,7 @@ public class BufferedLineString extends BaseShape<SpatialContext> {
       if (segments.isEmpty()) {//TODO throw exception instead?
         segments.add(new BufferedLine(prevPoint, prevPoint, buf, ctx));
       }
-      this.segments = ctx.makeCollection(segments);
+      this.segments = ctx.makeCollection(segments);//indexed by relate() if long
     }
   }
 
@@ -50,40 +50,45 @@ public class InfBufLine {
     this.buf = buf;
   }
 
-  SpatialRelation relate(Rectangle r, Point prC, Point scratch) {
-    assert r.getCenter().equals(prC);
-
-    int cQuad = quadrant(prC);
-
-    Point nearestP = scratch;
-    cornerByQuadrant(r, oppositeQuad[cQuad], nearestP);
-    boolean nearestContains = contains(nearestP);
+  /**
+   * Relates this line to the rectangle, given the rectangle's center.  Works on primitives so as
+   * not to allocate anything.
+   */
+  SpatialRelation relate(Rectangle r, double prCX, double prCY) {
+    int cQuad = quadrant(prCX, prCY);
+
+    final int nearestQuad = oppositeQuad[cQuad];
+    final double nearestX = cornerX(r, nearestQuad);
+    final double nearestY = cornerY(r, nearestQuad);
+    boolean nearestContains = contains(nearestX, nearestY);
 
     if (nearestContains) {
-      Point farthestP = scratch;
-      nearestP = null;//just to be safe (same scratch object)
-      cornerByQuadrant(r, cQuad, farthestP);
-      boolean farthestContains = contains(farthestP);
+      boolean farthestContains = contains(cornerX(r, cQuad), cornerY(r, cQuad));
       if (farthestContains)
         return CONTAINS;
       return INTERSECTS;
     } else {// not nearestContains
-      if (quadrant(nearestP) == cQuad)
+      if (quadrant(nearestX, nearestY) == cQuad)
         return DISJOINT;//out of buffer on same side as center
       return INTERSECTS;//nearest & farthest points straddle the line
     }
   }
 
-  boolean contains(Point p) {
-    return (distanceUnbuffered(p) <= buf + EPS);
+  boolean contains(double x, double y) {
+    return (distanceUnbuffered(x, y) <= buf + EPS);
   }
 
   /** INTERNAL AKA lineToPointDistance */
   public double distanceUnbuffered(Point c) {
+    return distanceUnbuffered(c.getX(), c.getY());
+  }
+
+  /** INTERNAL AKA lineToPointDistance */
+  public double distanceUnbuffered(double x, double y) {
     if (Double.isInfinite(slope))
-      return Math.abs(c.getX() - intercept);
+      return Math.abs(x - intercept);
     // http://math.ucsd.edu/~wgarner/math4c/derivations/distance/distptline.htm
-    double num = Math.abs(c.getY() - slope * c.getX() - intercept);
+    double num = Math.abs(y - slope * x - intercept);
     return num * distDenomInv;
   }
 
@@ -102,15 +107,20 @@ public class InfBufLine {
 
   /** INTERNAL: AKA lineToPointQuadrant */
   public int quadrant(Point c) {
+    return quadrant(c.getX(), c.getY());
+  }
+
+  /** INTERNAL: AKA lineToPointQuadrant */
+  public int quadrant(double x, double y) {
     //check vertical line case 1st
     if (Double.isInfinite(slope)) {
       //when slope is infinite, intercept is x intercept instead of y
-      return c.getX() > intercept ? 1 : 2; //4 : 3 would work too
+      return x > intercept ? 1 : 2; //4 : 3 would work too
     }
     //(below will work for slope==0 horizontal line too)
     //is c above or below the line
-    double yAtCinLine = slope * c.getX() + intercept;
-    boolean above = c.getY() >= yAtCinLine;
+    double yAtCinLine = slope * x + intercept;
+    boolean above = y >= yAtCinLine;
     if (slope > 0) {
       //if slope is a forward slash, then result is 2 | 4
       return above ? 2 : 4;
@@ -126,9 +136,15 @@ public class InfBufLine {
   private static final int[] oppositeQuad= {-1,3,4,1,2};
 
   public static void cornerByQuadrant(Rectangle r, int cornerQuad, Point out) {
-    double x = (cornerQuad == 1 || cornerQuad == 4) ? r.getMaxX() : r.getMinX();
-    double y = (cornerQuad == 1 || cornerQuad == 2) ? r.getMaxY() : r.getMinY();
-    out.reset(x, y);
+    out.reset(cornerX(r, cornerQuad), cornerY(r, cornerQuad));
+  }
+
+  private static double cornerX(Rectangle r, int cornerQuad) {
+    return (cornerQuad == 1 || cornerQuad == 4) ? r.getMaxX() : r.getMinX();
+  }
+
+  private static double cornerY(Rectangle r, int cornerQuad) {
+    return (cornerQuad == 1 || cornerQuad == 2) ? r.getMaxY() : r.getMinY();
   }
 
   public double getSlope() {
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.shape.impl;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * (INTERNAL) An immutable R-Tree of bounding boxes, bulk loaded using the Sort-Tile-Recursive (STR)
+ * algorithm, or packed in the given order when the entries are already spatially coherent, like
+ * the consecutive segments of a line string.
+ * The entries are identified by their index in the list (or arrays) it was built from.
+ * All boxes are kept in primitive arrays, level by level: first the entries (leaves) in STR order,
+ * then their parents, and so on up to the root.  Node i of a level has the children
+ * {@code [i * nodeCapacity, (i+1) * nodeCapacity)} of the level below.
+ * <p>
+ * In a geo context, entries crossing the dateline are indexed as spanning all longitudes; that's
+ * simple, still correct, and such entries are rare.  Entries with NaN bounds (empty shapes) are
+ * never found.  A query may cross the dateline.  It's thread-safe.
+ */
+public class PackedBBoxTree {
+
+  /** Called for each entry that matches a query. */
+  public interface Visitor {
+    /** @return false to stop visiting. */
+    boolean visit(int id);
+  }
+
+  public static final int DEFAULT_NODE_CAPACITY = 16;
+
+  private final boolean geo;
+  private final double worldMinX, worldMaxX;
+  private final int size;
+  private final int nodeCapacity;
+  private final int[] ids;//entry ids in STR order
+  private final int[] levelStarts;//offsets into the box arrays; the last level is the root
+  private final double[] minXs, maxXs, minYs, maxYs;
+
+  /** Indexes the bounding boxes of the shapes. */
+  public PackedBBoxTree(List<? extends Shape> shapes, SpatialContext ctx) {
+    this(boundsOf(shapes), ctx, DEFAULT_NODE_CAPACITY, true);
+  }
+
+  /**
+   * Indexes the given bounds, as returned by {@link #boundsOf(List)}: four arrays of minX, maxX,
+   * minY and maxY. The arrays are not retained.
+   *
+   * @param sortTileRecursive if false then the entries are packed in the given order.
+   */
+  public PackedBBoxTree(double[][] bounds, SpatialContext ctx, int nodeCapacity, boolean sortTileRecursive) {
+    if (nodeCapacity < 2)
+      throw new IllegalArgumentException("nodeCapacity must be >= 2: " + nodeCapacity);
+    this.nodeCapacity = nodeCapacity;
+    this.geo = ctx.isGeo();
+    this.worldMinX = ctx.getWorldBounds().getMinX();
+    this.worldMaxX = ctx.getWorldBounds().getMaxX();
+    final double[] entMinXs = bounds[0], entMaxXs = bounds[1], entMinYs = bounds[2], entMaxYs = bounds[3];
+    this.size = entMinXs.length;
+
+    //compute the number of levels and their sizes
+    int numLevels = 1;
+    int totalNodes = size;
+    for (int levelSize = size; levelSize > 1; numLevels++) {
+      levelSize = divideRoundingUp(levelSize, nodeCapacity);
+      totalNodes += levelSize;
+    }
+    levelStarts = new int[numLevels + 1];
+    minXs = new double[totalNodes];
+    maxXs = new double[totalNodes];
+    minYs = new double[totalNodes];
+    maxYs = new double[totalNodes];
+
+    //leaves
+    if (sortTileRecursive) {
+      ids = sortTileRecursive(entMinXs, entMaxXs, entMinYs, entMaxYs);
+    } else {
+      ids = new int[size];
+      for (int i = 0; i < size; i++) {
+        ids[i] = i;
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      final int id = ids[i];
+      if (entMinXs[id] > entMaxXs[id]) {//crosses the dateline
+        minXs[i] = worldMinX;
+        maxXs[i] = worldMaxX;
+      } else {
+        minXs[i] = entMinXs[id];
+        maxXs[i] = entMaxXs[id];
+      }
+      minYs[i] = entMinYs[id];
+      maxYs[i] = entMaxYs[id];
+    }
+
+    //nodes; each level groups consecutive nodes of the level below
+    levelStarts[1] = size;
+    for (int level = 1; level < numLevels; level++) {
+      final int childStart = levelStarts[level - 1];
+      final int childEnd = levelStarts[level];
+      int node = childEnd;
+      for (int child = childStart; child < childEnd; child += nodeCapacity, node++) {
+        //note: comparisons skip NaN (empty shapes)
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        final int end = Math.min(child + nodeCapacity, childEnd);
+        for (int i = child; i < end; i++) {
+          if (minXs[i] < minX) minX = minXs[i];
+          if (maxXs[i] > maxX) maxX = maxXs[i];
+          if (minYs[i] < minY) minY = minYs[i];
+          if (maxYs[i] > maxY) maxY = maxYs[i];
+        }
+        minXs[node] = minX;
+        maxXs[node] = maxX;
+        minYs[node] = minY;
+        maxYs[node] = maxY;
+      }
+      levelStarts[level + 1] = node;
+    }
+  }
+
+  /** The bounding boxes of the shapes as four arrays: minX, maxX, minY, maxY. */
+  public static double[][] boundsOf(List<? extends Shape> shapes) {
+    final int size = shapes.size();
+    double[][] bounds = new double[4][size];
+    for (int i = 0; i < size; i++) {
+      Rectangle bbox = shapes.get(i).getBoundingBox();
+      bounds[0][i] = bbox.getMinX();
+      bounds[1][i] = bbox.getMaxX();
+      bounds[2][i] = bbox.getMinY();
+      bounds[3][i] = bbox.getMaxY();
+    }
+    return bounds;
+  }
+
+  /**
+   * Orders the entries: sorted by X center into vertical slices of about sqrt(numLeafNodes) nodes
+   * each, and within each slice by Y center.
+   */
+  private int[] sortTileRecursive(double[] entMinXs, double[] entMaxXs, double[] entMinYs, double[] entMaxYs) {
+    final double[] centerXs = new double[size];
+    final double[] centerYs = new double[size];
+    Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      centerXs[i] = entMinXs[i] <= entMaxXs[i] ? (entMinXs[i] + entMaxXs[i]) / 2 : 0;//0 if crosses DL
+      centerYs[i] = (entMinYs[i] + entMaxYs[i]) / 2;
+      order[i] = i;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer a, Integer b) {
+        return Double.compare(centerXs[a], centerXs[b]);
+      }
+    });
+    final int numLeafNodes = divideRoundingUp(size, nodeCapacity);
+    final int sliceSize = nodeCapacity * (int) Math.ceil(Math.sqrt(numLeafNodes));
+    final Comparator<Integer> yComparator = new Comparator<Integer>() {
+      @Override
+      public int compare(Integer a, Integer b) {
+        return Double.compare(centerYs[a], centerYs[b]);
+      }
+    };
+    for (int start = 0; start < size; start += sliceSize) {
+      Arrays.sort(order, start, Math.min(start + sliceSize, size), yComparator);
+    }
+    int[] result = new int[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = order[i];
+    }
+    return result;
+  }
+
+  private static int divideRoundingUp(int dividend, int divisor) {
+    return (dividend + divisor - 1) / divisor;
+  }
+
+  /** The number of entries. */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Visits the ids of the entries whose bounding box intersects the query rectangle (including
+   * touching), in no particular order.
+   *
+   * @return false if the visitor stopped the visit.
+   */
+  public boolean visit(Rectangle query, Visitor visitor) {
+    return visit(query.getMinX(), query.getMaxX(), query.getMinY(), query.getMaxY(), visitor);
+  }
+
+  /**
+   * @see #visit(Rectangle, Visitor)
+   */
+  public boolean visit(double minX, double maxX, double minY, double maxY, Visitor visitor) {
+    if (size == 0)
+      return true;
+    if (geo && minX <= maxX && maxX - minX < worldMaxX - worldMinX) {
+      //-180 and +180 are the same meridian; so make the query cross the dateline to match both
+      if (minX == worldMinX)
+        minX = worldMaxX;
+      else if (maxX == worldMaxX)
+        maxX = worldMinX;
+    }
+    final int rootLevel = levelStarts.length - 2;
+    return visit(rootLevel, levelStarts[rootLevel], minX, maxX, minY, maxY, visitor);
+  }
+
+  private boolean visit(int level, int node, double qMinX, double qMaxX, double qMinY, double qMaxY,
+                        Visitor visitor) {
+    if (!(minYs[node] <= qMaxY && maxYs[node] >= qMinY))
+      return true;
+    if (qMinX <= qMaxX) {
+      if (!(minXs[node] <= qMaxX && maxXs[node] >= qMinX))
+        return true;
+    } else {//query crosses the dateline
+      if (!(maxXs[node] >= qMinX || minXs[node] <= qMaxX))
+        return true;
+    }
+    if (level == 0)
+      return visitor.visit(ids[node]);
+    //node relative to its level determines the children in the level below
+    final int childStart = levelStarts[level - 1];
+    final int firstChild = childStart + (node - levelStarts[level]) * nodeCapacity;
+    final int endChild = Math.min(firstChild + nodeCapacity, levelStarts[level]);
+    for (int child = firstChild; child < endChild; child++) {
+      if (!visit(level - 1, child, qMinX, qMaxX, qMinY, qMaxY, visitor))
+        return false;
+    }
+    return true;
+  }
+
+}
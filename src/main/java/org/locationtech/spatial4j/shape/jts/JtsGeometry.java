@@ -39,8 +39,10 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
   private final Geometry geom;//cannot be a direct instance of GeometryCollection as it doesn't support relate()
   private final boolean hasArea;
   private final Rectangle bbox;
-  protected PreparedGeometry preparedGeometry;
+  protected volatile PreparedGeometry preparedGeometry;//see index()
   protected boolean validated = false;
+  private int relatesUntilIndex = -1;//see indexAfterRelates()
+  private volatile JtsSegmentIndex segmentIndex;//built lazily by relate(Circle) once indexed
 
   public JtsGeometry(Geometry geom, JtsSpatialContext ctx, boolean dateline180Check, boolean allowMultiOverlap) {
     super(ctx);
@@ -140,12 +142,25 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
    * Adds an index to this class internally to compute spatial relations faster. In JTS this
    * is called a {@link org.locationtech.jts.geom.prep.PreparedGeometry}.  This
    * isn't done by default because it takes some time to do the optimization, and it uses more
-   * memory.  Calling this method isn't thread-safe so be careful when this is done. If it was
-   * already indexed then nothing happens.
+   * memory.  It's thread-safe and may be called while other threads use this shape; they see the
+   * index once it's ready.  If it was already indexed then nothing happens.
    */
   public void index() {
-    if (preparedGeometry == null)
+    if (preparedGeometry == null) {
+      //in a race, a couple threads may prepare it; harmless.  PreparedGeometry is thread-safe.
       preparedGeometry = PreparedGeometryFactory.prepare(geom);
+    }
+  }
+
+  /**
+   * Calls {@link #index()} once relate() has been called this many more times, so
+   * that frequently used shapes get faster without paying the memory for the rest.  The count is
+   * approximate when relate() is called concurrently.  A negative value cancels it.
+   *
+   * @see org.locationtech.spatial4j.shape.jts.JtsShapeFactory#getAutoIndexRelateCount()
+   */
+  public void indexAfterRelates(int numRelates) {
+    relatesUntilIndex = numRelates;
   }
 
   @Override
@@ -251,6 +266,11 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
       return bboxR;
     // The result could be anything still.
 
+    countRelate();
+    final PreparedGeometry preparedGeometry = this.preparedGeometry;//volatile read once
+    if (preparedGeometry != null)
+      return relateIndexed(circle, preparedGeometry);
+
     final SpatialRelation[] result = {null};
     // Visit each geometry (this geom might contain others).
     geom.apply(new GeometryFilter() {
@@ -358,6 +378,26 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
     return result[0] == null ? SpatialRelation.DISJOINT : result[0];
   }
 
+  /**
+   * Like the non-indexed algorithm in {@link #relate(Circle)} but it only looks at the segments near
+   * the circle, and it returns as soon as one crosses the circle's edge.
+   */
+  private SpatialRelation relateIndexed(Circle circle, PreparedGeometry preparedGeometry) {
+    JtsSegmentIndex segmentIndex = this.segmentIndex;
+    if (segmentIndex == null) {
+      //in a race, a couple threads may build it; harmless
+      segmentIndex = new JtsSegmentIndex(geom, ctx);
+      this.segmentIndex = segmentIndex;
+    }
+    SpatialRelation rel = segmentIndex.relate(circle);
+    if (rel == SpatialRelation.DISJOINT && hasArea
+        && preparedGeometry.intersects(ctx.getGeometryFrom(circle.getCenter()))) {
+      // no edge touches the circle yet a polygon (not a hole) has its center
+      rel = SpatialRelation.CONTAINS;
+    }
+    return rel;
+  }
+
   public SpatialRelation relate(JtsGeometry jtsGeometry) {
     //don't bother checking bbox since geom.relate() does this already
     return relate(jtsGeometry.geom);
@@ -365,6 +405,8 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
 
   protected SpatialRelation relate(Geometry oGeom) {
     //see http://docs.geotools.org/latest/userguide/library/jts/dim9.html#preparedgeometry
+    countRelate();
+    final PreparedGeometry preparedGeometry = this.preparedGeometry;//volatile read once
     if (oGeom instanceof org.locationtech.jts.geom.Point) {
       if (preparedGeometry != null)
         return preparedGeometry.disjoint(oGeom) ? SpatialRelation.DISJOINT : SpatialRelation.CONTAINS;
@@ -381,6 +423,12 @@ public class JtsGeometry extends BaseShape<JtsSpatialContext> {
     return SpatialRelation.DISJOINT;
   }
 
+  /** Counts down to {@link #index()}; see {@link #indexAfterRelates(int)}. */
+  private void countRelate() {
+    if (relatesUntilIndex >= 0 && --relatesUntilIndex < 0)
+      index();
+  }
+
   public static SpatialRelation intersectionMatrixToSpatialRelation(IntersectionMatrix matrix) {
     //As indicated in SpatialRelation javadocs, Spatial4j CONTAINS & WITHIN are
     // OGC's COVERS & COVEREDBY
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.shape.jts;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryComponentFilter;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.CartesianDistCalc;
+import org.locationtech.spatial4j.shape.Circle;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+import org.locationtech.spatial4j.shape.impl.PackedBBoxTree;
+
+/**
+ * (INTERNAL) The line segments of a geometry's rings and line strings, plus its points as zero
+ * length segments, in a {@link PackedBBoxTree}.  Segments are packed in their order along each
+ * line, so the tree nodes group runs of consecutive segments much like monotone chains do.
+ * Used by {@link JtsGeometry#relate(Circle)} once indexed.  It's immutable and thus thread-safe.
+ */
+class JtsSegmentIndex {
+
+  private final double[] x1s, y1s, x2s, y2s;
+  private final PackedBBoxTree tree;
+
+  JtsSegmentIndex(Geometry geom, SpatialContext ctx) {
+    //count the segments
+    final int[] count = {0};
+    geom.apply(new GeometryComponentFilter() {
+      @Override
+      public void filter(Geometry geom) {
+        if (geom instanceof LineString) {
+          count[0] += Math.max(0, geom.getNumPoints() - 1);
+        } else if (geom instanceof org.locationtech.jts.geom.Point && !geom.isEmpty()) {
+          count[0]++;
+        }
+      }
+    });
+    x1s = new double[count[0]];
+    y1s = new double[count[0]];
+    x2s = new double[count[0]];
+    y2s = new double[count[0]];
+
+    //collect them
+    count[0] = 0;
+    geom.apply(new GeometryComponentFilter() {
+      @Override
+      public void filter(Geometry geom) {
+        if (geom instanceof LineString) {
+          final CoordinateSequence seq = ((LineString) geom).getCoordinateSequence();
+          for (int i = 1; i < seq.size(); i++) {
+            add(seq.getX(i - 1), seq.getY(i - 1), seq.getX(i), seq.getY(i));
+          }
+        } else if (geom instanceof org.locationtech.jts.geom.Point && !geom.isEmpty()) {
+          final org.locationtech.jts.geom.Point point = (org.locationtech.jts.geom.Point) geom;
+          add(point.getX(), point.getY(), point.getX(), point.getY());
+        }
+      }
+
+      void add(double x1, double y1, double x2, double y2) {
+        final int i = count[0]++;
+        x1s[i] = x1;
+        y1s[i] = y1;
+        x2s[i] = x2;
+        y2s[i] = y2;
+      }
+    });
+
+    final int size = x1s.length;
+    double[][] bounds = new double[4][size];
+    for (int i = 0; i < size; i++) {
+      bounds[0][i] = Math.min(x1s[i], x2s[i]);
+      bounds[1][i] = Math.max(x1s[i], x2s[i]);
+      bounds[2][i] = Math.min(y1s[i], y2s[i]);
+      bounds[3][i] = Math.max(y1s[i], y2s[i]);
+    }
+    tree = new PackedBBoxTree(bounds, ctx, PackedBBoxTree.DEFAULT_NODE_CAPACITY, false);
+  }
+
+  /**
+   * Relates the segments to the circle with Cartesian math, as {@link JtsGeometry#relate(Circle)}
+   * does. Returns INTERSECTS as soon as a segment crosses the circle's edge, WITHIN if all segments
+   * are inside the circle, otherwise DISJOINT meaning the segments don't touch the circle (yet the
+   * circle may be inside a polygon).  Only the segments near the circle are visited.
+   */
+  SpatialRelation relate(Circle circle) {
+    final CartesianDistCalc calcSqd = CartesianDistCalc.INSTANCE_SQUARED;
+    final Point center = circle.getCenter();
+    final double radius = circle.getRadius();
+    final double radiusSquared = radius * radius;
+    final int[] numInside = {0};
+    boolean finished = tree.visit(center.getX() - radius, center.getX() + radius,
+        center.getY() - radius, center.getY() + radius, new PackedBBoxTree.Visitor() {
+          @Override
+          public boolean visit(int i) {
+            final boolean outside1 = calcSqd.distance(center, x1s[i], y1s[i]) > radiusSquared;
+            final boolean outside2 = calcSqd.distance(center, x2s[i], y2s[i]) > radiusSquared;
+            if (outside1 != outside2)
+              return false;//crosses
+            if (!outside1) {
+              numInside[0]++;
+              return true;
+            }
+            //both ends are outside but the middle might not be
+            return calcSqd.distanceToLineSegment(center, x1s[i], y1s[i], x2s[i], y2s[i]) > radiusSquared;
+          }
+        });
+    if (!finished || numInside[0] > 0 && numInside[0] < tree.size())
+      return SpatialRelation.INTERSECTS;
+    return numInside[0] > 0 ? SpatialRelation.WITHIN : SpatialRelation.DISJOINT;
+  }
+}
@@ -47,6 +47,8 @@ public class JtsShapeFactory extends ShapeFactoryImpl {
   protected final DatelineRule datelineRule;
   protected final ValidationRule validationRule;
   protected final boolean autoIndex;
+  protected final int autoIndexVertexCount;
+  protected final int autoIndexRelateCount;
 
   /**
    * Called by {@link org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory#newSpatialContext()}.
@@ -62,6 +64,8 @@ public class JtsShapeFactory extends ShapeFactoryImpl {
     this.datelineRule = factory.datelineRule;
     this.validationRule = factory.validationRule;
     this.autoIndex = factory.autoIndex;
+    this.autoIndexVertexCount = factory.autoIndexVertexCount;
+    this.autoIndexRelateCount = factory.autoIndexRelateCount;
   }
 
   /**
@@ -99,6 +103,27 @@ public class JtsShapeFactory extends ShapeFactoryImpl {
     return autoIndex;
   }
 
+  /**
+   * If positive, JtsGeometry shapes with at least this many vertices are automatically "prepared"
+   * (i.e. optimized) when made. Not applicable if {@link #isAutoIndex()}.
+   *
+   * @see org.locationtech.spatial4j.shape.jts.JtsGeometry#index()
+   */
+  public int getAutoIndexVertexCount() {
+    return autoIndexVertexCount;
+  }
+
+  /**
+   * If positive, JtsGeometry shapes that weren't otherwise "prepared" (i.e. optimized) when made
+   * are prepared once relate() has been called on them this many times.  Not applicable if
+   * {@link #isAutoIndex()}.
+   *
+   * @see org.locationtech.spatial4j.shape.jts.JtsGeometry#indexAfterRelates(int)
+   */
+  public int getAutoIndexRelateCount() {
+    return autoIndexRelateCount;
+  }
+
   @Override
   public double normX(double x) {
     x = super.normX(x);
@@ -530,8 +555,11 @@ public class JtsShapeFactory extends ShapeFactoryImpl {
    */
   public JtsGeometry makeShape(Geometry geom, boolean dateline180Check, boolean allowMultiOverlap) {
     JtsGeometry jtsGeom = new JtsGeometry(geom, (JtsSpatialContext) ctx, dateline180Check, allowMultiOverlap);
-    if (isAutoIndex()) {
+    if (isAutoIndex()
+        || autoIndexVertexCount > 0 && jtsGeom.getGeom().getNumPoints() >= autoIndexVertexCount) {
       jtsGeom.index();
+    } else if (autoIndexRelateCount > 0) {
+      jtsGeom.indexAfterRelates(autoIndexRelateCount);
     }
     return jtsGeom;
   }
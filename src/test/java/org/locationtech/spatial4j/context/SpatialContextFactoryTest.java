@@ -84,8 +84,12 @@ public class SpatialContextFactoryTest {
         "wktShapeParserClass", CustomWktShapeParser.class.getName(),
         "datelineRule", "ccwRect",
         "validationRule", "repairConvexHull",
-        "autoIndex", "true");
+        "autoIndex", "true",
+        "autoIndexVertexCount", "1000",
+        "autoIndexRelateCount", "50");
     assertTrue(ctx.isNormWrapLongitude());
+    assertEquals(1000, ctx.getShapeFactory().getAutoIndexVertexCount());
+    assertEquals(50, ctx.getShapeFactory().getAutoIndexRelateCount());
     assertEquals(2.0, ctx.getGeometryFactory().getPrecisionModel().getScale(), 0.0);
     assertTrue(CustomWktShapeParser.once);//cheap way to test it was created
     assertEquals(DatelineRule.ccwRect,
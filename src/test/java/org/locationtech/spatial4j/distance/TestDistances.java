@@ -18,7 +18,10 @@ import org.locationtech.spatial4j.shape.impl.PointImpl;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.BitSet;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.locationtech.spatial4j.distance.DistanceUtils.DEG_TO_KM;
 import static org.locationtech.spatial4j.distance.DistanceUtils.KM_TO_DEG;
@@ -98,6 +101,88 @@ public class TestDistances extends RandomizedTest {
     return p2RAD;//now it's in degrees
   }
 
+  @Test
+  public void testBulkDistances() {
+    BulkDistanceCalculator[] calcs = {new GeodesicSphereDistCalc.Haversine(), new GeodesicSphereDistCalc.LawOfCosines(),
+        new GeodesicSphereDistCalc.Vincenty(), CartesianDistCalc.INSTANCE, CartesianDistCalc.INSTANCE_SQUARED};
+    final int numPoints = randomIntBetween(1, 100);
+    final double[] xs = new double[numPoints];
+    final double[] ys = new double[numPoints];
+    Point from = randomGeoPoint();
+    for (int i = 0; i < numPoints; i++) {
+      Point p = randomGeoPointFrom(from);
+      xs[i] = p.getX();
+      ys[i] = p.getY();
+    }
+    xs[0] = from.getX();//same position edge case
+    ys[0] = from.getY();
+    final int offset = randomInt(numPoints - 1);
+    final int length = randomInt(numPoints - offset);
+    final double distance = randomDouble() * 180;
+
+    for (BulkDistanceCalculator calc : calcs) {
+      double[] out = new double[numPoints];
+      calc.distances(from, xs, ys, offset, length, out);
+      BitSet bits = new BitSet();
+      int count = calc.within(from, xs, ys, offset, length, distance, bits);
+      assertEquals(bits.cardinality(), count);
+      for (int i = 0; i < numPoints; i++) {
+        String msg = calc + " i=" + i;
+        if (i < offset || i >= offset + length) {
+          assertEquals(msg, 0, out[i], 0);
+          assertFalse(msg, bits.get(i));
+        } else {
+          assertEquals(msg, calc.distance(from, xs[i], ys[i]), out[i], 0);
+          assertEquals(msg, calc.within(from, xs[i], ys[i], distance), bits.get(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPrepareWithin() {
+    BulkDistanceCalculator[] calcs = {new GeodesicSphereDistCalc.Haversine(), new GeodesicSphereDistCalc.LawOfCosines(),
+        new GeodesicSphereDistCalc.Vincenty(), CartesianDistCalc.INSTANCE};
+    for (BulkDistanceCalculator calc : calcs) {
+      for (int i = 0; i < 100; i++) {
+        Point from = randomGeoPoint();
+        double distDEG = randomBoolean() ? randomDouble() * 180 : randomDouble() * 0.01;
+        if (randomInt(10) == 0)
+          distDEG = randomBoolean() ? 0 : 180;
+        WithinPredicate predicate = calc.prepareWithin(from, distDEG);
+        for (int j = 0; j < 100; j++) {
+          Point p = j == 0 ? from : randomGeoPointFrom(from);
+          boolean expected = calc.within(from, p.getX(), p.getY(), distDEG);
+          if (predicate.within(p.getX(), p.getY()) != expected) {
+            // only points essentially on the edge may differ
+            assertEquals(calc + " " + from + " " + distDEG + " " + p,
+                distDEG, calc.distance(from, p), 1e-9);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPrepareWithinEdgeCases() {
+    BulkDistanceCalculator[] calcs = {new GeodesicSphereDistCalc.Haversine(), new GeodesicSphereDistCalc.LawOfCosines(),
+        new GeodesicSphereDistCalc.Vincenty()};
+    for (BulkDistanceCalculator calc : calcs) {
+      //across the dateline
+      WithinPredicate predicate = calc.prepareWithin(ctx.makePoint(179.5, 10), 1);
+      assertTrue(calc.toString(), predicate.within(-179.8, 10));
+      assertFalse(calc.toString(), predicate.within(-178, 10));
+      //around a pole; the bounding box spans all longitudes
+      predicate = calc.prepareWithin(ctx.makePoint(0, 89.5), 1);
+      assertTrue(calc.toString(), predicate.within(180, 89.9));
+      assertFalse(calc.toString(), predicate.within(180, 88));
+      //the antipode
+      predicate = calc.prepareWithin(ctx.makePoint(-30, 40), 180);
+      assertTrue(calc.toString(), predicate.within(150, -40));
+      predicate = calc.prepareWithin(ctx.makePoint(-30, 40), 179);
+      assertFalse(calc.toString(), predicate.within(150, -40));
+    }
+  }
 
   @Test /** See #81 */
   public void testHaversineNaN() {
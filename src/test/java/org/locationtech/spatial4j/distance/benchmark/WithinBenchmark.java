@@ -0,0 +1,102 @@
+package org.locationtech.spatial4j.distance.benchmark;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.BulkDistanceCalculator;
+import org.locationtech.spatial4j.distance.CartesianDistCalc;
+import org.locationtech.spatial4j.distance.DistanceCalculator;
+import org.locationtech.spatial4j.distance.GeodesicSphereDistCalc;
+import org.locationtech.spatial4j.distance.WithinPredicate;
+import org.locationtech.spatial4j.shape.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of a radius filter over many points: the single-point
+ * {@link DistanceCalculator#within(Point, double, double, double)} compared to the bulk
+ * {@link BulkDistanceCalculator#within(Point, double[], double[], int, int, double, BitSet)} and to
+ * {@link BulkDistanceCalculator#prepareWithin(Point, double)}. Each op filters {@link #NUM_POINTS}.
+ * See {@link org.locationtech.spatial4j.shape.benchmark.RelateBenchmark} for how to run it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WithinBenchmark {
+
+  private static final int NUM_POINTS = 10000;
+
+  @Param({"haversine", "lawOfCosines", "vincenty", "cartesian"})
+  public String calcName;
+
+  /** The radius in degrees; the points are spread over 90x90 degrees. */
+  @Param({"1", "20"})
+  public double distDEG;
+
+  private BulkDistanceCalculator calc;
+  private Point from;
+  private double[] xs;
+  private double[] ys;
+  private BitSet bits;
+
+  @Setup
+  public void setup() {
+    switch (calcName) {
+      case "haversine": calc = new GeodesicSphereDistCalc.Haversine(); break;
+      case "lawOfCosines": calc = new GeodesicSphereDistCalc.LawOfCosines(); break;
+      case "vincenty": calc = new GeodesicSphereDistCalc.Vincenty(); break;
+      case "cartesian": calc = CartesianDistCalc.INSTANCE; break;
+      default: throw new IllegalArgumentException(calcName);
+    }
+    Random random = new Random(0xF00D);
+    from = SpatialContext.GEO.getShapeFactory().pointXY(10, 20);
+    xs = new double[NUM_POINTS];
+    ys = new double[NUM_POINTS];
+    for (int i = 0; i < NUM_POINTS; i++) {
+      xs[i] = -35 + random.nextDouble() * 90;
+      ys[i] = -25 + random.nextDouble() * 90;
+    }
+    bits = new BitSet(NUM_POINTS);
+  }
+
+  @Benchmark
+  public int within() {
+    int count = 0;
+    for (int i = 0; i < NUM_POINTS; i++) {
+      if (calc.within(from, xs[i], ys[i], distDEG))
+        count++;
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int withinBulk() {
+    bits.clear();
+    return calc.within(from, xs, ys, 0, NUM_POINTS, distDEG, bits);
+  }
+
+  @Benchmark
+  public int prepareWithin() {
+    WithinPredicate predicate = calc.prepareWithin(from, distDEG);
+    int count = 0;
+    for (int i = 0; i < NUM_POINTS; i++) {
+      if (predicate.within(xs[i], ys[i]))
+        count++;
+    }
+    return count;
+  }
+}
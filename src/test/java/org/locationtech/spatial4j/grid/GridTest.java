@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.grid;
+
+import org.junit.Test;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.io.GeohashUtils;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.RandomizedShapeTest;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.ShapeCollection;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GridTest extends RandomizedShapeTest {
+
+  public GridTest() {
+    super(SpatialContext.GEO);
+  }
+
+  private Grid randomGrid() {
+    return randomBoolean() ? new QuadGrid(ctx, randomIntBetween(1, QuadGrid.MAX_LEVELS_POSSIBLE))
+        : new GeohashGrid(ctx, randomIntBetween(1, GeohashGrid.MAX_LEVELS_POSSIBLE));
+  }
+
+  @Test
+  public void testKeys() {
+    final Grid grid = randomGrid();
+    final Cell cell = grid.newCell();
+    assertEquals(0, cell.getLevel());
+    assertEquals("", cell.getToken());
+    assertEquals(ctx.getWorldBounds(), cell.getRectangle());
+
+    long key = grid.getWorldKey();
+    for (int level = 1; level <= grid.getMaxLevels(); level++) {
+      final long parentKey = key;
+      key = grid.getChildKey(parentKey, level - 1, randomInt((1 << grid.getBitsPerLevel()) - 1));
+      assertEquals(level, grid.getLevel(key));
+      assertEquals(parentKey, grid.getParentKey(key, level));
+      assertTrue(grid.isPrefixOf(parentKey, key));
+      assertFalse(grid.isPrefixOf(key, parentKey));
+      final String token = grid.toToken(key);
+      assertEquals(level, token.length());
+      assertEquals(key, grid.toKey(token));
+
+      //the child is in its parent
+      final Rectangle parentRect = cell.toShape();
+      cell.reset(key);
+      assertEquals(SpatialRelation.CONTAINS, parentRect.relate(cell.getRectangle()));
+      assertEquals(grid.getCellWidth(level), cell.getRectangle().getWidth(), 1e-9);
+      assertEquals(grid.getCellHeight(level), cell.getRectangle().getHeight(), 1e-9);
+    }
+    assertTrue(cell.isLeaf());
+  }
+
+  @Test
+  public void testGeohashGridMatchesGeohashUtils() {
+    final Grid grid = new GeohashGrid(ctx, GeohashGrid.MAX_LEVELS_POSSIBLE);
+    final String geohash = GeohashUtils.encodeLatLon(-90 + randomDouble() * 180, -180 + randomDouble() * 360,
+        randomIntBetween(1, GeohashGrid.MAX_LEVELS_POSSIBLE));
+    final long key = grid.toKey(geohash);
+    assertEquals(GeohashUtils.geohashToLong(geohash), key);
+    final Cell cell = grid.newCell();
+    cell.reset(key);
+    assertEquals(geohash, cell.getToken());
+    assertEquals(GeohashUtils.decodeBoundary(geohash, ctx), cell.getRectangle());
+  }
+
+  @Test
+  public void testCells() {
+    final Grid grid = randomGrid();
+    final Shape shape = randomBoolean() ? randomRectangle(10) : ctx.makeCircle(randomPoint(), randomIntBetween(0, 20));
+    //a degenerate rectangle or circle would be full precision, thus too many cells
+    final int detailLevel = Math.min(grid.getLevelForDistance(0.5),
+        grid.getLevelForDistErrPct(shape, 0.025 + randomDouble() / 10));
+    final List<Cell> leaves = new ArrayList<>();
+    grid.cells(shape, detailLevel, new Grid.Visitor() {
+      @Override
+      public boolean visit(Cell cell) {
+        assertTrue(cell.getLevel() <= detailLevel);
+        assertSame(cell.getShapeRel(), shape.relate(cell.getRectangle()));
+        assertTrue(cell.getShapeRel().intersects());
+        assertEquals(cell.getShapeRel() == SpatialRelation.CONTAINS || cell.getLevel() == detailLevel, cell.isLeaf());
+        if (cell.isLeaf()) {
+          Cell copy = cell.getGrid().newCell();
+          copy.reset(cell.getKey());
+          leaves.add(copy);
+        }
+        return true;
+      }
+    });
+    assertFalse(leaves.isEmpty());
+    final long[] keys = new long[leaves.size()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = leaves.get(i).getKey();
+      if (i > 0) {//sorted, disjoint
+        assertTrue(keys[i - 1] < keys[i]);
+        assertFalse(leaves.get(i - 1).isPrefixOf(leaves.get(i)));
+        assertTrue(leaves.get(i - 1).getToken().compareTo(leaves.get(i).getToken()) < 0);
+      }
+    }
+
+    //the leaves cover the shape
+    final Shape cellsShape = grid.toShape(keys);
+    final Rectangle bbox = shape.getBoundingBox();
+    for (int i = 0; i < 100; i++) {
+      final Point point = randomPointIn(bbox);
+      if (shape.relate(point) == SpatialRelation.CONTAINS)
+        assertEquals(SpatialRelation.CONTAINS, cellsShape.relate(point));
+    }
+  }
+
+  @Test
+  public void testCellsPruneAndPoint() {
+    final Grid grid = randomGrid();
+    final Point point = ctx.makePoint(12.345, -6.789);
+    final int[] count = new int[1];
+    grid.cells(point, grid.getMaxLevels(), new Grid.Visitor() {
+      @Override
+      public boolean visit(Cell cell) {
+        assertEquals(count[0]++, cell.getLevel());
+        assertEquals(SpatialRelation.WITHIN, cell.getShapeRel());
+        return true;
+      }
+    });
+    assertEquals(grid.getMaxLevels() + 1, count[0]);
+    assertEquals(grid.getMaxLevels(), grid.getLevelForDistErrPct(point, 0.025));
+
+    count[0] = 0;
+    grid.cells(ctx.makeRectangle(-10, 10, -10, 10), grid.getMaxLevels(), new Grid.Visitor() {
+      @Override
+      public boolean visit(Cell cell) {
+        count[0]++;
+        return false;//not the children
+      }
+    });
+    assertEquals(1, count[0]);
+  }
+
+  @Test
+  public void testToShape() {
+    final Grid grid = new QuadGrid(ctx, 4);
+    final long parent = grid.toKey("12");
+    //all children of "12", "12"'s child and "03" (within "0")
+    final long[] keys = {grid.toKey("123"), grid.toKey("121"), grid.toKey("0"), grid.toKey("120"),
+        grid.toKey("03"), grid.toKey("1223"), grid.toKey("122")};
+    Shape shape = grid.toShape(keys);
+    assertTrue(shape instanceof ShapeCollection);
+    final ShapeCollection<?> collection = (ShapeCollection<?>) shape;
+    assertEquals(2, collection.size());
+    final Cell cell = grid.newCell();
+    cell.reset(grid.toKey("0"));
+    assertEquals(cell.getRectangle(), collection.get(0));
+    cell.reset(parent);
+    assertEquals(cell.getRectangle(), collection.get(1));
+
+    //the 4 quadrants are the world
+    shape = grid.toShape(new long[]{grid.toKey("0"), grid.toKey("1"), grid.toKey("2"), grid.toKey("3")});
+    assertEquals(ctx.getWorldBounds(), shape);
+  }
+
+  @Test
+  public void testLevelForDistance() {
+    final Grid grid = new QuadGrid(ctx, 20);
+    assertEquals(1, grid.getLevelForDistance(360));
+    assertEquals(2, grid.getLevelForDistance(90));
+    assertEquals(20, grid.getLevelForDistance(0));
+    assertEquals(180, grid.getDistanceForLevel(1), 0);
+    assertEquals(0, Grid.calcDistanceFromErrPct(ctx.makePoint(1, 2), 0.025, ctx), 0);
+    assertTrue(Grid.calcDistanceFromErrPct(ctx.makeCircle(1, 2, 10), 0.025, ctx) > 0);
+  }
+}
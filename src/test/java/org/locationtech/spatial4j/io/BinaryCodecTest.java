@@ -14,8 +14,10 @@ import org.locationtech.spatial4j.shape.ShapeCollection;
 import org.junit.Test;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class BinaryCodecTest extends BaseRoundTripTest<SpatialContext> {
@@ -53,6 +55,28 @@ public class BinaryCodecTest extends BaseRoundTripTest<SpatialContext> {
     binaryCodec.writeShape(new DataOutputStream(baos), shape);
     ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
     assertEquals(shape, binaryCodec.readShape(new DataInputStream(bais)));
+
+    // ByteBuffer; same bytes, at an offset
+    byte[] bytes = baos.toByteArray();
+    ByteBuffer byteBuffer = randomBoolean() ? ByteBuffer.allocate(bytes.length + 10)
+        : ByteBuffer.allocateDirect(bytes.length + 10);
+    byteBuffer.position(3);
+    binaryCodec.writeShape(byteBuffer, shape);
+    assertEquals(3 + bytes.length, byteBuffer.position());
+    byte[] bufBytes = new byte[bytes.length];
+    byteBuffer.position(3);
+    byteBuffer.get(bufBytes);
+    assertArrayEquals(bytes, bufBytes);
+
+    byteBuffer.position(3);
+    assertEquals(binaryCodec.compact ? binaryCodec.compactTypeForShape(shape) : binaryCodec.typeForShape(shape),
+        binaryCodec.peekType(byteBuffer));
+    assertEquals(shape, binaryCodec.readShape(byteBuffer));
+    assertEquals(3 + bytes.length, byteBuffer.position());
+
+    byteBuffer.position(3);
+    assertEquals(shape.getBoundingBox(), binaryCodec.readBoundingBox(byteBuffer));
+    assertEquals(3 + bytes.length, byteBuffer.position());
   }
 
 }
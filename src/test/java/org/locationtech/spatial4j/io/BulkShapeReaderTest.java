@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import com.carrotsearch.randomizedtesting.RandomizedTest;
+import com.carrotsearch.randomizedtesting.annotations.ThreadLeakLingering;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.shape.Shape;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@ThreadLeakLingering(linger = 5000)//pool threads take a moment to end after termination
+public class BulkShapeReaderTest extends RandomizedTest {
+
+  private final SpatialContext ctx = SpatialContext.GEO;
+
+  @Test
+  public void testMixedFormatsInOrder() throws Exception {
+    List<Shape> expected = new ArrayList<>();//as read one at a time; null for errors
+    StringBuilder input = new StringBuilder();
+    int numLines = randomIntBetween(0, 3000);
+    for (int i = 0; i < numLines; i++) {
+      Shape shape = ctx.makePoint(randomIntBetween(-179, 179), randomIntBetween(-89, 89));
+      String line;
+      switch (randomInt(5)) {
+        case 0: line = ctx.getFormats().getWktWriter().toString(shape); break;
+        case 1: line = ctx.getFormats().getGeoJsonWriter().toString(shape); break;
+        case 2: line = ctx.getFormats().getWriter(ShapeIO.POLY).toString(shape); break;
+        case 3: line = "ENVELOPE(bogus"; break;
+        case 4: line = "   "; break;//skipped
+        default: line = "BUFFER(POINT(1 2), 3)";
+      }
+      input.append(line).append('\n');
+      if (!line.trim().isEmpty())
+        expected.add(ctx.getFormats().read(line));
+    }
+    ForkJoinPool pool = randomBoolean() ? null : new ForkJoinPool(randomIntBetween(1, 4));
+    BulkShapeReader bulkReader = new BulkShapeReader(ctx, null, pool, randomIntBetween(1, 100), false);
+    List<Shape> shapes = bulkReader.readAll(new StringReader(input.toString()));
+    if (pool != null) {
+      pool.shutdown();
+      pool.awaitTermination(1, TimeUnit.MINUTES);
+    }
+    assertEquals(expected, shapes);
+  }
+
+  @Test
+  public void testErrorsAndBinary() throws Exception {
+    String input = "POINT(1 2)\n\nPOINT(oops)\nENVELOPE(1, 2, 4, 3)\n";
+    final List<String> events = new ArrayList<>();
+    BulkShapeReader bulkReader = new BulkShapeReader(ctx, ctx.getFormats().getWktReader(), null, 2, true);
+    bulkReader.read(new ByteArrayInputStream(input.getBytes(Charset.forName("UTF-8"))), new BulkShapeReader.Handler() {
+      @Override
+      public void handleShape(long lineNumber, Shape shape, byte[] binary) throws IOException {
+        assertNotNull(binary);
+        assertEquals(shape, ctx.getBinaryCodec().readShape(new DataInputStream(new ByteArrayInputStream(binary))));
+        events.add(lineNumber + ":" + shape);
+      }
+
+      @Override
+      public void handleError(long lineNumber, String line, Exception error) {
+        assertTrue(error instanceof java.text.ParseException);
+        events.add(lineNumber + ":error:" + line);
+      }
+    });
+    assertEquals(3, events.size());
+    assertEquals("1:" + ctx.makePoint(1, 2), events.get(0));
+    assertEquals("3:error:POINT(oops)", events.get(1));
+    assertEquals("4:" + ctx.makeRectangle(1, 2, 3, 4), events.get(2));
+  }
+
+  @Test
+  public void testEmpty() throws Exception {
+    assertTrue(new BulkShapeReader(ctx).readAll(new StringReader("")).isEmpty());
+    List<Shape> shapes = new BulkShapeReader(ctx).readAll(new StringReader("bogus"));
+    assertEquals(1, shapes.size());
+    assertNull(shapes.get(0));
+  }
+
+  @Test
+  public void testBulkShapeWriter() throws Exception {
+    List<Shape> shapes = new ArrayList<>();
+    List<Shape> expected = new ArrayList<>();//as read one at a time
+    ShapeWriter shapeWriter = ctx.getFormats().getWriter(
+        randomFrom(new String[]{ShapeIO.WKT, ShapeIO.POLY, ShapeIO.TWKB}));//not GeoJSON; no polygons here
+    for (int i = randomIntBetween(0, 100); i > 0; i--) {
+      Shape shape;
+      switch (randomInt(2)) {
+        case 0: shape = ctx.makePoint(randomIntBetween(-179, 179), randomIntBetween(-89, 89)); break;
+        case 1: shape = ctx.makeRectangle(-10, randomIntBetween(0, 10), 5, randomIntBetween(5, 10)); break;
+        default: shape = ctx.makeCircle(randomIntBetween(-179, 179), randomIntBetween(-80, 80), 5);
+      }
+      shapes.add(shape);
+      expected.add(ctx.getFormats().read(shapeWriter.toString(shape)));
+    }
+    StringWriter output = new StringWriter();
+    assertEquals(shapes.size(), new BulkShapeWriter(shapeWriter).write(output, shapes));
+    assertEquals(expected, new BulkShapeReader(ctx).readAll(new StringReader(output.toString())));
+  }
+}
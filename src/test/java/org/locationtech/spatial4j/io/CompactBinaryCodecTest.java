@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.ShapeFactory;
+import org.locationtech.spatial4j.shape.impl.BufferedLineString;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompactBinaryCodecTest extends BinaryCodecTest {
+
+  @Override
+  public SpatialContext initContext() {
+    SpatialContextFactory factory = new SpatialContextFactory();
+    factory.geo = true;
+    factory.binaryCodecCompact = true;
+    return factory.newSpatialContext();
+  }
+
+  @Test
+  public void testBufferedLineString() throws Exception {
+    List<Point> points = new ArrayList<>();
+    final int numPoints = randomIntBetween(0, 50);
+    for (int i = 0; i < numPoints; i++) {
+      points.add(ctx.makePoint(randomIntBetween(-1800000, 1800000) / 1e4, randomIntBetween(-900000, 900000) / 1e4));
+    }
+    Shape shape = ctx.getShapeFactory().lineString(points, randomBoolean() ? 0 : 1.5);
+    assertTrue(shape instanceof BufferedLineString);
+    assertRoundTrip(shape);
+  }
+
+  @Test
+  public void testHomogeneousCollection() throws Exception {
+    List<Shape> shapes = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      shapes.add(ctx.makePoint(i, -i));
+    }
+    Shape collection = ctx.makeCollection(shapes);
+    assertRoundTrip(collection);
+    //the member type is written once, and each point is two 4 byte varints
+    assertTrue(toBytes(collection).length < 10 * 9);
+  }
+
+  @Test
+  public void testEmptyCollection() throws Exception {
+    assertRoundTrip(ctx.makeCollection(new ArrayList<Shape>()));
+  }
+
+  @Test
+  public void testPrecision() throws Exception {
+    Shape shape = ctx.makePoint(12.345678949, -0.12345676);
+    Shape expected = ctx.makePoint(12.3456789, -0.1234568);
+    assertEquals(expected, binaryCodec.readShape(new DataInputStream(new ByteArrayInputStream(toBytes(shape)))));
+  }
+
+  @Test
+  public void testOutOfRange() throws Exception {
+    //the default non-geo world bounds are +/- Double.MAX_VALUE
+    SpatialContextFactory factory = new SpatialContextFactory();
+    factory.geo = false;
+    factory.binaryCodecCompact = true;
+    SpatialContext cartesianCtx = factory.newSpatialContext();
+    BinaryCodec codec = cartesianCtx.getBinaryCodec();
+    ShapeFactory shapeFactory = cartesianCtx.getShapeFactory();
+    for (Shape shape : new Shape[]{shapeFactory.pointXY(1e12, 0), shapeFactory.pointXY(0, -1e12),
+        cartesianCtx.getWorldBounds(), shapeFactory.circle(0, 0, 1e13)}) {
+      try {
+        codec.writeShape(new DataOutputStream(new ByteArrayOutputStream()), shape);
+        fail(shape.toString());
+      } catch (IllegalArgumentException e) {
+        //expected
+      }
+    }
+    //just in range
+    Shape shape = shapeFactory.pointXY(9e11, -9e11);
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    codec.writeShape(new DataOutputStream(baos), shape);
+    assertEquals(shape, codec.readShape(ByteBuffer.wrap(baos.toByteArray())));
+  }
+
+  /** The compact codec reads the original format. */
+  @Test
+  public void testReadOriginalFormat() throws Exception {
+    BinaryCodec originalCodec = SpatialContext.GEO.getBinaryCodec();
+    Shape shape = ctx.makeCollection(Arrays.asList(randomShape(), randomShape()));
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    originalCodec.writeShape(new DataOutputStream(baos), shape);
+    byte[] bytes = baos.toByteArray();
+    assertEquals(shape, binaryCodec.readShape(new DataInputStream(new ByteArrayInputStream(bytes))));
+    assertEquals(shape, binaryCodec.readShape(ByteBuffer.wrap(bytes)));
+    //and vice versa
+    assertEquals(shape, originalCodec.readShape(ByteBuffer.wrap(toBytes(shape))));
+  }
+
+  private byte[] toBytes(Shape shape) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    binaryCodec.writeShape(new DataOutputStream(baos), shape);
+    return baos.toByteArray();
+  }
+
+}
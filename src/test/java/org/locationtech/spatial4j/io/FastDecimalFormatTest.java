@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import com.carrotsearch.randomizedtesting.RandomizedTest;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.math.RoundingMode;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class FastDecimalFormatTest extends RandomizedTest {
+
+  /** The format writers used before; the output must remain the same. */
+  private static NumberFormat makeDecimalFormat(int fractionDigits) {
+    NumberFormat nf = NumberFormat.getInstance(Locale.ROOT);
+    nf.setGroupingUsed(false);
+    nf.setMaximumFractionDigits(fractionDigits);
+    nf.setMinimumFractionDigits(0);
+    return nf;
+  }
+
+  private double randomValue() {
+    switch (randomIntBetween(0, 5)) {
+      case 0: return (randomDouble() - 0.5) * 360;
+      case 1: return (randomDouble() - 0.5) * Math.pow(10, randomIntBetween(-12, 17));
+      //values with few decimals, ties, and those a few ulps away: close to rounding boundaries
+      case 2: return randomIntBetween(-1000000, 1000000) / Math.pow(10, randomIntBetween(0, 9));
+      case 3: return (randomIntBetween(-1000000, 1000000) + 0.5) / Math.pow(10, randomIntBetween(0, 9));
+      case 4:
+        double v = randomIntBetween(-1000000, 1000000) / Math.pow(10, randomIntBetween(0, 9));
+        for (int i = randomIntBetween(1, 3); i > 0; i--) {
+          v = randomBoolean() ? Math.nextUp(v) : Math.nextAfter(v, Double.NEGATIVE_INFINITY);
+        }
+        return v;
+      default: return Double.longBitsToDouble(randomLong());
+    }
+  }
+
+  @Test
+  public void testSameAsDecimalFormat() throws Exception {
+    final double[] fixed = {0, -0.0, 1, -1, 0.5, 2.5, 5e-7, -5e-7, 2.5e-6, 1.0000005, 0.3, 2.675, 1e-20, 1e20,
+        Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    final RoundingMode[] modes = {RoundingMode.HALF_EVEN, RoundingMode.FLOOR, RoundingMode.CEILING,
+        RoundingMode.HALF_UP, RoundingMode.DOWN, RoundingMode.UP};
+    for (int iter = 0; iter < 20; iter++) {
+      int fractionDigits = iter == 0 ? 6 : randomIntBetween(0, 16);
+      RoundingMode mode = iter == 0 ? RoundingMode.HALF_EVEN : randomFrom(modes);
+      NumberFormat expected = makeDecimalFormat(fractionDigits);
+      expected.setRoundingMode(mode);
+      FastDecimalFormat nf = new FastDecimalFormat(fractionDigits);
+      nf.setRoundingMode(mode);
+      StringBuilder buffer = new StringBuilder();
+      for (int i = 0; i < fixed.length + 1000; i++) {
+        double v = i < fixed.length ? fixed[i] : randomValue();
+        String msg = v + " " + fractionDigits + " " + mode;
+        String str = expected.format(v);
+        assertEquals(msg, str, nf.format(v));
+        buffer.setLength(0);
+        assertEquals(msg, str, FastDecimalFormat.append(buffer, nf, v).toString());
+        StringWriter writer = new StringWriter();
+        FastDecimalFormat.write(writer, nf, v);
+        assertEquals(msg, str, writer.toString());
+      }
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    FastDecimalFormat nf = new FastDecimalFormat(-1);
+    assertEquals("0.1", nf.format(0.1));
+    assertEquals("-100", nf.format(-100.0));
+    assertEquals("0.000001", nf.format(1e-6));
+    assertEquals("100000000000000000000", nf.format(1e20));
+    for (int i = 0; i < 1000; i++) {
+      double v = randomValue();
+      if (Double.isNaN(v) || Double.isInfinite(v))
+        continue;
+      String str = nf.format(v);
+      assertEquals(str, Double.doubleToRawLongBits(v), Double.doubleToRawLongBits(Double.parseDouble(str)));
+      assertFalse(str, str.contains("E"));
+    }
+  }
+
+  @Test
+  public void testOtherSettings() throws Exception {
+    //not handled by the fast path but still work
+    FastDecimalFormat nf = new FastDecimalFormat(3);
+    nf.setMinimumFractionDigits(2);
+    assertEquals("1.50", nf.format(1.5));
+    nf.setMinimumFractionDigits(0);
+    nf.setGroupingUsed(true);
+    assertEquals("1,234.5", nf.format(1234.5));
+    assertEquals(1.5, nf.parse("1.5").doubleValue(), 0);
+  }
+}
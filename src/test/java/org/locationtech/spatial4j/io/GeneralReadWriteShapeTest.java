@@ -26,6 +26,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.locationtech.spatial4j.util.GeomBuilder;
 
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.Collections;
 
@@ -57,6 +58,9 @@ public abstract class GeneralReadWriteShapeTest extends BaseRoundTripTest<JtsSpa
   @Override
   protected void assertRoundTrip(Shape shape, boolean andEquals) throws Exception {
     String str = getShapeWriter().toString(shape);
+    StringWriter streamed = new StringWriter();
+    getShapeWriter().write(streamed, shape);
+    Assert.assertEquals(str, streamed.toString());
     Shape out = getShapeReader().read(str);
 
     // GeoJSON has limited numeric precision so the off by .0000001 does not affect its equals
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GeneralTWKBTest extends GeneralReadWriteShapeTest {
+
+  ShapeReader reader;
+  ShapeWriter writer;
+
+  @Before
+  @Override
+  public void setUp() {
+    super.setUp();
+
+    reader = ctx.getFormats().getReader(ShapeIO.TWKB);
+    writer = ctx.getFormats().getWriter(ShapeIO.TWKB);
+
+    Assert.assertNotNull(reader);
+    Assert.assertNotNull(writer);
+  }
+
+  @Override
+  protected ShapeReader getShapeReader() {
+    return reader;
+  }
+
+  @Override
+  protected ShapeWriter getShapeWriter() {
+    return writer;
+  }
+
+  @Override
+  protected ShapeWriter getShapeWriterForTests() {
+    return ctx.getFormats().getWktWriter();
+  }
+
+  @Test
+  @Override
+  public void testWriteThenReadBufferedLine() throws Exception {
+    //don't test shape equality; the builder doesn't expand the buffer for longitude skew
+    assertRoundTrip(bufferedLine(), false);
+  }
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import com.carrotsearch.randomizedtesting.RandomizedTest;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.shape.Shape;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GeoJSONFeatureReaderTest extends RandomizedTest {
+
+  private final JtsSpatialContext ctx = JtsSpatialContext.GEO;
+  private final GeoJSONReader geoJSONReader = (GeoJSONReader) ctx.getFormats().getReader(ShapeIO.GeoJSON);
+
+  private static final String COLLECTION = "{\"type\": \"FeatureCollection\",\n" +
+      "  \"bbox\": [100.0, 0.0, 105.0, 1.0],\n" +
+      "  \"features\": [\n" +
+      "    {\"type\": \"Feature\", \"id\": \"a\",\n" +
+      "      \"geometry\": {\"type\": \"Point\", \"coordinates\": [102.0, 0.5]},\n" +
+      "      \"properties\": {\"name\": \"first\", \"big\": {\"nested\": [1, 2, {\"x\": null}]}, \"rank\": 1}\n" +
+      "    },\n" +
+      "    {\"type\": \"Feature\",\n" +
+      "      \"properties\": {\"rank\": 2.5, \"name\": \"second\"},\n" +
+      "      \"id\": 7,\n" +
+      "      \"geometry\": {\"type\": \"Polygon\",\n" +
+      "        \"coordinates\": [[[100.0, 0.0], [101.0, 0.0], [101.0, 1.0], [100.0, 1.0], [100.0, 0.0]]]}\n" +
+      "    },\n" +
+      "    {\"type\": \"Feature\", \"geometry\": null, \"properties\": null},\n" +
+      "    {\"type\": \"Feature\", \"properties\": {\"name\": \"fourth\"},\n" +
+      "      \"geometry\": {\"type\": \"GeometryCollection\", \"geometries\": [\n" +
+      "        {\"type\": \"Point\", \"coordinates\": [1, 2]},\n" +
+      "        {\"type\": \"LineString\", \"coordinates\": [[1, 2], [3, 4]]}]}}\n" +
+      "  ],\n" +
+      "  \"crs\": {\"type\": \"name\", \"properties\": {\"name\": \"EPSG:4326\"}}\n" +
+      "}";
+
+  @Test
+  public void testFeatures() throws Exception {
+    try (GeoJSONFeatureReader features = geoJSONReader.readFeatures(new StringReader(COLLECTION), null)) {
+      assertTrue(features.next());
+      assertEquals(ctx.makePoint(102, 0.5), features.getShape());
+      assertEquals("a", features.getId());
+      assertEquals(Arrays.asList("name", "big", "rank"), Arrays.asList(features.getProperties().keySet().toArray()));
+      Map<String, Object> nested = new LinkedHashMap<>();
+      nested.put("x", null);
+      assertEquals(Collections.singletonMap("nested", Arrays.asList(1L, 2L, nested)),
+          features.getProperties().get("big"));
+
+      assertTrue(features.next());
+      assertEquals(ctx.makeRectangle(100, 101, 0, 1), features.getShape());
+      assertEquals(7L, features.getId());
+      assertEquals(2.5, features.getProperties().get("rank"));
+
+      assertTrue(features.next());
+      assertNull(features.getShape());
+      assertNull(features.getId());
+      assertTrue(features.getProperties().isEmpty());
+
+      assertTrue(features.next());
+      Shape shape = features.getShape();
+      assertEquals(geoJSONReader.read("{\"type\": \"GeometryCollection\", \"geometries\": [\n" +
+          "{\"type\": \"Point\", \"coordinates\": [1, 2]},\n" +
+          "{\"type\": \"LineString\", \"coordinates\": [[1, 2], [3, 4]]}]}"), shape);
+      assertEquals("fourth", features.getProperties().get("name"));
+
+      assertFalse(features.next());
+      assertFalse(features.next());
+    }
+  }
+
+  @Test
+  public void testSelectedProperties() throws Exception {
+    GeoJSONFeatureReader features = geoJSONReader.readFeatures(new StringReader(COLLECTION),
+        Collections.singleton("name"));
+    int count = 0;
+    while (features.next()) {
+      count++;
+      for (String key : features.getProperties().keySet()) {
+        assertEquals("name", key);
+      }
+    }
+    assertEquals(4, count);
+    features.close();
+  }
+
+  @Test
+  public void testManyFeatures() throws Exception {
+    int numFeatures = randomIntBetween(0, 2000);
+    StringBuilder json = new StringBuilder("{\"features\": [");
+    for (int i = 0; i < numFeatures; i++) {
+      if (i > 0)
+        json.append(',');
+      json.append("{\"type\": \"Feature\", \"id\": ").append(i)
+          .append(", \"geometry\": {\"type\": \"Point\", \"coordinates\": [").append(i % 180).append(", 1]}}");
+    }
+    json.append("], \"type\": \"FeatureCollection\"}");
+    GeoJSONFeatureReader features = geoJSONReader.readFeatures(new StringReader(json.toString()), null);
+    for (int i = 0; i < numFeatures; i++) {
+      assertTrue(features.next());
+      assertEquals((long) i, features.getId());
+      assertEquals(ctx.makePoint(i % 180, 1), features.getShape());
+    }
+    assertFalse(features.next());
+  }
+
+  @Test
+  public void testNoFeatures() throws Exception {
+    assertFalse(geoJSONReader.readFeatures(new StringReader(""), null).next());
+    assertFalse(geoJSONReader.readFeatures(new StringReader("{\"type\": \"FeatureCollection\"}"), null).next());
+  }
+
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.WKTReader;
+import org.junit.Test;
+
+public class JtsCompactBinaryCodecTest extends JtsBinaryCodecTest {
+
+  @Override
+  public SpatialContext initContext() {
+    JtsSpatialContextFactory factory = new JtsSpatialContextFactory();
+    //the same precision as the compact format so that it round-trips
+    factory.precisionModel = new PrecisionModel(1e7);
+    factory.binaryCodecCompact = true;
+    return factory.newSpatialContext();
+  }
+
+  @Test
+  public void testGeometryKinds() throws Exception {
+    for (String wkt : new String[]{
+        "POINT EMPTY",
+        "LINESTRING(1 2, 3 4.5, -5 6)",
+        "POLYGON((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 2 1, 2 2, 1 1))",
+        "POLYGON EMPTY",
+        "MULTIPOINT((1 2), (3 4))",
+        "MULTILINESTRING((1 2, 3 4), (5 6, 7 8))",
+        "MULTIPOLYGON(((0 0, 10 0, 10 10, 0 0)), ((20 20, 30 20, 30 30, 20 20)))"}) {
+      JtsSpatialContext ctx = (JtsSpatialContext)super.ctx;
+      Shape shape = ctx.makeShape(new WKTReader(ctx.getGeometryFactory()).read(wkt), false, false);
+      assertRoundTrip(shape);
+    }
+  }
+
+}
@@ -20,6 +20,8 @@ import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 /**
@@ -142,6 +144,37 @@ public class ShapeFormatTest {
   }
   
 
+  @Test
+  public void testReadGuessesFormat() throws Exception {
+    SupportedFormats formats = SpatialContext.GEO.getFormats();
+    assertGuess(formats, ShapeIO.GeoJSON, " {\"type\":\"Point\",\"coordinates\":[1,2]}", false);
+    assertGuess(formats, ShapeIO.WKT, "POINT(1 2)", false);
+    assertGuess(formats, ShapeIO.WKT, "ENVELOPE(1, 2, 4, 3)", false);
+    assertGuess(formats, ShapeIO.POLY, "0_x}aR_pR", false);
+    assertGuess(formats, ShapeIO.POLY, formats.getWriter(ShapeIO.POLY).toString(
+        SpatialContext.GEO.getShapeFactory().circle(1, 2, 3)), false);
+    assertGuess(formats, ShapeIO.TWKB, "01000204", false);
+    assertGuess(formats, ShapeIO.TWKB, formats.getWriter(ShapeIO.TWKB).toString(
+        SpatialContext.GEO.getShapeFactory().circle(1, 2, 3)), false);
+    assertGuess(formats, ShapeIO.LEGACY, "10 20", false);
+    assertGuess(formats, ShapeIO.LEGACY, "-10.5,20", false);
+    assertGuess(formats, ShapeIO.LEGACY, "1 2 3 4", false);
+    //guessed as WKT, but is legacy
+    assertGuess(formats, ShapeIO.LEGACY, "Circle(1 2 d=3)", true);
+    assertNull(formats.guessReader(" "));
+  }
+
+  private void assertGuess(SupportedFormats formats, String name, String value, boolean fallback)
+      throws Exception {
+    long fallbacks = formats.getFallbackCount();
+    Shape shape = formats.read(value);
+    assertEquals(formats.getReader(name).read(value), shape);
+    assertEquals(fallbacks + (fallback ? 1 : 0), formats.getFallbackCount());
+    if (!fallback) {
+      assertSame(formats.getReader(name), formats.guessReader(value));
+    }
+  }
+
   private String readFirstLineFromRsrc(String wktRsrcPath) throws IOException {
     InputStream is = getClass().getResourceAsStream(wktRsrcPath);
     assertNotNull(is);
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.junit.Test;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.shape.RandomizedShapeTest;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ShapeStoreTest extends RandomizedShapeTest {
+
+  public ShapeStoreTest() {
+    super(SpatialContext.GEO);
+  }
+
+  @Test
+  public void testGetAndScan() throws Exception {
+    List<Shape> shapes = new ArrayList<>();
+    for (int i = randomIntBetween(0, 300); i > 0; i--) {
+      switch (randomInt(3)) {
+        case 0: shapes.add(randomPoint()); break;
+        case 1: shapes.add(randomRectangle(10)); break;
+        case 2: shapes.add(ctx.makeCircle(randomPoint(), randomIntBetween(0, 20))); break;
+        default: shapes.add(ctx.makeCollection(Arrays.asList(randomPoint(), randomRectangle(10))));
+      }
+    }
+    Path file = newTempFile();
+    try (ShapeStoreWriter writer = new ShapeStoreWriter(ctx, file)) {
+      for (int i = 0; i < shapes.size(); i++) {
+        assertEquals(i, writer.add(shapes.get(i)));
+      }
+    }
+
+    ShapeStore store = new ShapeStore(ctx, file);
+    assertEquals(shapes.size(), store.size());
+    for (int i = 0; i < 50 && !shapes.isEmpty(); i++) {
+      int ordinal = randomInt(shapes.size() - 1);
+      assertEquals(shapes.get(ordinal), store.get(ordinal));
+      assertEquals(shapes.get(ordinal).getBoundingBox(), store.bbox(ordinal));
+    }
+
+    final Rectangle query = randomRectangle(10);
+    final List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < shapes.size(); i++) {
+      if (query.relate(shapes.get(i).getBoundingBox()).intersects())
+        expected.add(i);
+    }
+    final List<Integer> actual = new ArrayList<>();
+    assertTrue(store.scan(query, new ShapeStore.Visitor() {
+      @Override
+      public boolean visit(int ordinal) {
+        actual.add(ordinal);
+        return true;
+      }
+    }));
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void testJtsAndEmpty() throws Exception {
+    JtsSpatialContext jtsCtx = JtsSpatialContext.GEO;
+    Shape polygon = jtsCtx.getFormats().getWktReader().read("POLYGON((0 0, 10 0, 10 10, 0 0))");
+    Shape empty = jtsCtx.makePoint(Double.NaN, Double.NaN);
+    Path file = newTempFile();
+    try (ShapeStoreWriter writer = new ShapeStoreWriter(jtsCtx, file)) {
+      writer.add(polygon);
+      writer.add(empty);
+    }
+    ShapeStore store = new ShapeStore(jtsCtx, file);
+    assertEquals(polygon, store.get(0));
+    assertTrue(store.get(1).isEmpty());
+    assertTrue(store.bbox(1).isEmpty());
+    final int[] count = {0};
+    store.scan(jtsCtx.getWorldBounds(), new ShapeStore.Visitor() {
+      @Override
+      public boolean visit(int ordinal) {
+        assertEquals(0, ordinal);
+        count[0]++;
+        return true;
+      }
+    });
+    assertEquals(1, count[0]);
+    try {
+      store.get(2);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      //expected
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testIncomplete() throws Exception {
+    Path file = newTempFile();
+    ShapeStoreWriter writer = new ShapeStoreWriter(ctx, file);
+    writer.add(randomPoint());
+    try {
+      new ShapeStore(ctx, file);
+    } finally {
+      writer.close();
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.junit.Test;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.RandomizedShapeTest;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpaceFillingCurveTest extends RandomizedShapeTest {
+
+  public SpaceFillingCurveTest() {
+    super(randomBoolean() ? SpatialContext.GEO : cartesianContext());
+  }
+
+  private static SpatialContext cartesianContext() {
+    Map<String, String> args = new HashMap<>();
+    args.put("geo", "false");
+    args.put("worldBounds", "ENVELOPE(-1000, 1000, 500, -500)");
+    return SpatialContextFactory.makeSpatialContext(args, null);
+  }
+
+  private SpaceFillingCurve randomCurve(int maxOrder) {
+    return new SpaceFillingCurve(ctx, randomFrom(SpaceFillingCurve.Type.values()), randomIntBetween(1, maxOrder));
+  }
+
+  @Test
+  public void testEncodeDecode() {
+    final SpaceFillingCurve curve = randomCurve(SpaceFillingCurve.MAX_ORDER);
+    final double[] rect = new double[4];
+    for (int i = 0; i < 100; i++) {
+      final Point point = randomPoint();
+      final long key = curve.encode(point);
+      assertTrue(key >= 0 && key < 1L << (curve.getOrder() * 2));
+      curve.decodeToRect(key, rect);
+      assertTrue(point + " " + key, rect[0] <= point.getX() && point.getX() <= rect[1]
+          && rect[2] <= point.getY() && point.getY() <= rect[3]);
+    }
+  }
+
+  @Test
+  public void testHilbertAdjacency() {
+    final SpaceFillingCurve curve = new SpaceFillingCurve(ctx, SpaceFillingCurve.Type.HILBERT, randomIntBetween(1, 5));
+    final double[] rect = new double[4], prevRect = new double[4];
+    final long numKeys = 1L << (curve.getOrder() * 2);
+    curve.decodeToRect(0, prevRect);
+    for (long key = 1; key < numKeys; key++) {
+      curve.decodeToRect(key, rect);
+      //shares an edge with the previous cell
+      final boolean sameColumn = rect[0] == prevRect[0] && (rect[2] == prevRect[3] || rect[3] == prevRect[2]);
+      final boolean sameRow = rect[2] == prevRect[2] && (rect[0] == prevRect[1] || rect[1] == prevRect[0]);
+      assertTrue("key " + key, sameColumn || sameRow);
+      System.arraycopy(rect, 0, prevRect, 0, 4);
+    }
+  }
+
+  @Test
+  public void testMortonMatchesGeohash() {
+    final SpaceFillingCurve curve = new SpaceFillingCurve(SpatialContext.GEO, SpaceFillingCurve.Type.MORTON, 30);
+    final double lat = -90 + randomDouble() * 180;
+    final double lon = -180 + randomDouble() * 360;
+    final long geohash = GeohashUtils.encodeLatLonLong(lat, lon, 60);
+    assertEquals(geohash >>> 3, curve.encode(lon, lat));
+  }
+
+  @Test
+  public void testRanges() {
+    final SpaceFillingCurve curve = randomCurve(12);
+    final Shape shape;
+    if (randomBoolean()) {
+      final Point a = randomPoint(), b = randomPoint();
+      shape = ctx.isGeo() ? ctx.makeRectangle(a.getX(), b.getX(), Math.min(a.getY(), b.getY()), Math.max(a.getY(), b.getY()))
+          : ctx.makeRectangle(Math.min(a.getX(), b.getX()), Math.max(a.getX(), b.getX()),
+          Math.min(a.getY(), b.getY()), Math.max(a.getY(), b.getY()));
+    } else {
+      //non-geo circles must be within the world bounds
+      final Point center = ctx.isGeo() ? randomPoint() : randomPointIn(ctx.makeRectangle(-950, 950, -450, 450));
+      shape = ctx.makeCircle(center, randomIntBetween(0, 30));
+    }
+    final int maxRanges = randomIntBetween(1, 200);
+    final long[] ranges = curve.ranges(shape, maxRanges);
+    assertEquals(0, ranges.length % 2);
+    assertTrue(ranges.length / 2 <= maxRanges);
+    for (int i = 0; i < ranges.length; i += 2) {
+      assertTrue(ranges[i] <= ranges[i + 1]);
+      if (i > 0)
+        assertTrue(ranges[i - 1] + 1 < ranges[i]);//disjoint and not adjacent
+    }
+
+    //every point of the shape has a key in a range
+    final Rectangle bbox = shape.getBoundingBox();
+    for (int n = 0; n < 100; n++) {
+      final Point point = randomPointIn(bbox);
+      if (shape.relate(point) != SpatialRelation.CONTAINS)
+        continue;
+      final long key = curve.encode(point);
+      boolean found = false;
+      for (int i = 0; i < ranges.length && !found; i += 2) {
+        found = ranges[i] <= key && key <= ranges[i + 1];
+      }
+      assertTrue(point + " " + key, found);
+    }
+  }
+
+  @Test
+  public void testRangesLimits() {
+    final SpaceFillingCurve curve = randomCurve(SpaceFillingCurve.MAX_ORDER);
+    final long maxKey = (1L << (curve.getOrder() * 2)) - 1;
+    assertEquals(0, curve.ranges(ctx.makePoint(Double.NaN, Double.NaN), 10).length);
+    assertEquals(0, curve.ranges(ctx.getWorldBounds(), 10)[0]);
+    assertEquals(maxKey, curve.ranges(ctx.getWorldBounds(), 10)[1]);
+    //a point is in one cell (unless on a boundary)
+    final long[] ranges = curve.ranges(ctx.makePoint(0.123, 0.456), 1);
+    assertEquals(2, ranges.length);
+    assertEquals(curve.encode(0.123, 0.456), ranges[0]);
+    assertEquals(ranges[0], ranges[1]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInfiniteBounds() {
+    SpatialContextFactory factory = new SpatialContextFactory();
+    factory.geo = false;
+    new SpaceFillingCurve(factory.newSpatialContext(), SpaceFillingCurve.Type.HILBERT, 10);
+  }
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.io;
+
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.ShapeFactory;
+import org.locationtech.spatial4j.shape.jts.JtsGeometry;
+
+import java.io.ByteArrayOutputStream;
+import java.text.ParseException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TWKBTest {
+
+  private final SpatialContext ctx = SpatialContext.GEO;
+  private final ShapeFactory shpFactory = ctx.getShapeFactory();
+  private final TWKBReader reader = (TWKBReader) ctx.getFormats().getReader(ShapeIO.TWKB);
+
+  @Test
+  public void testSpecExamples() throws Exception {
+    TWKBWriter writer = new TWKBWriter(ctx, 0, false, false);
+    assertEquals("01000204", writer.toString(shpFactory.pointXY(1, 2)));
+    Shape line = shpFactory.lineString().pointXY(1, 2).pointXY(3, 4).build();
+    assertEquals("02000202040404", writer.toString(line));
+    assertEquals(line, reader.read("02000202040404"));
+    assertEquals("0110", writer.toString(shpFactory.pointXY(Double.NaN, Double.NaN)));
+  }
+
+  @Test
+  public void testHeaders() throws Exception {
+    TWKBWriter writer = new TWKBWriter(ctx, 0, true, true);
+    //size 6: the bbox (minX 1, deltaX 0, minY 2, deltaY 0) and the point
+    assertEquals("010306020004000204", writer.toString(shpFactory.pointXY(1, 2)));
+    assertEquals(shpFactory.pointXY(1, 2), reader.read("010306020004000204"));
+    //like PostGIS's ST_AsTWKB('LINESTRING(1 2,3 4)', 0, 0, 0, true, true): the deltas are zig-zag encoded
+    Shape line = shpFactory.lineString().pointXY(1, 2).pointXY(3, 4).build();
+    assertEquals("020309020404040202040404", writer.toString(line));
+    assertEquals(line, reader.read("020309020404040202040404"));
+
+    writer = new TWKBWriter(ctx, 6, true, true);
+    for (Shape shape : new Shape[]{shpFactory.rect(-10.5, 20.25, -5, 5),
+        shpFactory.rect(170, -170, -5, 5),//crosses the dateline
+        shpFactory.circle(1.5, 2.5, 3),
+        shpFactory.lineString().pointXY(1, 2).pointXY(3, 4).buffer(0.5).build(),
+        shpFactory.multiShape(Shape.class).add(shpFactory.pointXY(1, 2))
+            .add(shpFactory.rect(0, 1, 0, 1)).build()}) {
+      assertEquals(shape, reader.read(writer.toBytes(shape)));
+      assertEquals(shape, ctx.getFormats().read(writer.toString(shape)));
+    }
+  }
+
+  @Test
+  public void testPrecision() throws Exception {
+    assertEquals(shpFactory.pointXY(12.346, -0.001),
+        reader.read(new TWKBWriter(ctx, 3, false, false).toBytes(shpFactory.pointXY(12.3456, -0.0009))));
+    assertEquals(shpFactory.pointXY(120, -60),
+        reader.read(new TWKBWriter(ctx, -1, false, false).toBytes(shpFactory.pointXY(123.4, -56.78))));
+    try {
+      new TWKBWriter(ctx, 8, false, false);
+      fail();
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+  }
+
+  @Test
+  public void testOutOfRange() throws Exception {
+    SpatialContextFactory factory = new SpatialContextFactory();
+    factory.geo = false;
+    SpatialContext cartesianCtx = factory.newSpatialContext();
+    ShapeFactory cartesianFactory = cartesianCtx.getShapeFactory();
+    TWKBWriter writer = new TWKBWriter(cartesianCtx, 6, false, false);
+    for (Shape shape : new Shape[]{cartesianFactory.pointXY(1e13, 5), cartesianFactory.pointXY(5, -1e13),
+        cartesianFactory.circle(0, 0, 1e13), cartesianCtx.getWorldBounds()}) {
+      try {
+        writer.toBytes(shape);
+        fail(shape.toString());
+      } catch (IllegalArgumentException e) {
+        //expected
+      }
+    }
+    //just in range
+    Shape shape = cartesianFactory.pointXY(9e12, -9e12);
+    assertEquals(shape, ((TWKBReader) cartesianCtx.getFormats().getReader(ShapeIO.TWKB)).read(writer.toBytes(shape)));
+  }
+
+  @Test
+  public void testIdListAndM() throws Exception {
+    //MultiPoint, precision 0, ID list, M; ids 1 & 2; (1 2 5), (3 4 6)
+    Shape shape = reader.read("040C02" + "02" + "0204" + "02040A" + "040402");
+    assertEquals(shpFactory.multiPoint().pointXY(1, 2).pointXY(3, 4).build(), shape);
+  }
+
+  @Test
+  public void testBytes() throws Exception {
+    TWKBWriter writer = (TWKBWriter) ctx.getFormats().getWriter(ShapeIO.TWKB);
+    Shape shape = shpFactory.lineString().pointXY(-70.123456, 40.5).pointXY(-70.2, 40.654321).build();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.write(out, shape);
+    assertArrayEquals(writer.toBytes(shape), out.toByteArray());
+    assertEquals(writer.toString(shape).length(), out.size() * 2);
+    assertEquals(shape, reader.read(out.toByteArray()));
+  }
+
+  @Test
+  public void testInvalid() throws Exception {
+    for (String value : new String[]{"", "zz", "010", "0102", "0100", "01000204ff", "01200204", "0F000204"}) {
+      assertNull(value, reader.readIfSupported(value));
+      try {
+        reader.read(value);
+        fail(value);
+      } catch (ParseException e) {
+        //expected
+      }
+    }
+  }
+
+  @Test
+  public void testJts3D() throws Exception {
+    JtsSpatialContext jtsCtx = JtsSpatialContext.GEO;
+    Geometry geom = jtsCtx.getGeometryFactory().createLineString(new Coordinate[]{
+        new Coordinate(1, 2, 3), new Coordinate(4, 5, 6.5)});
+    Shape shape = jtsCtx.makeShape(geom);
+    ShapeWriter writer = jtsCtx.getFormats().getWriter(ShapeIO.TWKB);
+    Shape out = jtsCtx.getFormats().getReader(ShapeIO.TWKB).read(writer.toString(shape));
+    Geometry outGeom = ((JtsGeometry) out).getGeom();
+    assertTrue(geom.equalsExact(outGeom));
+    assertEquals(6.5, outGeom.getCoordinates()[1].z, 0);
+  }
+}
@@ -8,16 +8,27 @@
 
 package org.locationtech.spatial4j.io;
 
+import com.carrotsearch.randomizedtesting.RandomizedTest;
 import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.distance.DistanceUtils;
 import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
 import org.junit.Test;
 
+import java.util.Locale;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Tests for {@link GeohashUtils}
  */
-public class TestGeohashUtils {
+public class TestGeohashUtils extends RandomizedTest {
   SpatialContext ctx = SpatialContext.GEO;
 
   /**
@@ -112,4 +123,193 @@ public class TestGeohashUtils {
 
     assertEquals(GeohashUtils.MAX_PRECISION, GeohashUtils.lookupHashLenForWidthHeight(10e-20,10e-20));
   }
+
+  @Test
+  public void testLongMatchesString() {
+    for (int i = 0; i < 1000; i++) {
+      double lat, lon;
+      if (randomBoolean()) {
+        lat = -90 + randomDouble() * 180;
+        lon = -180 + randomDouble() * 360;
+      } else {//on a cell boundary, which is the lower cell's
+        lat = -90 + randomIntBetween(0, 1 << 12) * (180.0 / (1 << 12));
+        lon = -180 + randomIntBetween(0, 1 << 12) * (360.0 / (1 << 12));
+      }
+      //precision over 12 takes the bisection loop
+      final String slow = GeohashUtils.encodeLatLon(lat, lon, GeohashUtils.MAX_PRECISION);
+      final int precision = randomIntBetween(1, 12);
+      final String geohash = slow.substring(0, precision);
+      assertEquals(geohash, GeohashUtils.encodeLatLon(lat, lon, precision));
+
+      final long hash = GeohashUtils.encodeLatLonLong(lat, lon, precision * 5);
+      assertEquals(precision * 5, GeohashUtils.getLongHashBits(hash));
+      assertEquals(hash, GeohashUtils.geohashToLong(geohash));
+      assertEquals(hash, GeohashUtils.geohashToLong(geohash.toUpperCase(Locale.ROOT)));
+      assertEquals(geohash, GeohashUtils.longToGeohash(hash));
+
+      Rectangle rect = GeohashUtils.decodeBoundary(geohash, ctx);
+      double[] out = new double[4];
+      GeohashUtils.decodeToRect(hash, out);
+      assertArrayEquals(new double[]{rect.getMinX(), rect.getMaxX(), rect.getMinY(), rect.getMaxY()}, out, 0);
+    }
+  }
+
+  @Test
+  public void testLongBits() {
+    final double lat = -90 + randomDouble() * 180;
+    final double lon = -180 + randomDouble() * 360;
+    double[] out = new double[4];
+    long parent = GeohashUtils.encodeLatLonLong(lat, lon, 0);
+    assertEquals(1L << GeohashUtils.MAX_LONG_BITS, parent);
+    GeohashUtils.decodeToRect(parent, out);
+    assertArrayEquals(new double[]{-180, 180, -90, 90}, out, 0);
+    for (int bits = 1; bits <= GeohashUtils.MAX_LONG_BITS; bits++) {
+      final long hash = GeohashUtils.encodeLatLonLong(lat, lon, bits);
+      assertEquals(bits, GeohashUtils.getLongHashBits(hash));
+      //within the parent's range of longs
+      final long parentMarker = Long.lowestOneBit(parent);
+      assertTrue(hash > parent - parentMarker && hash <= parent + (parentMarker - 1));
+      //half the parent's cell, and contains the point
+      double[] parentRect = out.clone();
+      GeohashUtils.decodeToRect(hash, out);
+      assertTrue(out[0] <= lon && lon <= out[1] && out[2] <= lat && lat <= out[3]);
+      final boolean splitsLon = (bits & 1) == 1;
+      assertEquals((parentRect[1] - parentRect[0]) / (splitsLon ? 2 : 1), out[1] - out[0], 0);
+      assertEquals((parentRect[3] - parentRect[2]) / (splitsLon ? 1 : 2), out[3] - out[2], 0);
+      parent = hash;
+    }
+  }
+
+  @Test
+  public void testLongInvalid() {
+    for (String geohash : new String[]{"abc", "u4pr!", "u4pruydqqvj8u"}) {
+      try {
+        GeohashUtils.geohashToLong(geohash);
+        fail(geohash);
+      } catch (IllegalArgumentException e) {
+        //expected
+      }
+    }
+    try {
+      GeohashUtils.encodeLatLonLong(0, 0, GeohashUtils.MAX_LONG_BITS + 1);
+      fail();
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+    try {
+      GeohashUtils.longToGeohash(GeohashUtils.encodeLatLonLong(0, 0, 7));
+      fail();
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+    try {
+      GeohashUtils.decodeToRect(0, new double[4]);
+      fail();
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+  }
+
+  @Test
+  public void testNeighbors() {
+    assertArrayEquals(new String[]{"ezs48", "ezs49", "ezs43", "ezs41", "ezs40", "ezefp", "ezefr", "ezefx"},
+        GeohashUtils.getNeighbors("ezs42"));
+    //dateline
+    assertEquals("2", GeohashUtils.getNeighbor("r", 1, 0));
+    assertEquals("r", GeohashUtils.getNeighbor("2", -1, 0));
+    //poles
+    assertEquals(null, GeohashUtils.getNeighbor("b", 0, 1));
+    assertEquals(null, GeohashUtils.getNeighbor("0", -1, -1));
+    assertEquals(0, GeohashUtils.getNeighbor(GeohashUtils.geohashToLong("zzz"), 0, 1));
+
+    final int bits = randomIntBetween(2, GeohashUtils.MAX_LONG_BITS);
+    final long hash = GeohashUtils.encodeLatLonLong(-90 + randomDouble() * 180, -180 + randomDouble() * 360, bits);
+    double[] rect = new double[4];
+    GeohashUtils.decodeToRect(hash, rect);
+    long[] neighbors = new long[8];
+    GeohashUtils.getNeighbors(hash, neighbors);
+    for (int i = 0; i < 8; i++) {
+      if (neighbors[i] == 0) {
+        assertTrue(rect[2] == -90 || rect[3] == 90);
+        continue;
+      }
+      assertEquals(bits, GeohashUtils.getLongHashBits(neighbors[i]));
+      double[] neighborRect = new double[4];
+      GeohashUtils.decodeToRect(neighbors[i], neighborRect);
+      //touches, with the x distance modulo 360
+      final double dx = Math.abs((neighborRect[0] + neighborRect[1]) / 2 - (rect[0] + rect[1]) / 2) % 360;
+      assertEquals(rect[1] - rect[0], Math.min(dx, 360 - dx), 1e-9 + (i % 4 == 0 ? rect[1] - rect[0] : 0));
+      assertEquals(rect[3] - rect[2], Math.abs(neighborRect[2] - rect[2]), 1e-9 + (i % 4 == 2 ? rect[3] - rect[2] : 0));
+    }
+  }
+
+  @Test
+  public void testCover() {
+    final Shape shape;
+    if (randomBoolean()) {
+      final double minX = -180 + randomDouble() * 360;
+      final double minY = -90 + randomDouble() * 170;
+      shape = ctx.makeRectangle(minX, DistanceUtils.normLonDEG(minX + randomDouble() * 30), minY, minY + randomDouble() * 20);
+    } else {
+      shape = ctx.makeCircle(-180 + randomDouble() * 360, -90 + randomDouble() * 180, randomDouble() * 10);
+    }
+    final int precision = randomIntBetween(0, 6);
+    final int maxCells = randomIntBetween(1, 500);
+    final GeohashUtils.Covering covering = GeohashUtils.cover(shape, precision, maxCells);
+    assertTrue(covering.size() <= maxCells);
+
+    final double[] rect = new double[4];
+    for (int i = 0; i < covering.size(); i++) {
+      final String geohash = covering.getGeohash(i);
+      assertTrue(geohash.length() <= precision);
+      if (i > 0) {
+        assertTrue(covering.getHash(i - 1) < covering.getHash(i));
+        assertTrue(covering.getGeohash(i - 1).compareTo(geohash) < 0);
+        assertFalse(geohash.startsWith(covering.getGeohash(i - 1)));//disjoint
+      }
+      final SpatialRelation relation = shape.relate(GeohashUtils.decodeBoundary(geohash, ctx));
+      if (covering.isContained(i)) {
+        assertEquals(SpatialRelation.CONTAINS, relation);
+      } else {
+        assertTrue(relation.intersects() && relation != SpatialRelation.CONTAINS);
+      }
+    }
+
+    //every point of the shape is in a cell
+    final Rectangle bbox = shape.getBoundingBox();
+    for (int n = 0; n < 100; n++) {
+      final Point point = ctx.makePoint(DistanceUtils.normLonDEG(bbox.getMinX() + randomDouble() * bbox.getWidth()),
+          bbox.getMinY() + randomDouble() * bbox.getHeight());
+      if (shape.relate(point) != SpatialRelation.CONTAINS)
+        continue;
+      boolean found = false;
+      for (int i = 0; i < covering.size() && !found; i++) {
+        GeohashUtils.decodeToRect(covering.getHash(i), rect);
+        found = rect[0] <= point.getX() && point.getX() <= rect[1] && rect[2] <= point.getY() && point.getY() <= rect[3];
+      }
+      assertTrue(point + " not in " + covering, found);
+    }
+  }
+
+  @Test
+  public void testCoverLimits() {
+    final Shape world = ctx.getWorldBounds();
+    GeohashUtils.Covering covering = GeohashUtils.cover(world, 5, 100);
+    assertEquals(1, covering.size());
+    assertEquals("", covering.getGeohash(0));
+    assertTrue(covering.isContained(0));
+
+    assertEquals(0, GeohashUtils.cover(ctx.makePoint(Double.NaN, Double.NaN), 5, 100).size());
+
+    //a point is always in exactly one cell at each level (unless on a boundary)
+    covering = GeohashUtils.cover(ctx.makePoint(-5.6, 42.6), 12, 1);
+    assertEquals(1, covering.size());
+    assertEquals("ezs42e44yx96", covering.getGeohash(0));
+    assertFalse(covering.isContained(0));
+
+    //too few cells to split the root
+    covering = GeohashUtils.cover(ctx.makeRectangle(-100, 100, -10, 10), 5, 4);
+    assertEquals(1, covering.size());
+    assertEquals("", covering.getGeohash(0));
+  }
 }
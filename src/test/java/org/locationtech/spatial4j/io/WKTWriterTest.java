@@ -1,10 +1,15 @@
 package org.locationtech.spatial4j.io;
 
 import static org.junit.Assert.assertEquals;
+import java.io.StringWriter;
+import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import org.junit.Test;
 import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
 import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Shape;
 import org.locationtech.spatial4j.shape.ShapeCollection;
 
 public class WKTWriterTest {
@@ -34,4 +39,41 @@ public class WKTWriterTest {
 
     assertEquals("GEOMETRYCOLLECTION EMPTY", writer.toString(emptyCollection));
   }
+
+  @Test
+  public void testDecimals() throws Exception {
+    ShapeWriter writer = ctx.getFormats().getWktWriter();
+    assertEquals("POINT (1.234568 -0.1)", writer.toString(ctx.makePoint(1.23456789, -0.1)));
+    assertEquals("ENVELOPE (1.234567, 2.000001, 4, 3)",
+        writer.toString(ctx.makeRectangle(1.23456789, 2.0000001, 3, 4)));
+
+    SpatialContextFactory factory = new SpatialContextFactory();
+    factory.writerDecimals = -1;
+    SpatialContext ctx2 = factory.newSpatialContext();
+    assertEquals("POINT (1.23456789 -0.1)",
+        ctx2.getFormats().getWktWriter().toString(ctx2.makePoint(1.23456789, -0.1)));
+  }
+
+  /** Subclasses overriding the String based methods are honoured when writing to a Writer. */
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testLegacyOverrides() throws Exception {
+    WKTWriter writer = new WKTWriter() {
+      @Override
+      protected StringBuilder append(StringBuilder buffer, Point p, NumberFormat nf) {
+        return buffer.append(p.getY()).append(' ').append(p.getX());
+      }
+
+      @Override
+      public String toString(Shape shape) {
+        return shape instanceof Point ? "POINT! " + super.toString(shape) : super.toString(shape);
+      }
+    };
+    Shape shape = ctx.makeCollection(Arrays.asList(ctx.makePoint(1, 2), ctx.makeCircle(3, 4, 5)));
+    String expected = "GEOMETRYCOLLECTION (POINT! POINT (2.0 1.0),BUFFER (POINT (4.0 3.0), 5))";
+    assertEquals(expected, writer.toString(shape));
+    StringWriter output = new StringWriter();
+    writer.write(output, shape);
+    assertEquals(expected, output.toString());
+  }
 }
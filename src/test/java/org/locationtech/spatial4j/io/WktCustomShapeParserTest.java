@@ -14,7 +14,9 @@ import org.locationtech.spatial4j.shape.Shape;
 import org.locationtech.spatial4j.shape.impl.PointImpl;
 import org.junit.Test;
 
+import java.io.StringReader;
 import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 
@@ -50,6 +52,15 @@ public class WktCustomShapeParserTest extends WktShapeParserTest {
     assertEquals("custom3d", ((CustomShape) wkt("custom3d ()")).name);//number supported
   }
 
+  @Test
+  public void testReadUsesNewState() throws Exception {
+    MyWKTShapeParser wktReader = (MyWKTShapeParser) ctx.getFormats().getWktReader();
+    int numNewStates = wktReader.numNewStates.get();
+    assertEquals("customShape", ((CustomShape) wktReader.read(new StringReader("customShape()"))).name);
+    assertEquals("customShape", ((CustomShape) wktReader.read(new StringBuilder("customShape()"))).name);
+    assertEquals(numNewStates + 2, wktReader.numNewStates.get());
+  }
+
   @Test
   public void testNextSubShapeString() throws ParseException {
 
@@ -69,6 +80,8 @@ public class WktCustomShapeParserTest extends WktShapeParserTest {
   }
 
   public static class MyWKTShapeParser extends WKTReader {
+    final AtomicInteger numNewStates = new AtomicInteger();
+
     public MyWKTShapeParser(SpatialContext ctx, SpatialContextFactory factory) {
       super(ctx, factory);
     }
@@ -80,6 +93,7 @@ public class WktCustomShapeParserTest extends WktShapeParserTest {
       if (false)
         other.newState(wkt);
 
+      numNewStates.incrementAndGet();
       return new State(wkt);
     }
 
@@ -13,17 +13,22 @@ package org.locationtech.spatial4j.io;
 
 import com.carrotsearch.randomizedtesting.RandomizedTest;
 import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Rectangle;
 import org.locationtech.spatial4j.shape.Shape;
 import org.locationtech.spatial4j.shape.ShapeFactory;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.text.ParseException;
 import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class WktShapeParserTest extends RandomizedTest {
@@ -40,6 +45,18 @@ public class WktShapeParserTest extends RandomizedTest {
 
   protected void assertParses(String wkt, Shape expected) throws ParseException {
     assertEquals(wkt(wkt), expected);
+
+    //streaming, through a tiny buffer and a reader returning few chars at a time
+    WKTReader wktReader = (WKTReader) ctx.getFormats().getWktReader();
+    Reader reader = new StringReader(wkt) {
+      @Override
+      public int read(char[] cbuf, int off, int len) throws IOException {
+        return super.read(cbuf, off, Math.min(len, randomIntBetween(1, 5)));
+      }
+    };
+    assertEquals(expected, wktReader.parseIfSupported(wktReader.new State(reader, randomIntBetween(1, 20))));
+    //a CharSequence
+    assertEquals(expected, wktReader.parseIfSupported(wktReader.newState(new StringBuilder(wkt))));
   }
 
   protected Shape wkt(String wkt) throws ParseException {
@@ -105,6 +122,60 @@ public class WktShapeParserTest extends RandomizedTest {
     assertFails("POINT ZM EMPTY 1");
   }
 
+  @Test
+  public void testParseNumbers() throws ParseException {
+    WKTReader wktShapeParser = (WKTReader) ctx.getFormats().getWktReader();
+    String[] fixed = {"0", "-0", "+0.0", "00012", ".5", "5.", "1e3", "1E-3", "-2.5e+2", "123456789012345",
+        "1234567890123456789", "0.1234567890123456789", "1e22", "1e23", "4.9e-324", "1.7976931348623157e308",
+        "89.99999999999999", "-179.9999999"};
+    for (int i = 0; i < fixed.length + 1000; i++) {
+      String str;
+      if (i < fixed.length) {
+        str = fixed[i];
+      } else if (randomBoolean()) {
+        str = Double.toString((randomDouble() - 0.5) * 360);
+      } else {//a typical WKT coordinate
+        str = String.format(java.util.Locale.ROOT, "%." + randomIntBetween(0, 16) + "f", (randomDouble() - 0.5) * 360);
+      }
+      WKTReader.State state = wktShapeParser.newState(str);
+      assertEquals(str, Double.doubleToLongBits(Double.parseDouble(str)), Double.doubleToLongBits(state.nextDouble()));
+      assertTrue(state.eof());
+    }
+  }
+
+  @Test
+  public void testReadReader() throws Exception {
+    SpatialContextFactory streamingFactory = new SpatialContextFactory();
+    streamingFactory.wktStreaming = true;
+    for (WKTReader wktReader : new WKTReader[]{(WKTReader) ctx.getFormats().getWktReader(),
+        new WKTReader(ctx, streamingFactory)}) {
+      assertEquals(ctx.makePoint(1, 2), wktReader.read(new StringReader(" POINT (1 2) ")));
+      assertEquals(ctx.makePoint(1, 2), wktReader.read(new StringBuilder(" POINT (1 2) ")));
+      try {
+        wktReader.read(new StringReader("BogusShape"));
+        fail("ParseException expected");
+      } catch (ParseException e) {//expected
+      }
+      //IOExceptions from the reader are rethrown
+      final IOException ioException = new IOException("boom");
+      try {
+        wktReader.read(new Reader() {
+          @Override
+          public int read(char[] cbuf, int off, int len) throws IOException {
+            throw ioException;
+          }
+
+          @Override
+          public void close() {
+          }
+        });
+        fail("IOException expected");
+      } catch (IOException e) {
+        assertEquals(ioException, e);
+      }
+    }
+  }
+
   @Test
   public void testParseMultiPoint() throws ParseException {
     Shape s1 = ctx.getShapeFactory().multiPoint().pointXY(10, 40).build();
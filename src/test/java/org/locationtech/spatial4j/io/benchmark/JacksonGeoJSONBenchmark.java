@@ -0,0 +1,88 @@
+package org.locationtech.spatial4j.io.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
+import org.locationtech.spatial4j.context.jts.ValidationRule;
+import org.locationtech.spatial4j.io.jackson.ShapeAsGeoJSONSerializer;
+import org.locationtech.spatial4j.io.jackson.ShapeDeserializer;
+import org.locationtech.spatial4j.shape.Shape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the Jackson GeoJSON module on large polygons (the test resources russia.wkt.txt
+ * and fiji.wkt.txt).  {@link #deserialize()} streams from the parser's tokens, whereas
+ * {@link #deserializeTree()} builds a JsonNode tree first, as the deserializer used to.
+ * See {@link org.locationtech.spatial4j.shape.benchmark.RelateBenchmark} for how to run it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JacksonGeoJSONBenchmark {
+
+  @Param({"russia", "fiji"})
+  public String wktName;
+
+  private JtsSpatialContext ctx;
+  private ObjectMapper mapper;
+  private ShapeDeserializer deserializer;
+  private Shape shape;
+  private String json;
+
+  @Setup
+  public void setup() throws IOException, ParseException {
+    JtsSpatialContextFactory factory = new JtsSpatialContextFactory();
+    factory.normWrapLongitude = true;
+    factory.allowMultiOverlap = true;
+    factory.validationRule = ValidationRule.none;//so the JSON handling is most of the time
+    ctx = factory.newSpatialContext();
+    try (InputStream is = getClass().getResourceAsStream("/" + wktName + ".wkt.txt")) {
+      shape = ctx.getFormats().getWktReader().read(
+          new BufferedReader(new InputStreamReader(is, "UTF-8")).readLine());
+    }
+    deserializer = new ShapeDeserializer(ctx);
+    SimpleModule module = new SimpleModule();
+    module.addDeserializer(Shape.class, deserializer);
+    module.addSerializer(Shape.class, new ShapeAsGeoJSONSerializer());
+    mapper = new ObjectMapper();
+    mapper.registerModule(module);
+    json = mapper.writeValueAsString(shape);
+  }
+
+  @Benchmark
+  public Shape deserialize() throws IOException {
+    return mapper.readValue(json, Shape.class);
+  }
+
+  @Benchmark
+  public Shape deserializeTree() throws IOException {
+    return deserializer.read((ObjectNode) mapper.readTree(json), ctx.getShapeFactory());
+  }
+
+  @Benchmark
+  public String serialize() throws IOException {
+    return mapper.writeValueAsString(shape);
+  }
+}
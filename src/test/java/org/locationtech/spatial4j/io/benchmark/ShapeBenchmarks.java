@@ -19,6 +19,8 @@ public class ShapeBenchmarks {
     factory.geo = true;
     factory.normWrapLongitude = true;
     JtsSpatialContext ctx = new JtsSpatialContext(factory);
+    factory.binaryCodecCompact = true;
+    JtsSpatialContext compactCtx = new JtsSpatialContext(factory);
   
     PrintStream out = System.out;
 
@@ -50,6 +52,17 @@ public class ShapeBenchmarks {
         out.print(" | ");
         out.print("...");
         out.println();
+
+        baos = new ByteArrayOutputStream();
+        compactCtx.getBinaryCodec().writeShape(new DataOutputStream(baos), shape);
+
+        out.print(" compact binary | ");
+        out.print(baos.size());
+        out.print(" | ");
+        out.print(nf.format(poly/baos.size()));
+        out.print(" | ");
+        out.print("...");
+        out.println();
         
         for(ShapeWriter writer : ctx.getFormats().getWriters()) {
           if(writer instanceof LegacyShapeWriter) {
@@ -0,0 +1,111 @@
+package org.locationtech.spatial4j.io.benchmark;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.io.GeoJSONWriter;
+import org.locationtech.spatial4j.io.ShapeIO;
+import org.locationtech.spatial4j.io.ShapeWriter;
+import org.locationtech.spatial4j.io.WKTWriter;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Shape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of writing a collection of 1000 points to WKT or GeoJSON, as a query response would.
+ * {@link #write()} uses the writers' {@link org.locationtech.spatial4j.io.FastDecimalFormat}, and
+ * {@link #writeDecimalFormat()} the {@link java.text.DecimalFormat} they used before as a baseline;
+ * the output is the same.  {@link #writeRoundTrip()} writes all the digits instead of 6.
+ * See {@link org.locationtech.spatial4j.shape.benchmark.RelateBenchmark} for how to run it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShapeWriteBenchmark {
+
+  @Param({"WKT", "GeoJSON"})
+  public String format;
+
+  private Shape shape;
+  private ShapeWriter writer;
+  private ShapeWriter decimalFormatWriter;
+  private ShapeWriter roundTripWriter;
+
+  @Setup
+  public void setup() {
+    SpatialContextFactory factory = new SpatialContextFactory();
+    SpatialContext ctx = factory.newSpatialContext();
+    Random random = new Random(0xF00D);
+    List<Point> points = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      points.add(ctx.makePoint(random.nextDouble() * 360 - 180, random.nextDouble() * 180 - 90));
+    }
+    shape = ctx.makeCollection(points);
+    writer = ctx.getFormats().getWriter(format);
+
+    switch (format) {
+      case ShapeIO.WKT:
+        decimalFormatWriter = new WKTWriter(ctx, factory) {
+          @Override
+          protected NumberFormat getNumberFormat() {
+            return makeDecimalFormat();
+          }
+        };
+        break;
+      case ShapeIO.GeoJSON:
+        decimalFormatWriter = new GeoJSONWriter(ctx, factory) {
+          @Override
+          protected NumberFormat getNumberFormat() {
+            return makeDecimalFormat();
+          }
+        };
+        break;
+      default: throw new IllegalArgumentException(format);
+    }
+
+    factory.writerDecimals = -1;
+    roundTripWriter = factory.newSpatialContext().getFormats().getWriter(format);
+  }
+
+  private static NumberFormat makeDecimalFormat() {
+    NumberFormat nf = NumberFormat.getInstance(Locale.ROOT);
+    nf.setGroupingUsed(false);
+    nf.setMaximumFractionDigits(6);
+    nf.setMinimumFractionDigits(0);
+    return nf;
+  }
+
+  @Benchmark
+  public String write() {
+    return writer.toString(shape);
+  }
+
+  @Benchmark
+  public String writeDecimalFormat() {
+    return decimalFormatWriter.toString(shape);
+  }
+
+  @Benchmark
+  public String writeRoundTrip() {
+    return roundTripWriter.toString(shape);
+  }
+}
@@ -0,0 +1,108 @@
+package org.locationtech.spatial4j.io.benchmark;
+
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
+import org.locationtech.spatial4j.io.WKTReader;
+import org.locationtech.spatial4j.shape.Shape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of parsing large WKT multipolygons (the test resources russia.wkt.txt and
+ * fiji.wkt.txt).  {@link #parse()} is the whole parse into a JTS shape, and {@link #parseReader()}
+ * the same streaming from a Reader.  {@link #parseNumbers()} isolates the coordinate parsing of
+ * {@link WKTReader.State#nextDouble()}, and {@link #parseNumbersJdk()} does the same with
+ * {@link Double#parseDouble(String)} on substrings as a baseline.
+ * See {@link org.locationtech.spatial4j.shape.benchmark.RelateBenchmark} for how to run it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WktParseBenchmark {
+
+  @Param({"russia", "fiji"})
+  public String wktName;
+
+  private WKTReader reader;
+  private String wkt;
+
+  @Setup
+  public void setup() throws IOException {
+    JtsSpatialContextFactory factory = new JtsSpatialContextFactory();
+    factory.normWrapLongitude = true;
+    factory.allowMultiOverlap = true;
+    factory.wktStreaming = true;//for parseReader
+    JtsSpatialContext ctx = factory.newSpatialContext();
+    reader = (WKTReader) ctx.getFormats().getWktReader();
+    try (InputStream is = getClass().getResourceAsStream("/" + wktName + ".wkt.txt")) {
+      wkt = new BufferedReader(new InputStreamReader(is, "UTF-8")).readLine();
+    }
+  }
+
+  @Benchmark
+  public Shape parse() throws ParseException {
+    return reader.parse(wkt);
+  }
+
+  /** Like {@link #parse()} but streaming from a Reader. */
+  @Benchmark
+  public Shape parseReader() throws IOException, ParseException {
+    return reader.read(new StringReader(wkt));
+  }
+
+  /** Returns the sum of all numbers. */
+  @Benchmark
+  public double parseNumbers() throws ParseException {
+    WKTReader.State state = reader.new State(wkt);
+    double sum = 0;
+    while (!state.eof()) {
+      if (isNumberStart(wkt.charAt(state.offset)))
+        sum += state.nextDouble();
+      else
+        state.offset++;
+    }
+    return sum;
+  }
+
+  /** Like {@link #parseNumbers()} but the way nextDouble used to. */
+  @Benchmark
+  public double parseNumbersJdk() {
+    WKTReader.State state = reader.new State(wkt);
+    double sum = 0;
+    while (!state.eof()) {
+      if (isNumberStart(wkt.charAt(state.offset))) {
+        int start = state.offset;
+        state.skipDouble();
+        sum += Double.parseDouble(wkt.substring(start, state.offset));
+        state.nextIfWhitespace();
+      } else {
+        state.offset++;
+      }
+    }
+    return sum;
+  }
+
+  private static boolean isNumberStart(char c) {
+    return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.';
+  }
+}
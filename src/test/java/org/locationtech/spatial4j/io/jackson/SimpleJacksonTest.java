@@ -13,13 +13,19 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.Test;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.shape.Circle;
+import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.RandomizedShapeTest;
+import org.locationtech.spatial4j.shape.Shape;
 import org.locationtech.spatial4j.shape.jts.JtsShapeFactory;
 
 import java.io.IOException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class SimpleJacksonTest extends RandomizedShapeTest {
 
@@ -64,4 +70,70 @@ public class SimpleJacksonTest extends RandomizedShapeTest {
     ObjectWithGeometry deserialized = objectMapper.readValue(json, ObjectWithGeometry.class);
     assertEquals(obj.geo, deserialized.geo);
   }
+
+  @Test
+  public void testReadStreamingAnyKeyOrder() throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.registerModule(new ShapesAsGeoJSONModule());
+
+    //coordinates before type, and unknown members to skip
+    Shape shape = mapper.readValue("{\"coordinates\":[[1,2],[3,4]],\"bbox\":[1,2,3,4]," +
+        "\"foo\":{\"bar\":[1]},\"type\":\"LineString\"}", Shape.class);
+    assertEquals(ctx.getShapeFactory().lineString().pointXY(1, 2).pointXY(3, 4).build(), shape);
+
+    //properties before radius
+    shape = mapper.readValue("{\"properties\":{\"radius_units\":\"km\"},\"radius\":111.19492664455873," +
+        "\"coordinates\":[10,20],\"type\":\"Circle\"}", Shape.class);
+    assertEquals(ctx.getShapeFactory().pointXY(10, 20), ((Circle) shape).getCenter());
+    assertEquals(1, ((Circle) shape).getRadius(), 1e-4);
+
+    //3D position
+    Point point = (Point) mapper.readValue("{\"type\":\"Point\",\"coordinates\":[1,2,3]}", Shape.class);
+    assertEquals(ctx.getShapeFactory().pointXYZ(1, 2, 3), point);
+
+    //the same through a tree
+    ShapeDeserializer deserializer = new ShapeDeserializer(ctx);
+    shape = deserializer.read((com.fasterxml.jackson.databind.node.ObjectNode) mapper.readTree(
+        "{\"coordinates\":[[[0,0],[1,0],[1,1],[0,0]]],\"type\":\"Polygon\"}"), ctx.getShapeFactory());
+    assertEquals(ctx.getShapeFactory().polygon().pointXY(0, 0).pointXY(1, 0).pointXY(1, 1).pointXY(0, 0).build(),
+        shape);
+  }
+
+  @Test
+  public void testWriteJtsMultiPoint() throws IOException {
+    final JtsShapeFactory shapeFactory = ((JtsSpatialContext) ctx).getShapeFactory();
+    ObjectWithGeometry obj = new ObjectWithGeometry();
+    obj.name = "Hello";
+    obj.geo = shapeFactory.getGeometryFactory().createMultiPoint(
+        new Coordinate[]{new Coordinate(1, 2), new Coordinate(3, 4)});
+
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.registerModule(new ShapesAsGeoJSONModule());
+    mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    String json = mapper.writeValueAsString(obj);
+    assertTrue(json, json.contains("{\"type\":\"MultiPoint\",\"coordinates\":[[1.0,2.0],[3.0,4.0]]}"));
+    ObjectWithGeometry out = mapper.readValue(json, ObjectWithGeometry.class);
+    assertEquals(obj.geo, out.geo);
+  }
+
+  @Test
+  public void testWriteJtsMultiLineString() throws IOException {
+    final GeometryFactory geometryFactory = ((JtsSpatialContext) ctx).getShapeFactory().getGeometryFactory();
+    ObjectWithGeometry obj = new ObjectWithGeometry();
+    obj.name = "Hello";
+    obj.geo = geometryFactory.createMultiLineString(new LineString[]{
+        geometryFactory.createLineString(new Coordinate[]{new Coordinate(1, 2), new Coordinate(3, 4)}),
+        geometryFactory.createLineString(new Coordinate[]{new Coordinate(5, 6), new Coordinate(7, 8)})});
+
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.registerModule(new ShapesAsGeoJSONModule());
+    mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    String json = mapper.writeValueAsString(obj);
+    assertTrue(json, json.contains(
+        "{\"type\":\"MultiLineString\",\"coordinates\":[[[1.0,2.0],[3.0,4.0]],[[5.0,6.0],[7.0,8.0]]]}"));
+    ObjectWithGeometry out = mapper.readValue(json, ObjectWithGeometry.class);
+    assertEquals(obj.geo, out.geo);
+  }
 }
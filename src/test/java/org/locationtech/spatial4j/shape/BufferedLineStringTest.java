@@ -26,12 +26,22 @@ public class BufferedLineStringTest extends RandomizedTest {
 
   @Test
   public void testRectIntersect() {
+    testRectIntersect(2, 5);
+  }
+
+  @Test
+  public void testRectIntersectIndexed() {
+    // enough segments for the segments to be indexed
+    testRectIntersect(ShapeCollection.INDEX_MIN_SIZE + 1, ShapeCollection.INDEX_MIN_SIZE * 3);
+  }
+
+  private void testRectIntersect(final int minPoints, final int maxPoints) {
     new RectIntersectionTestHelper<BufferedLineString>(ctx) {
 
       @Override
       protected BufferedLineString generateRandomShape(Point nearP) {
         Rectangle nearR = randomRectangle(nearP);
-        int numPoints = 2 + randomInt(3);//2-5 points
+        int numPoints = randomIntBetween(minPoints, maxPoints);
 
         ArrayList<Point> points = new ArrayList<Point>(numPoints);
         while (points.size() < numPoints) {
@@ -299,8 +299,15 @@ public class JtsGeometryTest extends AbstractTestShapes {
   public void testPolyRelatesToCircle() throws ParseException {
     // The polygon is a triangle with a 90-degree angle and two equal sides, and with
     // a rectangular hole in the middle.
-    Shape poly = wkt(ctxNotGeo, "POLYGON ((1 1, 1 50, 50 1, 1 1), (10 10, 10 15, 15 15, 15 10, 10 10))");
+    JtsGeometry poly = (JtsGeometry) wkt(ctxNotGeo, "POLYGON ((1 1, 1 50, 50 1, 1 1), (10 10, 10 15, 15 15, 15 10, 10 10))");
+    assertPolyRelatesToCircle(poly);
+    // again, with the index
+    poly = (JtsGeometry) wkt(ctxNotGeo, poly.toString());
+    poly.index();
+    assertPolyRelatesToCircle(poly);
+  }
 
+  private void assertPolyRelatesToCircle(Shape poly) {
     assertRelation(WITHIN, poly, ctxNotGeo.makeCircle(25, 25, 40));
     assertRelation(CONTAINS, poly, ctxNotGeo.makeCircle(10, 25, 5));
     assertRelation(DISJOINT, poly, ctxNotGeo.makeCircle(35, 35, 5));
@@ -322,8 +329,16 @@ public class JtsGeometryTest extends AbstractTestShapes {
   public void testMultiLineStringRelatesToCircle() throws org.locationtech.jts.io.ParseException {
     // use JTS WKTReader to ensure we get one Geometry in the end
     org.locationtech.jts.io.WKTReader wktReader = new org.locationtech.jts.io.WKTReader();
-    Shape poly = ctxNotGeo.makeShape(wktReader.read("MULTILINESTRING ((5 20, 5 5, 20 5), (20 25, 30 15))"));
+    JtsGeometry poly = ctxNotGeo.makeShape(wktReader.read("MULTILINESTRING ((5 20, 5 5, 20 5), (20 25, 30 15))"));
     assertEquals(JtsGeometry.class, poly.getClass());
+    assertMultiLineStringRelatesToCircle(poly);
+    // again, with the index
+    poly = ctxNotGeo.makeShape(poly.getGeom());
+    poly.index();
+    assertMultiLineStringRelatesToCircle(poly);
+  }
+
+  private void assertMultiLineStringRelatesToCircle(Shape poly) {
 
     assertRelation(WITHIN, poly, ctxNotGeo.makeCircle(15, 15, 20));
     assertRelation(DISJOINT, poly, ctxNotGeo.makeCircle(15, 15, 5)); // much smaller now; doesn't touch anything
@@ -335,6 +350,22 @@ public class JtsGeometryTest extends AbstractTestShapes {
     // not CONTAINS is impossible with a circle; line strings don't contain anything
   }
 
+  @Test
+  public void testIndexedRelateToCircle() throws ParseException {
+    // islands, one with a lake that has an island
+    String wkt = "MULTIPOLYGON (((1 1, 1 50, 50 1, 1 1), (10 10, 10 15, 15 15, 15 10, 10 10)),"
+        + " ((60 60, 60 90, 90 90, 90 60, 60 60), (65 65, 85 65, 85 85, 65 85, 65 65)),"
+        + " ((70 70, 70 80, 80 80, 80 70, 70 70)))";
+    JtsGeometry plain = (JtsGeometry) wkt(ctxNotGeo, wkt);
+    JtsGeometry indexed = (JtsGeometry) wkt(ctxNotGeo, wkt);
+    indexed.index();
+    for (int i = 0; i < 1000; i++) {
+      Circle circle = ctxNotGeo.makeCircle(randomIntBetween(0, 100), randomIntBetween(0, 100),
+          randomIntBetween(0, 60));
+      assertEquals(circle.toString(), plain.relate(circle), indexed.relate(circle));
+    }
+  }
+
   private Shape wkt(SpatialContext ctx, String wkt) throws ParseException {
     return ((WKTReader) ctx.getFormats().getWktReader()).parse(wkt);
   }
@@ -11,6 +11,7 @@ package org.locationtech.spatial4j.shape;
 import org.locationtech.spatial4j.TestLog;
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.shape.impl.PackedBBoxTree;
 import org.locationtech.spatial4j.shape.impl.RectangleImpl;
 import org.junit.Rule;
 import org.junit.Test;
@@ -81,6 +82,52 @@ public class ShapeCollectionTest extends RandomizedShapeTest {
     new ShapeCollectionRectIntersectionTestHelper(ctx).testRelateWithRectangle();
   }
 
+  @Test
+  public void testIndexedRelate() {
+    for (SpatialContext ctx : Arrays.asList(SpatialContext.GEO, new SpatialContextFactory()
+        {{geo = false; worldBounds = new RectangleImpl(-100, 100, -50, 50, null);}}.newSpatialContext())) {
+      this.ctx = ctx;
+      List<Shape> shapes = new ArrayList<Shape>();
+      int count = randomIntBetween(ShapeCollection.INDEX_MIN_SIZE, 200);
+      for (int i = 0; i < count; i++) {
+        Rectangle r = randomRectangle(null);
+        if (!ctx.isGeo() || randomBoolean()) {//cartesian circles must be in the world bounds
+          shapes.add(r);
+        } else {
+          Point center = r.getCenter();
+          shapes.add(ctx.makeCircle(center, Math.min(r.getHeight(), 20) / 2));
+        }
+      }
+      // order independent so that we can compare the results exactly
+      ShapeCollection<Shape> indexed = new ShapeCollection<Shape>(shapes, ctx) {
+        @Override
+        protected boolean relateContainsShortCircuits() {
+          return false;
+        }
+      };
+      ShapeCollection<Shape> linear = new ShapeCollection<Shape>(shapes, ctx) {
+        @Override
+        protected boolean relateContainsShortCircuits() {
+          return false;
+        }
+
+        @Override
+        PackedBBoxTree getIndex() {
+          return null;
+        }
+      };
+      for (int i = 0; i < 100; i++) {
+        Shape query;
+        switch (randomInt(ctx.isGeo() ? 2 : 1)) {
+          case 0: query = randomPoint(); break;
+          case 1: query = randomRectangle(null); break;
+          default: query = ctx.makeCircle(randomPoint(), randomInt(30)); break;
+        }
+        assertEquals(query.toString(), linear.relate(query), indexed.relate(query));
+      }
+    }
+  }
+
   private class ShapeCollectionRectIntersectionTestHelper extends RectIntersectionTestHelper<ShapeCollection> {
 
     private ShapeCollectionRectIntersectionTestHelper(SpatialContext ctx) {
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2015 VoyagerSearch and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License, Version 2.0 which
+ * accompanies this distribution and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0.txt
+ ******************************************************************************/
+
+package org.locationtech.spatial4j.shape;
+
+import org.junit.Test;
+import org.locationtech.spatial4j.SpatialPredicate;
+import org.locationtech.spatial4j.context.SpatialContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ShapeIndexTest extends RandomizedShapeTest {
+
+  public ShapeIndexTest() {
+    super(SpatialContext.GEO);
+  }
+
+  private Shape randomShape() {
+    switch (randomInt(3)) {
+      case 0: return randomPoint();
+      case 1: return randomRectangle(10);
+      case 2: return ctx.makeCircle(randomPoint(), randomIntBetween(0, 20));
+      default: return ctx.makePoint(Double.NaN, Double.NaN);//empty
+    }
+  }
+
+  @Test
+  public void testQueryMatchesEvaluate() {
+    final List<Shape> shapes = new ArrayList<>();
+    for (int i = randomIntBetween(0, 500); i > 0; i--) {
+      shapes.add(randomShape());
+    }
+    final ShapeIndex<Shape> index = new ShapeIndex<>(shapes, ctx);
+    assertEquals(shapes.size(), index.size());
+
+    for (int q = 0; q < 10; q++) {
+      //sometimes an indexed shape, so that Equals & the like match
+      final Shape query = randomBoolean() || shapes.isEmpty() ? randomShape() : shapes.get(randomInt(shapes.size() - 1));
+      for (SpatialPredicate predicate : SpatialPredicate.values()) {
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < shapes.size(); i++) {
+          if (predicate.evaluate(shapes.get(i), query))
+            expected.add(i);
+        }
+        final List<Integer> actual = new ArrayList<>();
+        index.query(predicate, query, new ShapeIndex.Visitor() {
+          @Override
+          public boolean visit(int id) {
+            actual.add(id);
+            return true;
+          }
+        });
+        Collections.sort(actual);
+        assertEquals(predicate + " " + query, expected, actual);
+        assertEquals(expected.size(), index.query(predicate, query).size());
+      }
+    }
+  }
+
+  @Test
+  public void testStop() {
+    final List<Shape> shapes = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      shapes.add(ctx.makePoint(i, 0));
+    }
+    final ShapeIndex<Shape> index = new ShapeIndex<>(shapes, ctx);
+    assertSame(shapes.get(3), index.get(3));
+    final ShapeIndex.Visitor stopper = new ShapeIndex.Visitor() {
+      @Override
+      public boolean visit(int id) {
+        return false;
+      }
+    };
+    final Rectangle query = ctx.makeRectangle(-10, 10, -10, 10);
+    assertFalse(index.query(SpatialPredicate.Intersects, query, stopper));
+    assertFalse(index.query(SpatialPredicate.IsDisjointTo, query, stopper));
+    assertTrue(index.query(SpatialPredicate.Intersects, ctx.makeRectangle(-20, -10, -10, 10), stopper));
+  }
+}
@@ -0,0 +1,93 @@
+package org.locationtech.spatial4j.shape.benchmark;
+
+import org.locationtech.spatial4j.context.SpatialContext;
+import org.locationtech.spatial4j.context.SpatialContextFactory;
+import org.locationtech.spatial4j.shape.Rectangle;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+import org.locationtech.spatial4j.shape.impl.BufferedLine;
+import org.locationtech.spatial4j.shape.impl.RectangleImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of a quad-tree style grid walk, as a spatial prefix tree would do when indexing or
+ * searching a shape: each cell intersecting the shape is split into 4 until a maximum depth.  The
+ * cell rectangles are reused, so with {@code -prof gc} the allocation rate (B/op) shows what
+ * {@link Shape#relate(Shape)} allocates itself, which should be nothing.
+ * See {@link RelateBenchmark} for how to run it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GridWalkBenchmark {
+
+  @Param({"geoCircle", "geoCircleLarge", "geoCirclePole", "circle", "bufferedLine"})
+  public String shapeType;
+
+  @Param({"8"})
+  public int maxLevels;
+
+  private SpatialContext ctx;
+  private Shape shape;
+  private Rectangle[] cells;//by level
+
+  @Setup
+  public void setup() {
+    SpatialContextFactory factory = new SpatialContextFactory();
+    factory.geo = shapeType.startsWith("geo");
+    factory.worldBounds = new RectangleImpl(-180, 180, -90, 90, null);
+    ctx = factory.newSpatialContext();
+    switch (shapeType) {
+      case "geoCircle": shape = ctx.getShapeFactory().circle(-70, 40, 10); break;
+      case "geoCircleLarge": shape = ctx.getShapeFactory().circle(-70, 40, 120); break;
+      case "geoCirclePole": shape = ctx.getShapeFactory().circle(20, 80, 15); break;
+      case "circle": shape = ctx.getShapeFactory().circle(-70, 40, 10); break;
+      case "bufferedLine":
+        shape = new BufferedLine(ctx.getShapeFactory().pointXY(-80, 30),
+            ctx.getShapeFactory().pointXY(-60, 45), 2, ctx);
+        break;
+      default: throw new IllegalArgumentException(shapeType);
+    }
+    cells = new Rectangle[maxLevels + 1];
+    for (int i = 0; i < cells.length; i++) {
+      cells[i] = new RectangleImpl(0, 0, 0, 0, ctx);
+    }
+  }
+
+  /** Returns the number of cells that intersect the shape. */
+  @Benchmark
+  public int walk() {
+    return walk(0, -180, 180, -90, 90);
+  }
+
+  private int walk(int level, double minX, double maxX, double minY, double maxY) {
+    Rectangle cell = cells[level];
+    cell.reset(minX, maxX, minY, maxY);
+    SpatialRelation rel = shape.relate(cell);
+    if (rel == SpatialRelation.DISJOINT)
+      return 0;
+    if (rel == SpatialRelation.CONTAINS || level == maxLevels)
+      return 1;
+    final double midX = (minX + maxX) / 2;
+    final double midY = (minY + maxY) / 2;
+    return 1 + walk(level + 1, minX, midX, minY, midY)
+        + walk(level + 1, midX, maxX, minY, midY)
+        + walk(level + 1, minX, midX, midY, maxY)
+        + walk(level + 1, midX, maxX, midY, maxY);
+  }
+}
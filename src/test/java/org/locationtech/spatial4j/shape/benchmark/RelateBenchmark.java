@@ -0,0 +1,174 @@
+package org.locationtech.spatial4j.shape.benchmark;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContext;
+import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
+import org.locationtech.spatial4j.shape.Point;
+import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
+import org.locationtech.spatial4j.shape.impl.BufferedLine;
+import org.locationtech.spatial4j.shape.jts.JtsGeometry;
+import org.locationtech.spatial4j.shape.jts.JtsShapeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link Shape#relate(Shape)} for each pair of shape implementations, in both a
+ * geo and a Cartesian context.  Run it via the "benchmark" Maven profile; add {@code -prof gc} to
+ * the JMH arguments to see the allocation rate:
+ * <pre>
+ *   mvn -Pbenchmark clean test-compile exec:exec -Djmh.args="RelateBenchmark -p ctxName=geo -prof gc"
+ * </pre>
+ * Some pairs aren't supported by Spatial4j (e.g. a BufferedLine related to a Circle); those fail
+ * in setup with an {@link UnsupportedOperationException} and JMH moves on to the next pair.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RelateBenchmark {
+
+  /** Number of shapes of each type; a power of 2. */
+  private static final int NUM_SHAPES = 256;
+
+  @Param({"geo", "cartesian"})
+  public String ctxName;
+
+  /** The shape type whose relate() method is invoked. See {@link #makeShape(String, Random)}. */
+  @Param({"point", "rect", "circle", "bufferedLine", "bufferedLineString", "collection",
+      "jtsGeometry", "jtsGeometryIndexed"})
+  public String shapeType;
+
+  /** The shape type passed to relate(). */
+  @Param({"point", "rect", "circle", "bufferedLine", "bufferedLineString", "collection",
+      "jtsGeometry", "jtsGeometryIndexed"})
+  public String otherType;
+
+  private JtsSpatialContext ctx;
+  private Shape[] shapes;
+  private Shape[] others;
+  private int idx;
+
+  @Setup
+  public void setup() {
+    ctx = makeContext(ctxName.equals("geo"));
+    Random random = new Random(0xF00D);
+    shapes = new Shape[NUM_SHAPES];
+    others = new Shape[NUM_SHAPES];
+    for (int i = 0; i < NUM_SHAPES; i++) {
+      shapes[i] = makeShape(shapeType, random);
+      others[i] = makeShape(otherType, random);
+    }
+    // fail early (once) if this pair isn't supported
+    for (int i = 0; i < NUM_SHAPES; i++) {
+      shapes[i].relate(others[i]);
+    }
+  }
+
+  @Benchmark
+  public SpatialRelation relate() {
+    final int i = idx++ & (NUM_SHAPES - 1);
+    return shapes[i].relate(others[i]);
+  }
+
+  static JtsSpatialContext makeContext(boolean geo) {
+    JtsSpatialContextFactory factory = new JtsSpatialContextFactory();
+    factory.geo = geo;
+    // we want the non-JTS implementations for these
+    factory.useJtsPoint = false;
+    factory.useJtsLineString = false;
+    return factory.newSpatialContext();
+  }
+
+  /**
+   * Makes a shape of the given type around a random center in a region that is small enough to
+   * produce a mix of spatial relations.  "circle" is a GeoCircle when geo, otherwise a CircleImpl.
+   */
+  @SuppressWarnings("deprecation")//lineString(List, double) & multiShape(List): the builders can build other types
+  Shape makeShape(String type, Random random) {
+    final JtsShapeFactory shapeFactory = ctx.getShapeFactory();
+    final double x = randomIn(random, -40, 40);
+    final double y = randomIn(random, -40, 40);
+    switch (type) {
+      case "point":
+        return shapeFactory.pointXY(x, y);
+      case "rect":
+        return shapeFactory.rect(x, x + randomIn(random, 0, 20), y, y + randomIn(random, 0, 20));
+      case "circle":
+        return shapeFactory.circle(x, y, randomIn(random, 0, 10));
+      case "bufferedLine":
+        return new BufferedLine(shapeFactory.pointXY(x, y),
+            shapeFactory.pointXY(x + randomIn(random, -10, 10), y + randomIn(random, -10, 10)),
+            randomIn(random, 0, 2), ctx);
+      case "bufferedLineString":
+        return shapeFactory.lineString(randomWalk(x, y, 20, random), randomIn(random, 0, 1));
+      case "collection": {
+        List<Shape> shapes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+          final double cx = x + randomIn(random, -10, 10);
+          final double cy = y + randomIn(random, -10, 10);
+          switch (i % 3) {
+            case 0: shapes.add(shapeFactory.pointXY(cx, cy)); break;
+            case 1: shapes.add(shapeFactory.rect(cx, cx + 2, cy, cy + 2)); break;
+            default: shapes.add(shapeFactory.circle(cx, cy, 1)); break;
+          }
+        }
+        return shapeFactory.multiShape(shapes);
+      }
+      case "jtsGeometry":
+        return makePolygon(x, y, random);
+      case "jtsGeometryIndexed": {
+        JtsGeometry jtsGeometry = makePolygon(x, y, random);
+        jtsGeometry.index();
+        return jtsGeometry;
+      }
+      default:
+        throw new IllegalArgumentException("Unknown shape type: " + type);
+    }
+  }
+
+  private List<Point> randomWalk(double x, double y, int numPoints, Random random) {
+    List<Point> points = new ArrayList<>(numPoints);
+    for (int i = 0; i < numPoints; i++) {
+      points.add(ctx.getShapeFactory().pointXY(x, y));
+      x += randomIn(random, -2, 2);
+      y += randomIn(random, -2, 2);
+    }
+    return points;
+  }
+
+  /** A star-shaped (thus valid) polygon with 100 vertices around x,y. */
+  private JtsGeometry makePolygon(double x, double y, Random random) {
+    final int numVertices = 100;
+    Coordinate[] coords = new Coordinate[numVertices + 1];
+    for (int i = 0; i < numVertices; i++) {
+      double angle = 2 * Math.PI * i / numVertices;
+      double radius = randomIn(random, 5, 15);
+      coords[i] = new Coordinate(x + Math.cos(angle) * radius, y + Math.sin(angle) * radius);
+    }
+    coords[numVertices] = coords[0];
+    GeometryFactory geometryFactory = ctx.getShapeFactory().getGeometryFactory();
+    return ctx.getShapeFactory().makeShape(geometryFactory.createPolygon(coords));
+  }
+
+  private static double randomIn(Random random, double min, double max) {
+    return min + random.nextDouble() * (max - min);
+  }
+}
@@ -30,9 +30,14 @@ import org.locationtech.spatial4j.distance.DistanceUtils;
 import org.locationtech.spatial4j.distance.GeodesicSphereDistCalc;
 import org.locationtech.spatial4j.shape.Point;
 import org.locationtech.spatial4j.shape.Shape;
+import org.locationtech.spatial4j.shape.SpatialRelation;
 import org.locationtech.spatial4j.shape.impl.GeoCircle;
 import org.locationtech.spatial4j.shape.impl.PointImpl;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class JtsShapeFactoryTest {
@@ -54,6 +59,49 @@ public class JtsShapeFactoryTest {
     assertTrue(jtsGeom2.isIndexed());
   }
 
+  @Test
+  public void testAdaptiveIndex() throws InterruptedException {
+    JtsSpatialContextFactory ctxFactory = new JtsSpatialContextFactory();
+    ctxFactory.autoIndexVertexCount = 100;
+    ctxFactory.autoIndexRelateCount = 10;
+    JtsSpatialContext ctx = ctxFactory.newSpatialContext();
+    GeometryFactory geometryFactory = ctxFactory.getGeometryFactory();
+
+    //many vertices
+    Geometry big = geometryFactory.createPoint(new Coordinate(0,0)).buffer(10, 32);
+    assertTrue(big.getNumPoints() >= 100);
+    assertTrue(ctx.getShapeFactory().makeShape(big).isIndexed());
+
+    //few vertices; indexed after 10 relates, even when related concurrently
+    Geometry small = geometryFactory.createPoint(new Coordinate(0,0)).buffer(10, 2);
+    assertTrue(small.getNumPoints() < 100);
+    final JtsGeometry jtsGeom = ctx.getShapeFactory().makeShape(small);
+    final Point point = ctx.makePoint(1, 1);
+    for (int i = 0; i < 9; i++) {
+      assertEquals(SpatialRelation.CONTAINS, jtsGeom.relate(point));
+    }
+    assertFalse(jtsGeom.isIndexed());
+    final AtomicInteger failures = new AtomicInteger();
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 100; i++) {
+            if (jtsGeom.relate(point) != SpatialRelation.CONTAINS)
+              failures.incrementAndGet();
+          }
+        }
+      };
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(0, failures.get());
+    assertTrue(jtsGeom.isIndexed());
+  }
+
   @Test
   public void testEmptyPoint() {
     JtsSpatialContextFactory jtsCtxFactory = new JtsSpatialContextFactory();